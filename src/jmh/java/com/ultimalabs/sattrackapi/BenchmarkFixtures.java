@@ -0,0 +1,131 @@
+package com.ultimalabs.sattrackapi;
+
+import org.orekit.data.ClasspathCrawler;
+import org.orekit.data.DataProvidersManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offline data for the benchmarks
+ * <p>
+ * Orekit data and TLE samples are bundled in the benchmark resources,
+ * so the benchmarks run without network access.
+ */
+public class BenchmarkFixtures {
+
+    /**
+     * Satellite Catalog Numbers of the bundled samples
+     */
+    public static final String LEO = "25544";
+    public static final String MEO = "24876";
+    public static final String GEO = "28884";
+
+    /**
+     * Observer location (Ultima)
+     */
+    public static final double LATITUDE = 46.1613;
+    public static final double LONGITUDE = 15.7534;
+    public static final double ALTITUDE = 200.;
+
+    private static boolean orekitLoaded = false;
+
+    private BenchmarkFixtures() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Loads the bundled Orekit data, once per JVM
+     */
+    public static synchronized void loadOrekitData() {
+        if (!orekitLoaded) {
+            DataProvidersManager.getInstance().addProvider(new ClasspathCrawler("orekit-data/tai-utc.dat"));
+            orekitLoaded = true;
+        }
+    }
+
+    /**
+     * Returns the bundled TLE samples: three LEO, one MEO and one GEO satellite
+     *
+     * @return TLE data, three lines per satellite
+     */
+    public static List<String> sampleTles() {
+
+        List<String> lines = new ArrayList<>();
+
+        try (InputStream stream = BenchmarkFixtures.class.getResourceAsStream("/tle/sample.txt");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return lines;
+
+    }
+
+    /**
+     * Builds a full-catalog sized TLE file from the samples
+     * <p>
+     * Each satellite gets its own Catalog Number and International
+     * Designator (and valid checksums), so none of them are merged.
+     *
+     * @param size number of satellites
+     * @return TLE data, three lines per satellite
+     */
+    public static List<String> syntheticCatalog(int size) {
+
+        List<String> samples = sampleTles();
+        int sampleCount = samples.size() / 3;
+        List<String> lines = new ArrayList<>(size * 3);
+
+        for (int i = 0; i < size; i++) {
+
+            int sample = i % sampleCount;
+            String satelliteNumber = String.format("%05d", 40000 + i);
+            String designator = String.format("%02d%03dA  ", (i / 999) % 100, i % 999 + 1);
+
+            String line1 = samples.get(sample * 3 + 1);
+            String line2 = samples.get(sample * 3 + 2);
+
+            line1 = line1.substring(0, 2) + satelliteNumber + line1.charAt(7) + ' ' + designator + line1.substring(17, 68);
+            line2 = line2.substring(0, 2) + satelliteNumber + line2.substring(7, 68);
+
+            lines.add("SAT " + satelliteNumber);
+            lines.add(line1 + checksum(line1));
+            lines.add(line2 + checksum(line2));
+        }
+
+        return lines;
+
+    }
+
+    /**
+     * Calculates a TLE line checksum
+     *
+     * @param line TLE line, without the checksum
+     * @return checksum digit
+     */
+    private static char checksum(String line) {
+        int sum = 0;
+        for (int i = 0; i < 68; i++) {
+            char c = line.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sum += c - '0';
+            } else if (c == '-') {
+                sum++;
+            }
+        }
+        return (char) ('0' + sum % 10);
+    }
+
+}
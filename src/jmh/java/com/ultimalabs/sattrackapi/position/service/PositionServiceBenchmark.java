@@ -0,0 +1,107 @@
+package com.ultimalabs.sattrackapi.position.service;
+
+import com.ultimalabs.sattrackapi.BenchmarkFixtures;
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.common.service.TransformCacheServiceImpl;
+import com.ultimalabs.sattrackapi.position.model.SatellitePosition;
+import com.ultimalabs.sattrackapi.position.model.SatellitePositions;
+import com.ultimalabs.sattrackapi.tle.service.PropagatorCacheServiceImpl;
+import com.ultimalabs.sattrackapi.tle.util.FixtureTleFetcherService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Position calculation, single satellite and a bulk request for a catalog,
+ * propagated and interpolated from the ephemeris cache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PositionServiceBenchmark {
+
+    private static final int CATALOG_SIZE = 3000;
+
+    private PositionService positionService;
+
+    private PositionService cachedPositionService;
+
+    private ExecutorService executor;
+
+    private ExecutorService ephemerisExecutor;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkFixtures.loadOrekitData();
+
+        SatTrackConfig config = new SatTrackConfig();
+        config.setEphemerisCacheSize(0);
+        SatTrackConfig cachedConfig = new SatTrackConfig();
+        cachedConfig.setEphemerisCacheSize(CATALOG_SIZE);
+
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        ephemerisExecutor = Executors.newSingleThreadExecutor();
+
+        FixtureTleFetcherService tleFetcherService = new FixtureTleFetcherService(BenchmarkFixtures.syntheticCatalog(CATALOG_SIZE));
+        PropagatorCacheServiceImpl propagatorCacheService = new PropagatorCacheServiceImpl(config, new SimpleMeterRegistry());
+        TransformCacheServiceImpl transformCacheService = new TransformCacheServiceImpl(config, new SimpleMeterRegistry());
+
+        positionService = new PositionServiceImpl(tleFetcherService,
+                propagatorCacheService,
+                transformCacheService,
+                new EphemerisCacheServiceImpl(config, tleFetcherService, propagatorCacheService, ephemerisExecutor, new SimpleMeterRegistry()),
+                config,
+                executor);
+
+        cachedPositionService = new PositionServiceImpl(tleFetcherService,
+                propagatorCacheService,
+                transformCacheService,
+                new EphemerisCacheServiceImpl(cachedConfig, tleFetcherService, propagatorCacheService, ephemerisExecutor, new SimpleMeterRegistry()),
+                cachedConfig,
+                executor);
+
+        // only the single satellite requests queue the ephemeris builds; wait until each is done
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            cachedPositionService.getPosition(String.format("%05d", 40000 + i));
+            ephemerisExecutor.submit(() -> {
+            }).get();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        ephemerisExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public SatellitePosition position() {
+        return positionService.getPosition("40000");
+    }
+
+    @Benchmark
+    public SatellitePositions bulkPositions() {
+        return positionService.getPositions(null, "all", null);
+    }
+
+    @Benchmark
+    public SatellitePosition interpolatedPosition() {
+        return cachedPositionService.getPosition("40000");
+    }
+
+    @Benchmark
+    public SatellitePositions interpolatedBulkPositions() {
+        return cachedPositionService.getPositions(null, "all", null);
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.ultimalabs.sattrackapi.predict.service;
+
+import com.ultimalabs.sattrackapi.BenchmarkFixtures;
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.common.model.QuantizedLocation;
+import com.ultimalabs.sattrackapi.common.service.ObserverFrameServiceImpl;
+import com.ultimalabs.sattrackapi.common.service.TransformCacheServiceImpl;
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+import com.ultimalabs.sattrackapi.predict.model.SatellitePass;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.service.PropagatorCacheServiceImpl;
+import com.ultimalabs.sattrackapi.tle.util.FixtureTleFetcherService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.orekit.time.AbsoluteDate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Next pass search, for LEO, MEO and GEO samples
+ * <p>
+ * The pass cache is bypassed and there are no registered stations, so
+ * every call searches. The GEO sample
+ * has no passes (it is either always visible or never), which is the
+ * full 72 hour search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NextPassBenchmark {
+
+    @Param({BenchmarkFixtures.LEO, BenchmarkFixtures.MEO, BenchmarkFixtures.GEO})
+    private String satellite;
+
+    private PredictService predictService;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.loadOrekitData();
+
+        SatTrackConfig config = new SatTrackConfig();
+
+        predictService = new PredictServiceImpl(new FixtureTleFetcherService(BenchmarkFixtures.sampleTles()),
+                new PropagatorCacheServiceImpl(config, new SimpleMeterRegistry()),
+                new ObserverFrameServiceImpl(config),
+                (key, loader) -> loader.apply(key),
+                new NoTimetables(),
+                new TransformCacheServiceImpl(config, new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public SatellitePass nextPass() {
+        return predictService.getNextEventWithoutDetails(satellite,
+                BenchmarkFixtures.LATITUDE, BenchmarkFixtures.LONGITUDE, BenchmarkFixtures.ALTITUDE, 10.);
+    }
+
+    /**
+     * Timetable service without registered stations
+     */
+    private static class NoTimetables implements PassTimetableService {
+
+        @Override
+        public PassWindow getNextPass(TLEPlus tle, QuantizedLocation location, double minElevation, AbsoluteDate now) {
+            return null;
+        }
+
+        @Override
+        public List<PassWindow> getPasses(TLEPlus tle, QuantizedLocation location, double minElevation, AbsoluteDate now, int count) {
+            return null;
+        }
+
+        @Override
+        public List<PassWindow> getPassesWithin(TLEPlus tle, QuantizedLocation location, double minElevation, AbsoluteDate now, double duration) {
+            return null;
+        }
+
+    }
+
+}
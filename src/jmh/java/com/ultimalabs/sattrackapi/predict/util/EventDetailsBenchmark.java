@@ -0,0 +1,132 @@
+package com.ultimalabs.sattrackapi.predict.util;
+
+import com.ultimalabs.sattrackapi.BenchmarkFixtures;
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.common.model.EarthParams;
+import com.ultimalabs.sattrackapi.common.service.TransformCacheServiceImpl;
+import com.ultimalabs.sattrackapi.predict.model.PassEventDataPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.frames.TopocentricFrame;
+import org.orekit.frames.Transform;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.PVCoordinates;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-step pass data point calculation, current versus the previous implementation,
+ * and with the TEME to Earth transforms shared through the transform cache (as they are
+ * when several requests follow the same pass)
+ * <p>
+ * Run with "./gradlew jmh"; the "gc" profiler reports the allocation per data point
+ * ("gc.alloc.rate.norm").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventDetailsBenchmark {
+
+    private static final int STATES = 1024;
+
+    private final SpacecraftState[] states = new SpacecraftState[STATES];
+
+    private TopocentricFrame observerFrame;
+
+    private TransformCacheServiceImpl transformCacheService;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.loadOrekitData();
+
+        TLE tle = new TLE(
+                "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405");
+        TLEPropagator propagator = TLEPropagator.selectExtrapolator(tle);
+
+        observerFrame = new TopocentricFrame(EarthParams.EARTH,
+                new GeodeticPoint(FastMath.toRadians(46.1613), FastMath.toRadians(15.7534), 200.), "observer");
+
+        transformCacheService = new TransformCacheServiceImpl(new SatTrackConfig(), new SimpleMeterRegistry());
+
+        // one state per second, like a pass with a one second step
+        AbsoluteDate start = tle.getDate();
+        for (int i = 0; i < STATES; i++) {
+            states[i] = propagator.propagate(start.shiftedBy(i));
+        }
+    }
+
+    private SpacecraftState nextState() {
+        next = (next + 1) & (STATES - 1);
+        return states[next];
+    }
+
+    @Benchmark
+    public PassEventDataPoint current() {
+        return PredictUtil.getEventDetails(nextState(), observerFrame);
+    }
+
+    @Benchmark
+    public PassEventDataPoint cachedTransform() {
+        SpacecraftState state = nextState();
+        return PredictUtil.getEventDetails(state, observerFrame, transformCacheService.getTemeToEarth(state.getDate()));
+    }
+
+    @Benchmark
+    public PassEventDataPoint previous() {
+        return previousEventDetails(nextState(), observerFrame);
+    }
+
+    /**
+     * Previous implementation: second transform for the distance,
+     * String.format based timestamp and BigDecimal rounding
+     */
+    private static PassEventDataPoint previousEventDetails(SpacecraftState s, TopocentricFrame observerFrame) {
+
+        Transform transform = s.getFrame().getTransformTo(observerFrame, s.getDate());
+
+        PVCoordinates pv = transform.transformPVCoordinates(s.getPVCoordinates());
+        Vector3D position = pv.getPosition();
+        Vector3D velocity = pv.getVelocity();
+
+        double azimuth = FastMath.toDegrees(position.getAlpha() * -1.) + 90;
+
+        if (azimuth < 0.) {
+            azimuth += 360.;
+        }
+
+        double elevation = FastMath.toDegrees(position.getDelta());
+        double distance = s.getPVCoordinates(observerFrame).getPosition().getNorm();
+        double doppler = position.normalize().dotProduct(velocity);
+
+        return new PassEventDataPoint(
+                s.getDate().toString(),
+                bigDecimalRound(azimuth, 2),
+                bigDecimalRound(elevation, 2),
+                bigDecimalRound(distance, 0),
+                bigDecimalRound(doppler, 0)
+        );
+
+    }
+
+    private static double bigDecimalRound(double value, int places) {
+        return BigDecimal.valueOf(value).setScale(places, RoundingMode.HALF_UP).doubleValue();
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.ultimalabs.sattrackapi.BenchmarkFixtures;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog index against the HashMaps it replaces, for a full-catalog sized file
+ * <p>
+ * Lookups hit three times out of four. The build benchmarks allocate
+ * the structure once per operation, so their allocation per operation
+ * ({@code gc.alloc.rate.norm}) approximates the structure footprint, on
+ * top of the TLE objects themselves: the maps include their keys, and
+ * the index includes its (short-lived) sort buffers, so it's an upper bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CatalogIndexBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({"60000"})
+    private int catalogSize;
+
+    private List<TLEPlus> tles;
+
+    private Map<Integer, TLEPlus> bySatelliteId;
+
+    private Map<String, TLEPlus> byDesignator;
+
+    private CatalogIndex index;
+
+    private int[] satelliteIds;
+
+    private String[] designators;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.loadOrekitData();
+        List<String> lines = BenchmarkFixtures.syntheticCatalog(catalogSize);
+        tles = TleDataStoreBuilder.parseTles(lines, 0, lines.size());
+
+        bySatelliteId = buildSatelliteIdMap();
+        byDesignator = buildDesignatorMap();
+        index = CatalogIndex.of(bySatelliteId, byDesignator);
+
+        Random random = new Random(42);
+        satelliteIds = new int[LOOKUPS];
+        designators = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            TLEPlus tle = tles.get(random.nextInt(tles.size()));
+            boolean hit = random.nextInt(4) != 0;
+            satelliteIds[i] = hit ? tle.getSatelliteNumber() : tle.getSatelliteNumber() + catalogSize;
+            designators[i] = hit ? tle.getInternationalDesignator() : tle.getInternationalDesignator() + "Z";
+        }
+    }
+
+    @Benchmark
+    public TLEPlus hashMapBySatelliteId() {
+        return bySatelliteId.get(satelliteIds[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public TLEPlus indexBySatelliteId() {
+        return index.getBySatelliteId(satelliteIds[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public TLEPlus hashMapByDesignator() {
+        return byDesignator.get(designators[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public TLEPlus indexByDesignator() {
+        return index.getByInternationalDesignator(designators[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object buildHashMaps() {
+        return new Object[]{buildSatelliteIdMap(), buildDesignatorMap()};
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public CatalogIndex buildIndex() {
+        return CatalogIndex.of(bySatelliteId, byDesignator);
+    }
+
+    private Map<Integer, TLEPlus> buildSatelliteIdMap() {
+        Map<Integer, TLEPlus> map = new HashMap<>();
+        for (TLEPlus tle : tles) {
+            map.put(tle.getSatelliteNumber(), tle);
+        }
+        return map;
+    }
+
+    private Map<String, TLEPlus> buildDesignatorMap() {
+        Map<String, TLEPlus> map = new HashMap<>();
+        for (TLEPlus tle : tles) {
+            map.put(tle.getInternationalDesignator(), tle);
+        }
+        return map;
+    }
+
+}
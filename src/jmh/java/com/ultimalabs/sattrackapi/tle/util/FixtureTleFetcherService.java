@@ -0,0 +1,56 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.model.TleDataStore;
+import com.ultimalabs.sattrackapi.tle.service.TleFetcherService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * TLE fetcher backed by the benchmark fixtures, without network access
+ */
+public class FixtureTleFetcherService implements TleFetcherService {
+
+    private final TleDataStore tleStore;
+
+    public FixtureTleFetcherService(List<String> tleTextData) {
+        this.tleStore = TleDataStoreBuilder.buildTleMaps(tleTextData);
+    }
+
+    @Override
+    public TLEPlus getTle(String searchString) {
+        TLEPlus tle = tleStore.getCatalogIndex().getByInternationalDesignator(searchString);
+        return tle != null ? tle : getTleBySatelliteId(Integer.parseInt(searchString));
+    }
+
+    @Override
+    public TLEPlus getTleBySatelliteId(int id) {
+        return tleStore.getCatalogIndex().getBySatelliteId(id);
+    }
+
+    @Override
+    public TLEPlus getTleByInternationalDesignator(String designator) {
+        return tleStore.getCatalogIndex().getByInternationalDesignator(designator);
+    }
+
+    @Override
+    public Collection<TLEPlus> getAllTles() {
+        return tleStore.getCatalogIndex().getTles();
+    }
+
+    /**
+     * Fixtures aren't grouped, every group is the whole catalog
+     */
+    @Override
+    public Collection<TLEPlus> getTlesByGroup(String group) {
+        return new ArrayList<>(getAllTles());
+    }
+
+    @Override
+    public TleDataStore getTleDataStore() {
+        return tleStore;
+    }
+
+}
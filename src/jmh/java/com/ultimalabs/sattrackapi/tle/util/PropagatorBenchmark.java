@@ -0,0 +1,54 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.ultimalabs.sattrackapi.BenchmarkFixtures;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TLE propagator construction and a single propagation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PropagatorBenchmark {
+
+    @Param({BenchmarkFixtures.LEO, BenchmarkFixtures.MEO, BenchmarkFixtures.GEO})
+    private String satellite;
+
+    private TLEPlus tle;
+
+    private TLEPropagator propagator;
+
+    private double shift;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.loadOrekitData();
+        tle = new FixtureTleFetcherService(BenchmarkFixtures.sampleTles()).getTle(satellite);
+        propagator = TLEPropagator.selectExtrapolator(tle);
+    }
+
+    @Benchmark
+    public TLEPropagator construct() {
+        return TLEPropagator.selectExtrapolator(tle);
+    }
+
+    @Benchmark
+    public SpacecraftState propagate() {
+        // a different date each time, one orbit worth of minutes
+        shift = (shift + 60.) % 6000.;
+        return propagator.propagate(tle.getDate().shiftedBy(shift));
+    }
+
+}
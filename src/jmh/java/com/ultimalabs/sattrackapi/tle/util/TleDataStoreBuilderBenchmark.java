@@ -0,0 +1,41 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.ultimalabs.sattrackapi.BenchmarkFixtures;
+import com.ultimalabs.sattrackapi.tle.model.TleDataStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TLE data store build from a full-catalog sized TLE file
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TleDataStoreBuilderBenchmark {
+
+    @Param({"20000"})
+    private int catalogSize;
+
+    private List<String> tleTextData;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.loadOrekitData();
+        tleTextData = BenchmarkFixtures.syntheticCatalog(catalogSize);
+    }
+
+    @Benchmark
+    public TleDataStore buildTleMaps() {
+        return TleDataStoreBuilder.buildTleMaps(tleTextData);
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.ultimalabs.sattrackapi.common.config;
+
+import com.ultimalabs.sattrackapi.common.util.VirtualThreads;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executors for CPU-bound work and for the TLE downloads
+ * <p>
+ * The CPU-bound executors always use platform threads, sized to the
+ * available processors or the configured parallelism.
+ */
+@RequiredArgsConstructor
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Config object
+     */
+    private final SatTrackConfig config;
+
+    /**
+     * Executor for the catalog-wide pass prediction
+     *
+     * @return fixed size executor
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService batchPredictExecutor() {
+        return Executors.newFixedThreadPool(effectiveParallelism(config.getBatchPredictParallelism()),
+                new CustomizableThreadFactory("batch-predict-"));
+    }
+
+    /**
+     * Executor for the bulk positions
+     * <p>
+     * Separate from the catalog-wide pass prediction, so long pass
+     * streams don't hold up the (short) bulk position requests.
+     *
+     * @return fixed size executor
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService positionExecutor() {
+        return Executors.newFixedThreadPool(effectiveParallelism(config.getPositionParallelism()),
+                new CustomizableThreadFactory("position-"));
+    }
+
+    /**
+     * Executor for the TLE parsing
+     *
+     * @return fixed size executor
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService tleParseExecutor() {
+        return Executors.newFixedThreadPool(effectiveParallelism(config.getTleParseParallelism()),
+                new CustomizableThreadFactory("tle-parse-"));
+    }
+
+    /**
+     * Executor for the concurrent TLE source downloads
+     * <p>
+     * Downloads only wait for I/O, so they run on virtual threads if
+     * enabled; the pool size still limits the concurrent downloads.
+     *
+     * @return fixed size executor
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService tleFetchExecutor() {
+        ThreadFactory threadFactory = config.isVirtualThreads()
+                ? VirtualThreads.factory("tle-fetch-")
+                : new CustomizableThreadFactory("tle-fetch-");
+        return Executors.newFixedThreadPool(config.getTleFetchParallelism(), threadFactory);
+    }
+
+    /**
+     * Executor for the initial TLE refresh, after a startup from the cached TLE data
+     *
+     * @return single thread executor
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService tleRefreshExecutor() {
+        return Executors.newSingleThreadExecutor(new CustomizableThreadFactory("tle-refresh-"));
+    }
+
+    /**
+     * Executor for the pass timetables of the registered stations
+     *
+     * @return fixed size executor
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService timetableExecutor() {
+        return Executors.newFixedThreadPool(config.getTimetableParallelism(),
+                new CustomizableThreadFactory("pass-timetable-"));
+    }
+
+    /**
+     * Executor for the cached ephemerides
+     *
+     * @return single thread executor
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService ephemerisExecutor() {
+        return Executors.newSingleThreadExecutor(new CustomizableThreadFactory("ephemeris-"));
+    }
+
+    /**
+     * Executor for the pass endpoints
+     * <p>
+     * The queue is bounded, so a burst of slow requests is rejected
+     * instead of piling up behind the busy threads.
+     *
+     * @return fixed size executor with a bounded queue
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService passComputeExecutor() {
+        int threads = effectiveParallelism(config.getPassComputeParallelism());
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getPassComputeQueueSize()),
+                new CustomizableThreadFactory("pass-compute-"));
+    }
+
+    /**
+     * Executor for the streamed responses (Spring MVC async requests)
+     * <p>
+     * Spring Boot only creates it if there are no other executors, so it's
+     * declared here, configured by the spring.task.execution properties.
+     * With virtual threads, the streamed responses run on those instead.
+     *
+     * @param builder task executor builder
+     * @return thread pool executor
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    @ConditionalOnProperty(prefix = "sattrack", name = "virtualThreads", havingValue = "false", matchIfMissing = true)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of threads for a configured parallelism
+     *
+     * @param parallelism configured parallelism; zero means one thread per available processor
+     * @return number of threads
+     */
+    public static int effectiveParallelism(int parallelism) {
+        if (parallelism > 0) {
+            return parallelism;
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+}
@@ -5,6 +5,11 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
+import javax.validation.Valid;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.util.ArrayList;
 import java.util.List;
@@ -34,4 +39,207 @@ public class SatTrackConfig {
     @NotNull
     private List<String> tleUrls = new ArrayList<>();
 
+    /**
+     * Maximum number of TLE sources downloaded at the same time
+     */
+    @Min(1)
+    private int tleFetchParallelism = 4;
+
+    /**
+     * Number of threads used to parse the downloaded TLE sources;
+     * zero means one thread per available processor
+     */
+    @Min(0)
+    private int tleParseParallelism = 0;
+
+    /**
+     * Folder for the downloaded TLE sources; the cache is disabled if not set
+     */
+    private String tleCacheFolder;
+
+    /**
+     * Maximum number of idle propagators kept per satellite
+     */
+    @Min(1)
+    private int propagatorPoolSize = 4;
+
+    /**
+     * Maximum number of cached observer frames
+     */
+    @Min(1)
+    private int observerFrameCacheSize = 256;
+
+    /**
+     * Maximum number of cached pass windows
+     */
+    @Min(1)
+    private int passCacheSize = 10000;
+
+    /**
+     * Maximum time a pass window stays cached, in seconds
+     */
+    @Min(1)
+    private int passCacheTtl = 600;
+
+    /**
+     * Maximum time a missing pass ("no pass in the next 72 hours") stays cached, in seconds
+     */
+    @Min(1)
+    private int passCacheMissTtl = 60;
+
+    /**
+     * Number of threads used for the catalog-wide pass prediction;
+     * zero means one thread per available processor
+     */
+    @Min(0)
+    private int batchPredictParallelism = 0;
+
+    /**
+     * Number of threads used for the bulk position calculation;
+     * zero means one thread per available processor
+     */
+    @Min(0)
+    private int positionParallelism = 0;
+
+    /**
+     * Maximum pass prediction time for a single satellite in the
+     * catalog-wide pass prediction, in milliseconds
+     */
+    @Min(1)
+    private long batchPredictTimeout = 2000;
+
+    /**
+     * Registered ground stations; their pass timetables are
+     * precomputed in the background
+     */
+    @Valid
+    @NotNull
+    private List<Station> stations = new ArrayList<>();
+
+    /**
+     * Pass timetable span, in days
+     */
+    @Min(1)
+    @Max(10)
+    private int timetableDays = 3;
+
+    /**
+     * Number of threads used to compute the pass timetables
+     */
+    @Min(1)
+    private int timetableParallelism = 1;
+
+    /**
+     * Maximum number of satellites with a cached ephemeris;
+     * zero disables the ephemeris cache
+     */
+    @Min(0)
+    private int ephemerisCacheSize = 1000;
+
+    /**
+     * Cached ephemeris span, in seconds; a satellite's ephemeris is
+     * dropped if it isn't requested within this time
+     */
+    @Min(60)
+    private int ephemerisCacheWindow = 3600;
+
+    /**
+     * Cached ephemeris interpolation error bound, in meters
+     */
+    @DecimalMin("0.001")
+    private double ephemerisCacheError = 1.;
+
+    /**
+     * Maximum number of cached TEME to Earth frame transforms;
+     * zero disables the transform cache
+     */
+    @Min(0)
+    private int transformCacheSize = 4096;
+
+    /**
+     * Transform cache time bucket, in seconds
+     */
+    @DecimalMin("0.000001")
+    private double transformCacheResolution = 0.1;
+
+    /**
+     * Whether the cached transforms are shifted to the requested date;
+     * without it, keep the resolution at a millisecond or below
+     */
+    private boolean transformCacheInterpolation = true;
+
+    /**
+     * Number of threads computing the passes requested through the
+     * pass endpoints; zero means one thread per available processor
+     */
+    @Min(0)
+    private int passComputeParallelism = 0;
+
+    /**
+     * Maximum number of pass requests waiting for a thread; requests
+     * beyond it are rejected
+     */
+    @Min(1)
+    private int passComputeQueueSize = 100;
+
+    /**
+     * Maximum time for a pass request, including the time spent
+     * waiting for a thread, in milliseconds
+     */
+    @Min(1)
+    private long passComputeTimeout = 10000;
+
+    /**
+     * Whether the HTTP requests and the TLE source downloads run on
+     * virtual threads; requires Java 21 or later
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * Registered ground station
+     */
+    @Data
+    public static class Station {
+
+        /**
+         * Station name
+         */
+        @NotBlank
+        private String name;
+
+        /**
+         * Latitude, in degrees
+         */
+        @Min(-90)
+        @Max(90)
+        private double latitude;
+
+        /**
+         * Longitude, in degrees
+         */
+        @Min(-180)
+        @Max(180)
+        private double longitude;
+
+        /**
+         * Altitude, in meters
+         */
+        @Min(0)
+        private double altitude;
+
+        /**
+         * Minimum elevation, in degrees
+         */
+        @Min(0)
+        @Max(90)
+        private double minElevation;
+
+        /**
+         * Satellite Catalog Numbers of the tracked satellites
+         */
+        @NotNull
+        private List<Integer> satellites = new ArrayList<>();
+
+    }
+
 }
@@ -0,0 +1,62 @@
+package com.ultimalabs.sattrackapi.common.config;
+
+import com.ultimalabs.sattrackapi.common.util.VirtualThreads;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual thread request handling, enabled with sattrack.virtualThreads
+ * <p>
+ * Tomcat handles each request on a new virtual thread instead of its
+ * worker pool, and so do the streamed responses. The CPU-bound work
+ * (pass computation, catalog-wide prediction, timetables, ephemerides)
+ * stays on its fixed size executors, so virtual threads only wait for
+ * I/O and the executors, and don't compete for the carrier threads.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "sattrack", name = "virtualThreads", havingValue = "true")
+public class VirtualThreadConfig implements WebMvcConfigurer {
+
+    /**
+     * Executor for the HTTP requests
+     *
+     * @return thread per task executor
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService requestExecutor() {
+        log.info("Handling requests on virtual threads");
+        return VirtualThreads.newThreadPerTaskExecutor("http-");
+    }
+
+    /**
+     * Replaces the Tomcat worker pool with the request executor
+     *
+     * @return protocol handler customizer
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadCustomizer() {
+        ExecutorService executor = requestExecutor();
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * Runs the streamed responses on the request executor
+     *
+     * @param configurer async support configurer
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new ConcurrentTaskExecutor(requestExecutor()));
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.ultimalabs.sattrackapi.common.model;
 
+import org.orekit.bodies.BodyShape;
+import org.orekit.bodies.OneAxisEllipsoid;
 import org.orekit.frames.Frame;
 import org.orekit.frames.FramesFactory;
 import org.orekit.utils.Constants;
@@ -8,7 +10,7 @@ import org.orekit.utils.IERSConventions;
 /**
  * Earth parameters
  * <p>
- * Holds equatorial radius, FLATTENING and Earth frame
+ * Holds equatorial radius, FLATTENING, Earth frame and Earth body shape
  */
 public class EarthParams {
 
@@ -30,4 +32,12 @@ public class EarthParams {
      * Earth frame
      */
     public static final Frame iers2010Frame = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+
+    /**
+     * Earth body shape
+     * <p>
+     * OneAxisEllipsoid is immutable, so a single instance is shared
+     * by all the requests.
+     */
+    public static final BodyShape EARTH = new OneAxisEllipsoid(EQUATORIAL_RADIUS, FLATTENING, iers2010Frame);
 }
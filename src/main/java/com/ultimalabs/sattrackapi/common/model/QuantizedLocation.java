@@ -0,0 +1,69 @@
+package com.ultimalabs.sattrackapi.common.model;
+
+import lombok.Data;
+import org.hipparchus.util.FastMath;
+import org.orekit.bodies.GeodeticPoint;
+
+/**
+ * Observer location, quantized
+ * <p>
+ * Latitude and longitude are rounded to 0.00001 degrees (about a meter)
+ * and altitude to a meter, so requests from the same ground station
+ * map to the same location.
+ */
+@Data
+public class QuantizedLocation {
+
+    /**
+     * Latitude and longitude quantization, in degrees
+     */
+    private static final double ANGLE_QUANTUM = 1e-5;
+
+    /**
+     * Altitude quantization, in meters
+     */
+    private static final double ALTITUDE_QUANTUM = 1.;
+
+    /**
+     * Latitude, in ANGLE_QUANTUM units
+     */
+    private final long latitude;
+
+    /**
+     * Longitude, in ANGLE_QUANTUM units
+     */
+    private final long longitude;
+
+    /**
+     * Altitude, in ALTITUDE_QUANTUM units
+     */
+    private final long altitude;
+
+    /**
+     * Quantizes observer coordinates
+     *
+     * @param latitude  latitude, in degrees
+     * @param longitude longitude, in degrees
+     * @param altitude  altitude, in meters
+     * @return quantized location
+     */
+    public static QuantizedLocation of(double latitude, double longitude, double altitude) {
+        return new QuantizedLocation(
+                FastMath.round(latitude / ANGLE_QUANTUM),
+                FastMath.round(longitude / ANGLE_QUANTUM),
+                FastMath.round(altitude / ALTITUDE_QUANTUM));
+    }
+
+    /**
+     * Returns the location as a geodetic point
+     *
+     * @return geodetic point
+     */
+    public GeodeticPoint toGeodeticPoint() {
+        return new GeodeticPoint(
+                FastMath.toRadians(latitude * ANGLE_QUANTUM),
+                FastMath.toRadians(longitude * ANGLE_QUANTUM),
+                altitude * ALTITUDE_QUANTUM);
+    }
+
+}
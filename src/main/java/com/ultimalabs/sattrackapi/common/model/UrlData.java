@@ -0,0 +1,28 @@
+package com.ultimalabs.sattrackapi.common.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Data read from an URL, along with its HTTP cache validators
+ */
+@Data
+public class UrlData {
+
+    /**
+     * Contents, line by line
+     */
+    private final List<String> lines;
+
+    /**
+     * ETag response header, or null if there was none
+     */
+    private final String etag;
+
+    /**
+     * Last-Modified response header, or null if there was none
+     */
+    private final String lastModified;
+
+}
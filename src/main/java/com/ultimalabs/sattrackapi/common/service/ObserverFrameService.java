@@ -0,0 +1,12 @@
+package com.ultimalabs.sattrackapi.common.service;
+
+import com.ultimalabs.sattrackapi.common.model.QuantizedLocation;
+import org.orekit.frames.TopocentricFrame;
+
+public interface ObserverFrameService {
+
+    TopocentricFrame getObserverFrame(double latitude, double longitude, double altitude);
+
+    TopocentricFrame getObserverFrame(QuantizedLocation location);
+
+}
@@ -0,0 +1,78 @@
+package com.ultimalabs.sattrackapi.common.service;
+
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.common.model.EarthParams;
+import com.ultimalabs.sattrackapi.common.model.QuantizedLocation;
+import lombok.extern.slf4j.Slf4j;
+import org.orekit.frames.TopocentricFrame;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Observer frame service
+ * <p>
+ * Keeps a bounded LRU cache of observer frames. Observer coordinates
+ * are quantized, so requests from the same ground station share
+ * a single frame.
+ */
+@Slf4j
+@Service
+public class ObserverFrameServiceImpl implements ObserverFrameService {
+
+    /**
+     * Cached frames, in access order
+     */
+    private final Map<QuantizedLocation, TopocentricFrame> frames;
+
+    public ObserverFrameServiceImpl(SatTrackConfig config) {
+        final int maxSize = config.getObserverFrameCacheSize();
+        this.frames = new LinkedHashMap<QuantizedLocation, TopocentricFrame>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<QuantizedLocation, TopocentricFrame> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns observer frame for the given coordinates
+     *
+     * @param latitude  observer latitude, in degrees
+     * @param longitude observer longitude, in degrees
+     * @param altitude  observer altitude, in meters
+     * @return observer frame
+     */
+    @Override
+    public TopocentricFrame getObserverFrame(double latitude, double longitude, double altitude) {
+        return getObserverFrame(QuantizedLocation.of(latitude, longitude, altitude));
+    }
+
+    /**
+     * Returns observer frame for the given location
+     *
+     * @param location quantized observer location
+     * @return observer frame
+     */
+    @Override
+    public TopocentricFrame getObserverFrame(QuantizedLocation location) {
+
+        synchronized (frames) {
+            TopocentricFrame frame = frames.get(location);
+            if (frame != null) {
+                return frame;
+            }
+        }
+
+        // frame is built outside the lock; in the worst case two
+        // threads build an equal frame and one of them is discarded
+        TopocentricFrame frame = new TopocentricFrame(EarthParams.EARTH, location.toGeodeticPoint(), "observer");
+
+        synchronized (frames) {
+            TopocentricFrame existing = frames.putIfAbsent(location, frame);
+            return existing != null ? existing : frame;
+        }
+    }
+
+}
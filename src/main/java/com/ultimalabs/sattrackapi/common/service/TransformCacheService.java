@@ -0,0 +1,10 @@
+package com.ultimalabs.sattrackapi.common.service;
+
+import org.orekit.frames.Transform;
+import org.orekit.time.AbsoluteDate;
+
+public interface TransformCacheService {
+
+    Transform getTemeToEarth(AbsoluteDate date);
+
+}
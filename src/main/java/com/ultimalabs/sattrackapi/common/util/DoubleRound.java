@@ -8,8 +8,30 @@ import java.math.RoundingMode;
  */
 public class DoubleRound {
 
+    /**
+     * Powers of ten, for the supported fast path decimal places
+     */
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9};
+
+    /**
+     * Largest scaled value which still has a fractional part (2^52)
+     */
+    private static final double MAX_FAST_SCALED_VALUE = 4503599627370496.;
+
+    /**
+     * Distance from a half (in ulps of the scaled value) below which the
+     * fast path can't tell the rounding direction
+     */
+    private static final double HALF_MARGIN_ULPS = 4.;
+
     /**
      * Round a double value to a number of decimal places
+     * <p>
+     * Rounding is half up (away from zero), of the shortest decimal
+     * representation of the value, same as BigDecimal.valueOf(). Values
+     * with up to nine decimal places are rounded arithmetically, without
+     * allocations; the others, and the ones too close to a half to tell,
+     * fall back to BigDecimal.
      *
      * @param value  value that needs to be rounded
      * @param places number of decimal places
@@ -18,6 +40,20 @@ public class DoubleRound {
     public static double round(double value, int places) {
         if (places < 0) throw new IllegalArgumentException();
 
+        if (places < POWERS_OF_TEN.length) {
+            double scale = POWERS_OF_TEN[places];
+            double scaled = Math.abs(value) * scale;
+            // BigDecimal rounds the shortest decimal representation of the value,
+            // which the scaled double can be off by a couple of ulps; close to
+            // a half, that can flip the rounding, so those go to BigDecimal
+            if (scaled < MAX_FAST_SCALED_VALUE
+                    && Math.abs(scaled - Math.floor(scaled) - 0.5) > HALF_MARGIN_ULPS * Math.ulp(scaled)) {
+                double rounded = Math.floor(scaled + 0.5) / scale;
+                // no negative zero, same as BigDecimal
+                return value < 0. && rounded != 0. ? -rounded : rounded;
+            }
+        }
+
         BigDecimal bd = BigDecimal.valueOf(value);
         bd = bd.setScale(places, RoundingMode.HALF_UP);
         return bd.doubleValue();
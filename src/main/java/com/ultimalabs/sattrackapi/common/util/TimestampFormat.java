@@ -0,0 +1,81 @@
+package com.ultimalabs.sattrackapi.common.util;
+
+import org.hipparchus.util.FastMath;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.DateComponents;
+import org.orekit.time.DateTimeComponents;
+import org.orekit.time.TimeComponents;
+import org.orekit.time.TimeScale;
+import org.orekit.time.TimeScalesFactory;
+
+/**
+ * Timestamp formatting utility class
+ * <p>
+ * Produces the same ISO-8601 UTC timestamps, with milliseconds accuracy,
+ * as {@link AbsoluteDate#toString()}, but without the String.format calls,
+ * which dominate the cost of the per-step data points.
+ */
+public class TimestampFormat {
+
+    private TimestampFormat() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Formats a date as an UTC timestamp, e.g. "2019-03-14T12:00:00.000"
+     *
+     * @param date date to format
+     * @return formatted timestamp
+     */
+    public static String format(AbsoluteDate date) {
+
+        final TimeScale utc = UtcHolder.UTC;
+        final DateTimeComponents components = date.getComponents(utc);
+        final DateComponents day = components.getDate();
+        final TimeComponents time = components.getTime();
+
+        final long millis = FastMath.round(time.getSecond() * 1000.);
+
+        if (millis >= utc.minuteDuration(date) * 1000L) {
+            // rounded up into the next minute, rare enough to let Orekit carry it over
+            return date.toString();
+        }
+
+        final StringBuilder sb = new StringBuilder(23);
+        appendPadded(sb, day.getYear(), 4).append('-');
+        appendPadded(sb, day.getMonth(), 2).append('-');
+        appendPadded(sb, day.getDay(), 2).append('T');
+        appendPadded(sb, time.getHour(), 2).append(':');
+        appendPadded(sb, time.getMinute(), 2).append(':');
+        appendPadded(sb, (int) (millis / 1000L), 2).append('.');
+        appendPadded(sb, (int) (millis % 1000L), 3);
+
+        return sb.toString();
+
+    }
+
+    /**
+     * Appends a non-negative number, padded with leading zeros
+     *
+     * @param sb     string builder
+     * @param value  number to append
+     * @param digits minimum number of digits
+     * @return the string builder
+     */
+    private static StringBuilder appendPadded(StringBuilder sb, int value, int digits) {
+        for (int limit = 10, i = 1; i < digits; limit *= 10, i++) {
+            if (value < limit) {
+                sb.append('0');
+            }
+        }
+        return sb.append(value);
+    }
+
+    /**
+     * Lazily loaded UTC time scale, so Orekit data is read on the first use
+     */
+    private static class UtcHolder {
+        private static final TimeScale UTC = TimeScalesFactory.getUTC();
+    }
+
+}
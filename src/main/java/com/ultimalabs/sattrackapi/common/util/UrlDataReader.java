@@ -1,10 +1,12 @@
 package com.ultimalabs.sattrackapi.common.util;
 
+import com.ultimalabs.sattrackapi.common.model.UrlData;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -17,6 +19,11 @@ import java.util.List;
 @Slf4j
 public class UrlDataReader {
 
+    /**
+     * Connect and read timeout, in milliseconds
+     */
+    private static final int TIMEOUT = 60000;
+
     private UrlDataReader() {
         throw new IllegalStateException("Utility class");
     }
@@ -28,11 +35,29 @@ public class UrlDataReader {
      * @return contents of a file given by URL
      */
     public static List<String> readStringDataFromUrl(String dataUrl) {
+        UrlData data = readStringDataFromUrl(dataUrl, null);
+        return data != null ? data.getLines() : Collections.emptyList();
+    }
+
+    /**
+     * Read string data from an URL, unless it hasn't changed
+     * <p>
+     * If previously read data is given, a conditional request is sent,
+     * using its ETag and Last-Modified validators. When the server
+     * responds with 304 Not Modified, the previous data is returned as is,
+     * so the caller can tell the change by comparing the references.
+     *
+     * @param dataUrl  data URL
+     * @param previous previously read data, or null
+     * @return contents of a file given by URL, the previous data if it hasn't
+     * changed, or null in case of error
+     */
+    public static UrlData readStringDataFromUrl(String dataUrl, UrlData previous) {
 
         // create the url
         if (!UrlValidation.isValid(dataUrl)) {
             log.error("Invalid URL: '" + dataUrl + "'");
-            return Collections.emptyList();
+            return null;
         }
 
         URL url;
@@ -41,20 +66,48 @@ public class UrlDataReader {
             url = new URL(dataUrl);
         } catch (MalformedURLException e) {
             log.error("Invalid URL '" + dataUrl + "': " + e);
-            return Collections.emptyList();
+            return null;
         }
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()))) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(TIMEOUT);
+            connection.setReadTimeout(TIMEOUT);
+
+            if (previous != null && previous.getEtag() != null) {
+                connection.setRequestProperty("If-None-Match", previous.getEtag());
+            }
+            if (previous != null && previous.getLastModified() != null) {
+                connection.setRequestProperty("If-Modified-Since", previous.getLastModified());
+            }
+
+            int status = connection.getResponseCode();
+
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && previous != null) {
+                log.info("Data at " + dataUrl + " hasn't changed");
+                return previous;
+            }
+
+            if (status != HttpURLConnection.HTTP_OK) {
+                log.error("There was an error reading data from " + dataUrl + ": HTTP " + status);
+                return null;
+            }
+
             List<String> result = new ArrayList<>();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                result.add(line);
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    result.add(line);
+                }
             }
+
             log.info("Successfully read data from " + dataUrl);
-            return result;
+            return new UrlData(result, connection.getHeaderField("ETag"), connection.getHeaderField("Last-Modified"));
+
         } catch (IOException e) {
             log.error("There was an error reading data from " + dataUrl + ": " + e);
-            return Collections.emptyList();
+            return null;
         }
 
     }
@@ -0,0 +1,93 @@
+package com.ultimalabs.sattrackapi.common.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual thread utility class
+ * <p>
+ * The application is built for Java 8, so virtual threads (Java 21+) are
+ * created through reflection, and only when the running JVM has them.
+ */
+public class VirtualThreads {
+
+    /**
+     * Thread.ofVirtual(), or null if the JVM has no virtual threads
+     */
+    private static final Method OF_VIRTUAL = findOfVirtual();
+
+    private VirtualThreads() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Checks whether the running JVM has virtual threads
+     *
+     * @return true if virtual threads can be created
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Returns a factory for virtual threads
+     *
+     * @param prefix thread name prefix; threads are numbered from zero on
+     * @return virtual thread factory
+     * @throws IllegalStateException if the JVM has no virtual threads
+     */
+    public static ThreadFactory factory(String prefix) {
+
+        if (OF_VIRTUAL == null) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later, running on Java "
+                    + System.getProperty("java.version"));
+        }
+
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual thread factory can't be created", e);
+        }
+    }
+
+    /**
+     * Returns an executor which runs each task on a new virtual thread
+     *
+     * @param prefix thread name prefix
+     * @return thread per task executor
+     * @throws IllegalStateException if the JVM has no virtual threads
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+
+        ThreadFactory threadFactory = factory(prefix);
+
+        try {
+            Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) method.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual thread executor can't be created", e);
+        }
+    }
+
+    /**
+     * Looks up Thread.ofVirtual(), and checks it can be called
+     * (on Java 19 and 20, only with preview features enabled)
+     *
+     * @return method, or null if the JVM has no usable virtual threads
+     */
+    private static Method findOfVirtual() {
+        try {
+            Method method = Thread.class.getMethod("ofVirtual");
+            method.invoke(null);
+            return method;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+}
@@ -1,16 +1,33 @@
 package com.ultimalabs.sattrackapi.position.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ultimalabs.sattrackapi.position.model.GroundTrackSpan;
+import com.ultimalabs.sattrackapi.position.model.PositionsRequest;
 import com.ultimalabs.sattrackapi.position.model.SatellitePosition;
+import com.ultimalabs.sattrackapi.position.model.SatellitePositions;
 import com.ultimalabs.sattrackapi.position.service.PositionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.validation.Valid;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Size;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 /**
  * Positions REST controller
@@ -27,6 +44,11 @@ public class PositionController {
      */
     private final PositionService positionService;
 
+    /**
+     * JSON mapper, for the streamed responses
+     */
+    private final ObjectMapper objectMapper;
+
     @GetMapping("/{searchString}")
     public SatellitePosition getPosition(
             @Size(min = 5, max = 11, message = "Satellite identifier must be between 5 and 11 characters long")
@@ -34,4 +56,48 @@ public class PositionController {
         return positionService.getPosition(searchString);
     }
 
+    @GetMapping("/{searchString}/track")
+    public ResponseEntity<StreamingResponseBody> getGroundTrack(
+            @Size(min = 5, max = 11, message = "Satellite identifier must be between 5 and 11 characters long")
+            @PathVariable String searchString,
+            @RequestParam(required = false) String start,
+            @RequestParam String end,
+            @DecimalMin(value = "0.1", message = "Step should not be less than 0.1 seconds")
+            @Max(value = 3600, message = "Step should not be greater than 3600 seconds")
+            @RequestParam(defaultValue = "60") double step) {
+
+        // validated before streaming starts, so errors still get a proper status
+        GroundTrackSpan span = positionService.getGroundTrackSpan(searchString, start, end, step);
+
+        // one point per line, written as soon as it's calculated
+        StreamingResponseBody body = outputStream -> {
+            BufferedOutputStream bufferedStream = new BufferedOutputStream(outputStream);
+            positionService.streamGroundTrack(span, point -> {
+                try {
+                    bufferedStream.write(objectMapper.writeValueAsBytes(point));
+                    bufferedStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            bufferedStream.flush();
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping
+    public SatellitePositions getPositions(
+            @Size(max = 10000, message = "At most 10000 satellite identifiers can be requested at once")
+            @RequestParam(required = false) List<String> ids,
+            @RequestParam(required = false) String group,
+            @RequestParam(required = false) String epoch) {
+        return positionService.getPositions(ids, group, epoch);
+    }
+
+    @PostMapping
+    public SatellitePositions postPositions(@Valid @RequestBody PositionsRequest request) {
+        return positionService.getPositions(request.getIds(), request.getGroup(), request.getEpoch());
+    }
+
 }
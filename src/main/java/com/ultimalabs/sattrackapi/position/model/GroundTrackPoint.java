@@ -0,0 +1,31 @@
+package com.ultimalabs.sattrackapi.position.model;
+
+import lombok.Data;
+
+/**
+ * Single ground track (sub-satellite) point
+ */
+@Data
+public class GroundTrackPoint {
+
+    /**
+     * Date and time for this point
+     */
+    private final String t;
+
+    /**
+     * Latitude
+     */
+    private final double lat;
+
+    /**
+     * Longitude
+     */
+    private final double lon;
+
+    /**
+     * Altitude, in meters
+     */
+    private final double alt;
+
+}
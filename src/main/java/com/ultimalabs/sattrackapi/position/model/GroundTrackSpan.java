@@ -0,0 +1,33 @@
+package com.ultimalabs.sattrackapi.position.model;
+
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import lombok.Data;
+import org.orekit.time.AbsoluteDate;
+
+/**
+ * Validated ground track request: satellite, time range and step
+ */
+@Data
+public class GroundTrackSpan {
+
+    /**
+     * TLE used for propagation
+     */
+    private final TLEPlus tle;
+
+    /**
+     * First point date
+     */
+    private final AbsoluteDate start;
+
+    /**
+     * Last point date
+     */
+    private final AbsoluteDate end;
+
+    /**
+     * Step between the points, in seconds
+     */
+    private final double step;
+
+}
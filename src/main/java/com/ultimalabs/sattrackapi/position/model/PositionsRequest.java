@@ -0,0 +1,30 @@
+package com.ultimalabs.sattrackapi.position.model;
+
+import lombok.Data;
+
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Bulk position request
+ */
+@Data
+public class PositionsRequest {
+
+    /**
+     * Satellite Numbers or International Designators
+     */
+    @Size(max = 10000, message = "At most 10000 satellite identifiers can be requested at once")
+    private List<String> ids;
+
+    /**
+     * TLE source group name
+     */
+    private String group;
+
+    /**
+     * Epoch of the positions, ISO-8601 UTC; defaults to now
+     */
+    private String epoch;
+
+}
@@ -0,0 +1,41 @@
+package com.ultimalabs.sattrackapi.position.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Holds positions of multiple satellites at a single epoch
+ * <p>
+ * Positions are kept in parallel arrays (the n-th latitude and longitude
+ * belong to the n-th satellite), which keeps the response compact.
+ */
+@Data
+public class SatellitePositions {
+
+    /**
+     * Epoch of the positions
+     */
+    private final String t;
+
+    /**
+     * Satellite Catalog Numbers
+     */
+    private final int[] ids;
+
+    /**
+     * Latitudes
+     */
+    private final double[] lat;
+
+    /**
+     * Longitudes
+     */
+    private final double[] lon;
+
+    /**
+     * Requested identifiers which were not found or couldn't be propagated
+     */
+    private final List<String> notFound;
+
+}
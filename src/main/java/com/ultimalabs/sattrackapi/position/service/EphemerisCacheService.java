@@ -0,0 +1,13 @@
+package com.ultimalabs.sattrackapi.position.service;
+
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.time.AbsoluteDate;
+
+public interface EphemerisCacheService {
+
+    Vector3D getPosition(TLEPlus tle, AbsoluteDate date);
+
+    Vector3D getCachedPosition(TLEPlus tle, AbsoluteDate date);
+
+}
@@ -0,0 +1,336 @@
+package com.ultimalabs.sattrackapi.position.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.common.model.EarthParams;
+import com.ultimalabs.sattrackapi.position.util.EphemerisGrid;
+import com.ultimalabs.sattrackapi.tle.event.TleDataRefreshedEvent;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.model.TleChangeset;
+import com.ultimalabs.sattrackapi.tle.model.TleDataStore;
+import com.ultimalabs.sattrackapi.tle.service.PropagatorCacheService;
+import com.ultimalabs.sattrackapi.tle.service.TleFetcherService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ephemeris cache
+ * <p>
+ * Keeps an interpolation grid of the Earth-fixed positions for each
+ * recently requested satellite, covering the configured window from
+ * now on. A satellite requested for the first time is propagated as
+ * usual, and its grid is built in the background; from then on, its
+ * positions are interpolated. Grids are extended in the background
+ * when less than half of the window is left (if the satellite was
+ * requested within that half), rebuilt when the TLE changes, and
+ * dropped when the satellite isn't requested for the whole window.
+ * <p>
+ * Only the single satellite requests build grids; the bulk requests
+ * use the existing ones, since a catalog larger than the cache would
+ * only keep evicting its own grids.
+ */
+@Slf4j
+@Service
+public class EphemerisCacheServiceImpl implements EphemerisCacheService {
+
+    /**
+     * Grid roll check interval, in milliseconds
+     */
+    private static final long ROLL_INTERVAL = 60000L;
+
+    /**
+     * Part of a grid before the build time, in seconds; covers the requests
+     * that started before the grid was built
+     */
+    private static final double HISTORY = 60.;
+
+    /**
+     * Maximum number of grids queued by the requests; misses beyond it
+     * are propagated without queuing a grid
+     */
+    static final int MAX_PENDING = 64;
+
+    /**
+     * Config object
+     */
+    private final SatTrackConfig config;
+
+    /**
+     * TLE fetcher service
+     */
+    private final TleFetcherService tleFetcherService;
+
+    /**
+     * Propagator cache
+     */
+    private final PropagatorCacheService propagatorCacheService;
+
+    /**
+     * Executor for the grid computation
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Interpolation grids, by Satellite Catalog Number; null if the cache is disabled
+     */
+    private final Cache<Integer, EphemerisGrid> grids;
+
+    /**
+     * Satellites queued for the grid computation
+     */
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Number of positions interpolated from a grid
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Number of positions which had to be propagated
+     */
+    private final LongAdder misses = new LongAdder();
+
+    public EphemerisCacheServiceImpl(SatTrackConfig config,
+                                     TleFetcherService tleFetcherService,
+                                     PropagatorCacheService propagatorCacheService,
+                                     @Qualifier("ephemerisExecutor") ExecutorService executor,
+                                     MeterRegistry meterRegistry) {
+        this.config = config;
+        this.tleFetcherService = tleFetcherService;
+        this.propagatorCacheService = propagatorCacheService;
+        this.executor = executor;
+
+        if (config.getEphemerisCacheSize() > 0) {
+            this.grids = Caffeine.newBuilder()
+                    .maximumSize(config.getEphemerisCacheSize())
+                    .expireAfterAccess(config.getEphemerisCacheWindow(), TimeUnit.SECONDS)
+                    .build();
+        } else {
+            this.grids = null;
+        }
+
+        FunctionCounter.builder("sattrack.ephemeris.hits", hits, LongAdder::sum)
+                .description("Positions interpolated from a cached ephemeris")
+                .register(meterRegistry);
+        FunctionCounter.builder("sattrack.ephemeris.misses", misses, LongAdder::sum)
+                .description("Positions which had to be propagated")
+                .register(meterRegistry);
+        Gauge.builder("sattrack.ephemeris.size", this, s -> s.grids == null ? 0 : s.grids.estimatedSize())
+                .description("Number of satellites with a cached ephemeris")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns an interpolated Earth-fixed position
+     * <p>
+     * If there's no grid for the satellite (or it was built with another
+     * TLE), one is queued for computation, so the next requests are
+     * interpolated; unless too many grids are queued already.
+     *
+     * @param tle  TLE object
+     * @param date position date
+     * @return position in the ITRF frame, or null if it has to be propagated
+     */
+    @Override
+    public Vector3D getPosition(TLEPlus tle, AbsoluteDate date) {
+
+        Vector3D position = getCachedPosition(tle, date);
+
+        if (position != null || grids == null || pending.size() >= MAX_PENDING) {
+            return position;
+        }
+
+        // only the satellites requested for the current time are worth a grid
+        AbsoluteDate now = new AbsoluteDate(new Date(), TimeScalesFactory.getUTC());
+        double offset = date.durationFrom(now);
+        if (offset >= -HISTORY && offset <= config.getEphemerisCacheWindow()) {
+            schedule(tle);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns an interpolated Earth-fixed position, if there's a grid
+     * <p>
+     * Unlike {@link #getPosition(TLEPlus, AbsoluteDate)}, never queues a
+     * grid; used by the bulk requests.
+     *
+     * @param tle  TLE object
+     * @param date position date
+     * @return position in the ITRF frame, or null if it has to be propagated
+     */
+    @Override
+    public Vector3D getCachedPosition(TLEPlus tle, AbsoluteDate date) {
+
+        if (grids == null) {
+            return null;
+        }
+
+        EphemerisGrid grid = grids.getIfPresent(tle.getSatelliteNumber());
+
+        if (grid != null && isSameTle(grid.getTle(), tle)) {
+            Vector3D position = grid.getPosition(date);
+            if (position != null) {
+                hits.increment();
+                return position;
+            }
+        }
+
+        misses.increment();
+
+        return null;
+    }
+
+    /**
+     * Drops the grids of the changed satellites after a TLE refresh, and rebuilds them
+     * <p>
+     * The startup TLE load is published before this listener is
+     * registered; that's harmless, since there are no grids yet, and a
+     * grid built with another TLE is never used for interpolation anyway.
+     *
+     * @param event TLE refresh event
+     */
+    @EventListener
+    public void onTleDataRefreshed(TleDataRefreshedEvent event) {
+
+        if (grids == null) {
+            return;
+        }
+
+        TleChangeset changeset = event.getChangeset();
+        TleDataStore store = event.getTleStore();
+
+        grids.invalidateAll(changeset.getRemoved());
+
+        for (Integer satelliteId : changeset.getUpdated()) {
+            if (grids.asMap().remove(satelliteId) != null) {
+                TLEPlus tle = store.getCatalogIndex().getBySatelliteId(satelliteId);
+                if (tle != null) {
+                    schedule(tle);
+                }
+            }
+        }
+    }
+
+    /**
+     * Extends the grids running out of their span
+     */
+    @Scheduled(initialDelay = ROLL_INTERVAL, fixedDelay = ROLL_INTERVAL)
+    public void rollGrids() {
+
+        TleDataStore store = tleFetcherService.getTleDataStore();
+
+        if (grids == null || store == null) {
+            return;
+        }
+
+        AbsoluteDate now = new AbsoluteDate(new Date(), TimeScalesFactory.getUTC());
+        double halfWindow = config.getEphemerisCacheWindow() / 2.;
+        Policy.Expiration<Integer, EphemerisGrid> expiration = grids.policy().expireAfterAccess().get();
+        List<Integer> dropped = new ArrayList<>();
+
+        // iterating the entries doesn't count as access, so the grids
+        // which aren't requested still expire
+        for (Map.Entry<Integer, EphemerisGrid> entry : grids.asMap().entrySet()) {
+
+            if (entry.getValue().getRemainingSpan(now) > halfWindow) {
+                continue;
+            }
+
+            // a rebuilt grid counts as accessed, so only the recently requested ones are extended
+            long idle = expiration.ageOf(entry.getKey(), TimeUnit.SECONDS).orElse(Long.MAX_VALUE);
+            if (idle > halfWindow) {
+                continue;
+            }
+
+            TLEPlus tle = store.getCatalogIndex().getBySatelliteId(entry.getKey());
+            if (tle == null) {
+                dropped.add(entry.getKey());
+            } else {
+                schedule(tle);
+            }
+        }
+
+        grids.invalidateAll(dropped);
+    }
+
+    /**
+     * Queues the grid computation for a satellite
+     *
+     * @param tle TLE object
+     */
+    private void schedule(TLEPlus tle) {
+
+        Integer satelliteId = tle.getSatelliteNumber();
+
+        if (!pending.add(satelliteId)) {
+            return;
+        }
+
+        try {
+            executor.submit(() -> {
+                try {
+                    grids.put(satelliteId, computeGrid(tle));
+                } catch (RuntimeException e) {
+                    // e.g. decayed orbit; positions keep being propagated
+                    log.debug("Ephemeris of satellite " + satelliteId + " failed: " + e.getMessage());
+                } finally {
+                    pending.remove(satelliteId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // shutting down
+            pending.remove(satelliteId);
+        }
+    }
+
+    /**
+     * Computes a grid, starting slightly before now
+     *
+     * @param tle TLE object
+     * @return interpolation grid
+     */
+    private EphemerisGrid computeGrid(TLEPlus tle) {
+
+        AbsoluteDate start = new AbsoluteDate(new Date(), TimeScalesFactory.getUTC()).shiftedBy(-HISTORY);
+        double duration = HISTORY + config.getEphemerisCacheWindow();
+
+        return propagatorCacheService.withPropagator(tle, propagator ->
+                EphemerisGrid.of(propagator, tle, EarthParams.iers2010Frame, start, duration, config.getEphemerisCacheError()));
+    }
+
+    /**
+     * Checks whether a grid was computed with the given TLE
+     *
+     * @param gridTle TLE the grid was computed with
+     * @param tle     requested TLE
+     * @return true if they're the same
+     */
+    private static boolean isSameTle(TLEPlus gridTle, TLEPlus tle) {
+        return gridTle == tle || (gridTle.getLine1().equals(tle.getLine1()) && gridTle.getLine2().equals(tle.getLine2()));
+    }
+
+}
@@ -1,9 +1,21 @@
 package com.ultimalabs.sattrackapi.position.service;
 
+import com.ultimalabs.sattrackapi.position.model.GroundTrackPoint;
+import com.ultimalabs.sattrackapi.position.model.GroundTrackSpan;
 import com.ultimalabs.sattrackapi.position.model.SatellitePosition;
+import com.ultimalabs.sattrackapi.position.model.SatellitePositions;
+
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface PositionService {
 
     SatellitePosition getPosition(String searchString);
 
+    SatellitePositions getPositions(List<String> searchStrings, String group, String epoch);
+
+    GroundTrackSpan getGroundTrackSpan(String searchString, String start, String end, double step);
+
+    void streamGroundTrack(GroundTrackSpan span, Consumer<GroundTrackPoint> consumer);
+
 }
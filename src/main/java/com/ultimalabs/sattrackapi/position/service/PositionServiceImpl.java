@@ -1,9 +1,17 @@
 package com.ultimalabs.sattrackapi.position.service;
 
+import com.ultimalabs.sattrackapi.common.config.ExecutorConfig;
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
 import com.ultimalabs.sattrackapi.common.model.EarthParams;
+import com.ultimalabs.sattrackapi.common.service.TransformCacheService;
 import com.ultimalabs.sattrackapi.common.util.DoubleRound;
+import com.ultimalabs.sattrackapi.common.util.TimestampFormat;
+import com.ultimalabs.sattrackapi.position.model.GroundTrackPoint;
+import com.ultimalabs.sattrackapi.position.model.GroundTrackSpan;
 import com.ultimalabs.sattrackapi.position.model.SatellitePosition;
+import com.ultimalabs.sattrackapi.position.model.SatellitePositions;
 import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.service.PropagatorCacheService;
 import com.ultimalabs.sattrackapi.tle.service.TleFetcherService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,15 +19,24 @@ import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.hipparchus.util.FastMath;
 import org.orekit.bodies.BodyShape;
 import org.orekit.bodies.GeodeticPoint;
-import org.orekit.bodies.OneAxisEllipsoid;
-import org.orekit.frames.TopocentricFrame;
+import org.orekit.frames.Transform;
 import org.orekit.propagation.SpacecraftState;
-import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.propagation.sampling.OrekitFixedStepHandler;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.time.TimeScalesFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 /**
  * Position service
@@ -27,15 +44,63 @@ import java.util.Date;
  * Calculates satellite's position.
  */
 @Slf4j
-@RequiredArgsConstructor
 @Service
 public class PositionServiceImpl implements PositionService {
 
+    /**
+     * Ground track duration limit, in seconds (10 days)
+     */
+    private static final double MAX_GROUND_TRACK_DURATION = 864000.;
+
+    /**
+     * Ground track size limit, in points
+     */
+    private static final double MAX_GROUND_TRACK_POINTS = 1000000.;
+
     /**
      * TLE fetcher service
      */
     private final TleFetcherService tleFetcherService;
 
+    /**
+     * Propagator cache
+     */
+    private final PropagatorCacheService propagatorCacheService;
+
+    /**
+     * TEME to Earth frame transforms, shared between requests
+     */
+    private final TransformCacheService transformCacheService;
+
+    /**
+     * Ephemeris cache
+     */
+    private final EphemerisCacheService ephemerisCacheService;
+
+    /**
+     * Config object
+     */
+    private final SatTrackConfig config;
+
+    /**
+     * Executor for the bulk position calculation
+     */
+    private final ExecutorService executor;
+
+    public PositionServiceImpl(TleFetcherService tleFetcherService,
+                               PropagatorCacheService propagatorCacheService,
+                               TransformCacheService transformCacheService,
+                               EphemerisCacheService ephemerisCacheService,
+                               SatTrackConfig config,
+                               @Qualifier("positionExecutor") ExecutorService executor) {
+        this.tleFetcherService = tleFetcherService;
+        this.propagatorCacheService = propagatorCacheService;
+        this.transformCacheService = transformCacheService;
+        this.ephemerisCacheService = ephemerisCacheService;
+        this.config = config;
+        this.executor = executor;
+    }
+
     /**
      * Returns a satellite's position
      *
@@ -48,24 +113,245 @@ public class PositionServiceImpl implements PositionService {
         return calculatePosition(tle);
     }
 
+    /**
+     * Returns positions of multiple satellites at a single epoch
+     * <p>
+     * Satellites are split into as many chunks as there are executor
+     * threads and propagated in parallel. All of them share the epoch
+     * and the TEME to Earth frame transform, which is computed once and shared with
+     * the concurrent requests for the same epoch.
+     *
+     * @param searchStrings Satellite Numbers or International Designators; may be null
+     * @param group         TLE source group name; may be null
+     * @param epoch         epoch of the positions, ISO-8601 UTC; null means now
+     * @return satellites' positions
+     */
+    @Override
+    public SatellitePositions getPositions(List<String> searchStrings, String group, String epoch) {
+
+        if (searchStrings == null && group == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Either satellite identifiers or a group must be given.");
+        }
+
+        final AbsoluteDate date = parseEpoch(epoch);
+
+        List<TLEPlus> tles = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+
+        if (group != null) {
+            Collection<TLEPlus> groupTles = tleFetcherService.getTlesByGroup(group);
+            if (groupTles == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No TLE group matching the given name was found.");
+            }
+            tles.addAll(groupTles);
+        }
+
+        if (searchStrings != null) {
+            for (String searchString : searchStrings) {
+                try {
+                    tles.add(tleFetcherService.getTle(searchString));
+                } catch (ResponseStatusException e) {
+                    notFound.add(searchString);
+                }
+            }
+        }
+
+        final Transform temeToEarth = transformCacheService.getTemeToEarth(date);
+
+        final int count = tles.size();
+        final double[] lat = new double[count];
+        final double[] lon = new double[count];
+        final boolean[] propagated = new boolean[count];
+
+        final int chunks = FastMath.min(ExecutorConfig.effectiveParallelism(config.getPositionParallelism()), FastMath.max(count, 1));
+        List<Future<?>> futures = new ArrayList<>(chunks);
+
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            final int first = chunk;
+            futures.add(executor.submit(() -> {
+                for (int i = first; i < count; i += chunks) {
+                    propagated[i] = calculatePosition(tles.get(i), date, temeToEarth, lat, lon, i);
+                }
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Position calculation interrupted.");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Position calculation failed", e.getCause());
+        } finally {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        // compact the arrays, leaving out the satellites that couldn't be propagated
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            if (propagated[i]) {
+                found++;
+            } else {
+                notFound.add(String.valueOf(tles.get(i).getSatelliteNumber()));
+            }
+        }
+
+        int[] resultIds = new int[found];
+        double[] resultLat = new double[found];
+        double[] resultLon = new double[found];
+
+        for (int i = 0, j = 0; i < count; i++) {
+            if (propagated[i]) {
+                resultIds[j] = tles.get(i).getSatelliteNumber();
+                resultLat[j] = lat[i];
+                resultLon[j] = lon[i];
+                j++;
+            }
+        }
+
+        return new SatellitePositions(TimestampFormat.format(date), resultIds, resultLat, resultLon, notFound);
+
+    }
+
+    /**
+     * Validates a ground track request
+     *
+     * @param searchString Satellite Number or International Designator
+     * @param start        first point date, ISO-8601 UTC; null means now
+     * @param end          last point date, ISO-8601 UTC
+     * @param step         step between the points, in seconds
+     * @return validated ground track span
+     */
+    @Override
+    public GroundTrackSpan getGroundTrackSpan(String searchString, String start, String end, double step) {
+
+        TLEPlus tle = tleFetcherService.getTle(searchString);
+
+        AbsoluteDate startDate = parseEpoch(start);
+        AbsoluteDate endDate = parseEpoch(end);
+        double duration = endDate.durationFrom(startDate);
+
+        if (duration <= 0.) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End should be after start.");
+        }
+
+        if (duration > MAX_GROUND_TRACK_DURATION) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Time range should not be longer than 10 days.");
+        }
+
+        if (duration / step > MAX_GROUND_TRACK_POINTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Too many points, increase the step.");
+        }
+
+        return new GroundTrackSpan(tle, startDate, endDate, step);
+
+    }
+
+    /**
+     * Calculates the ground track, handing each point to the consumer as soon as it's calculated
+     * <p>
+     * A single propagator is driven in fixed step mode, so no points are
+     * kept in memory.
+     *
+     * @param span     validated ground track span
+     * @param consumer receives the points, in chronological order
+     */
+    @Override
+    public void streamGroundTrack(GroundTrackSpan span, Consumer<GroundTrackPoint> consumer) {
+
+        propagatorCacheService.withPropagator(span.getTle(), propagator -> {
+            propagator.propagate(span.getStart());
+            propagator.setMasterMode(span.getStep(), new GroundTrackStepHandler(transformCacheService, consumer));
+            return propagator.propagate(span.getEnd());
+        });
+
+    }
+
+    /**
+     * Calculates a single satellite's position for the bulk request
+     *
+     * @param tle         TLE object
+     * @param date        position epoch
+     * @param temeToEarth transform from TEME to Earth frame at the epoch
+     * @param lat         receives the latitude
+     * @param lon         receives the longitude
+     * @param index       index in the result arrays
+     * @return false if satellite couldn't be propagated, true otherwise
+     */
+    private boolean calculatePosition(TLEPlus tle, AbsoluteDate date, Transform temeToEarth,
+                                      double[] lat, double[] lon, int index) {
+
+        // a bulk request doesn't queue the grids, it only uses the ones built for single satellites
+        Vector3D position = ephemerisCacheService.getCachedPosition(tle, date);
+
+        if (position == null) {
+            try {
+                // TLE propagator states are always in TEME
+                Vector3D temePosition = propagatorCacheService.withPropagator(tle,
+                        propagator -> propagator.propagate(date).getPVCoordinates().getPosition());
+                position = temeToEarth.transformPosition(temePosition);
+            } catch (RuntimeException e) {
+                // e.g. decayed orbit
+                log.debug("Position of satellite " + tle.getSatelliteNumber() + " failed: " + e.getMessage());
+                return false;
+            }
+        }
+
+        GeodeticPoint gp = EarthParams.EARTH.transform(position, EarthParams.iers2010Frame, date);
+
+        lat[index] = DoubleRound.round(FastMath.toDegrees(gp.getLatitude()), 4);
+        lon[index] = DoubleRound.round(FastMath.toDegrees(gp.getLongitude()), 4);
+
+        return true;
+
+    }
+
+    /**
+     * Parses the position epoch
+     *
+     * @param epoch epoch, ISO-8601 UTC; null means now
+     * @return parsed date
+     */
+    private static AbsoluteDate parseEpoch(String epoch) {
+
+        if (epoch == null) {
+            return new AbsoluteDate(new Date(), TimeScalesFactory.getUTC());
+        }
+
+        try {
+            return new AbsoluteDate(epoch, TimeScalesFactory.getUTC());
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid epoch, ISO-8601 date expected.");
+        }
+
+    }
+
     /**
      * Calculates satellite's position
+     * <p>
+     * Interpolated from the ephemeris cache if possible, propagated otherwise.
      *
      * @param tle TLE object
      * @return position object
      */
     private SatellitePosition calculatePosition(TLEPlus tle) {
 
-        final BodyShape earth = new OneAxisEllipsoid(EarthParams.EQUATORIAL_RADIUS, EarthParams.FLATTENING, EarthParams.iers2010Frame);
-        // observer/ground station coordinates are irrelevant in this context
-        final GeodeticPoint station = new GeodeticPoint(FastMath.toRadians(0), FastMath.toRadians(0), 0);
-        final TopocentricFrame stationFrame = new TopocentricFrame(earth, station, "ground station");
-
-        TLEPropagator propagator = TLEPropagator.selectExtrapolator(tle);
+        final BodyShape earth = EarthParams.EARTH;
         AbsoluteDate now = new AbsoluteDate(new Date(), TimeScalesFactory.getUTC());
-        SpacecraftState finalState = propagator.propagate(now);
 
-        final GeodeticPoint gp = convertToGeodeticPoint(finalState, stationFrame, earth);
+        final GeodeticPoint gp;
+        Vector3D cached = ephemerisCacheService.getPosition(tle, now);
+
+        if (cached != null) {
+            gp = earth.transform(cached, EarthParams.iers2010Frame, now);
+        } else {
+            SpacecraftState finalState = propagatorCacheService.withPropagator(tle, propagator -> propagator.propagate(now));
+            gp = convertToGeodeticPoint(finalState, earth);
+        }
 
         return new SatellitePosition(DoubleRound.round(FastMath.toDegrees(gp.getLatitude()), 4), DoubleRound.round(FastMath.toDegrees(gp.getLongitude()), 4));
 
@@ -74,18 +360,54 @@ public class PositionServiceImpl implements PositionService {
     /**
      * Transforms a SpacecraftState into a GeodeticPoint on the surface of the
      * given body.
+     * <p>
+     * The position is transformed straight to the Earth frame, with the
+     * transform shared between the requests at the same date.
      *
-     * @param state the state to be transformed
-     * @param frame the frame associated with the surface of the body
-     * @param body  the body
+     * @param state the state to be transformed, in TEME
+     * @param body  the body, with the Earth frame as its body frame
      * @return the transformed GeodeticPoint
      */
     private GeodeticPoint convertToGeodeticPoint(final SpacecraftState state,
-                                                 final TopocentricFrame frame,
                                                  final BodyShape body) {
 
-        Vector3D pos = state.getPVCoordinates(frame).getPosition();
-        return body.transform(pos, frame, state.getDate());
+        Vector3D pos = transformCacheService.getTemeToEarth(state.getDate()).transformPosition(state.getPVCoordinates().getPosition());
+        return body.transform(pos, body.getBodyFrame(), state.getDate());
+    }
+
+    /**
+     * Ground track step handler
+     * <p>
+     * Converts each step to a ground track point and hands it over to the consumer.
+     */
+    @RequiredArgsConstructor
+    private static class GroundTrackStepHandler implements OrekitFixedStepHandler {
+
+        private final TransformCacheService transformCacheService;
+
+        private final Consumer<GroundTrackPoint> consumer;
+
+        /**
+         * Handle the current step
+         *
+         * @param currentState current state at step time
+         * @param isLast       if true, this is the last integration step
+         */
+        public void handleStep(SpacecraftState currentState, boolean isLast) {
+
+            Vector3D position = transformCacheService.getTemeToEarth(currentState.getDate())
+                    .transformPosition(currentState.getPVCoordinates().getPosition());
+            GeodeticPoint gp = EarthParams.EARTH.transform(position, EarthParams.iers2010Frame, currentState.getDate());
+
+            consumer.accept(new GroundTrackPoint(
+                    TimestampFormat.format(currentState.getDate()),
+                    DoubleRound.round(FastMath.toDegrees(gp.getLatitude()), 4),
+                    DoubleRound.round(FastMath.toDegrees(gp.getLongitude()), 4),
+                    DoubleRound.round(gp.getAltitude(), 0)
+            ));
+
+        }
+
     }
 
 }
@@ -0,0 +1,204 @@
+package com.ultimalabs.sattrackapi.position.util;
+
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.orekit.frames.Frame;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.Constants;
+import org.orekit.utils.PVCoordinates;
+
+/**
+ * Precomputed ephemeris of a satellite, for a time span
+ * <p>
+ * Position and velocity are sampled on an evenly spaced time grid and
+ * kept in a single primitive array. Positions between the samples are
+ * interpolated with a cubic Hermite polynomial, using the positions and
+ * velocities of the two neighbouring samples, so a lookup costs a few
+ * multiplications instead of a propagation and a frame transform.
+ * <p>
+ * The interpolation error of a cubic Hermite polynomial is at most
+ * h<sup>4</sup> / 384 times the largest fourth derivative of the position.
+ * For an orbit, that derivative is bounded by the radius times the fourth
+ * power of the angular rate; the grid step is chosen from the fastest
+ * point of the orbit (perigee, with the Earth rotation added for the
+ * Earth-fixed frames), so the error stays below the requested bound.
+ */
+public class EphemerisGrid {
+
+    /**
+     * Safety factor applied to the fourth derivative bound
+     * <p>
+     * Covers the perturbations and the short-periodic terms which the
+     * two-body bound doesn't account for.
+     */
+    private static final double DERIVATIVE_MARGIN = 4.;
+
+    /**
+     * Smallest grid step, in seconds
+     */
+    private static final double MIN_STEP = 1.;
+
+    /**
+     * Largest grid step, in seconds
+     */
+    private static final double MAX_STEP = 600.;
+
+    /**
+     * Values per sample: position and velocity
+     */
+    private static final int STRIDE = 6;
+
+    /**
+     * TLE used for propagation
+     */
+    private final TLEPlus tle;
+
+    /**
+     * First sample date
+     */
+    private final AbsoluteDate start;
+
+    /**
+     * Grid step, in seconds
+     */
+    private final double step;
+
+    /**
+     * Number of samples
+     */
+    private final int size;
+
+    /**
+     * Samples: x, y, z, vx, vy, vz for each grid point, in meters and meters per second
+     */
+    private final double[] samples;
+
+    private EphemerisGrid(TLEPlus tle, AbsoluteDate start, double step, int size) {
+        this.tle = tle;
+        this.start = start;
+        this.step = step;
+        this.size = size;
+        this.samples = new double[size * STRIDE];
+    }
+
+    /**
+     * Samples the ephemeris
+     *
+     * @param propagator TLE propagator, exclusively owned by the caller
+     * @param tle        TLE object
+     * @param frame      frame of the positions
+     * @param start      span start
+     * @param duration   span duration, in seconds
+     * @param maxError   interpolation error bound, in meters
+     * @return sampled ephemeris, covering at least the span
+     */
+    public static EphemerisGrid of(TLEPropagator propagator, TLEPlus tle, Frame frame,
+                                   AbsoluteDate start, double duration, double maxError) {
+
+        double step = stepFor(tle, maxError);
+        int size = (int) FastMath.ceil(duration / step) + 1;
+
+        EphemerisGrid grid = new EphemerisGrid(tle, start, step, size);
+
+        for (int i = 0; i < size; i++) {
+            PVCoordinates pv = propagator.getPVCoordinates(start.shiftedBy(i * step), frame);
+            Vector3D position = pv.getPosition();
+            Vector3D velocity = pv.getVelocity();
+
+            int offset = i * STRIDE;
+            grid.samples[offset] = position.getX();
+            grid.samples[offset + 1] = position.getY();
+            grid.samples[offset + 2] = position.getZ();
+            grid.samples[offset + 3] = velocity.getX();
+            grid.samples[offset + 4] = velocity.getY();
+            grid.samples[offset + 5] = velocity.getZ();
+        }
+
+        return grid;
+    }
+
+    /**
+     * Returns the grid step for an interpolation error bound
+     *
+     * @param tle      TLE object
+     * @param maxError interpolation error bound, in meters
+     * @return grid step, in seconds
+     */
+    public static double stepFor(TLEPlus tle, double maxError) {
+
+        double e = tle.getE();
+        double perigeeRate = tle.getMeanMotion() * (1. + e) * (1. + e) / FastMath.pow(1. - e * e, 1.5);
+        double rate = perigeeRate + Constants.WGS84_EARTH_ANGULAR_VELOCITY;
+        double radius = Constants.WGS84_EARTH_EQUATORIAL_RADIUS + FastMath.max(0., tle.getApogeeAltitude());
+
+        double maxDerivative = DERIVATIVE_MARGIN * radius * FastMath.pow(rate, 4);
+        double step = FastMath.pow(384. * maxError / maxDerivative, 0.25);
+
+        return FastMath.max(MIN_STEP, FastMath.min(MAX_STEP, step));
+    }
+
+    /**
+     * Returns the TLE used for propagation
+     *
+     * @return TLE object
+     */
+    public TLEPlus getTle() {
+        return tle;
+    }
+
+    /**
+     * Returns number of samples
+     *
+     * @return number of samples
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the time left until the span ends
+     *
+     * @param now current date
+     * @return remaining span, in seconds; negative if the span has ended
+     */
+    public double getRemainingSpan(AbsoluteDate now) {
+        return (size - 1) * step - now.durationFrom(start);
+    }
+
+    /**
+     * Interpolates the position
+     *
+     * @param date position date
+     * @return position, in the grid frame, or null if the date is outside the span
+     */
+    public Vector3D getPosition(AbsoluteDate date) {
+
+        double time = date.durationFrom(start);
+
+        if (time < 0. || time > (size - 1) * step) {
+            return null;
+        }
+
+        int i = FastMath.min((int) (time / step), size - 2);
+        double s = time / step - i;
+        double s2 = s * s;
+        double s3 = s2 * s;
+
+        // cubic Hermite basis, velocities scaled to the unit interval
+        double h00 = 2. * s3 - 3. * s2 + 1.;
+        double h10 = (s3 - 2. * s2 + s) * step;
+        double h01 = -2. * s3 + 3. * s2;
+        double h11 = (s3 - s2) * step;
+
+        int p0 = i * STRIDE;
+        int p1 = p0 + STRIDE;
+
+        return new Vector3D(
+                h00 * samples[p0] + h10 * samples[p0 + 3] + h01 * samples[p1] + h11 * samples[p1 + 3],
+                h00 * samples[p0 + 1] + h10 * samples[p0 + 4] + h01 * samples[p1 + 1] + h11 * samples[p1 + 4],
+                h00 * samples[p0 + 2] + h10 * samples[p0 + 5] + h01 * samples[p1 + 2] + h11 * samples[p1 + 5]);
+    }
+
+}
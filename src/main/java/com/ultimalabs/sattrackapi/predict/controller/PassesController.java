@@ -1,22 +1,50 @@
 package com.ultimalabs.sattrackapi.predict.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ultimalabs.sattrackapi.predict.model.PassEventDataPoint;
 import com.ultimalabs.sattrackapi.predict.model.SatellitePass;
+import com.ultimalabs.sattrackapi.predict.model.StationPasses;
+import com.ultimalabs.sattrackapi.predict.model.StationPassesRequest;
+import com.ultimalabs.sattrackapi.predict.model.StreamedPass;
+import com.ultimalabs.sattrackapi.predict.service.BatchPredictService;
+import com.ultimalabs.sattrackapi.predict.service.PassComputeService;
 import com.ultimalabs.sattrackapi.predict.service.PredictService;
+import com.ultimalabs.sattrackapi.tle.model.ElementFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.validation.Valid;
 import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Passes REST controller
+ * <p>
+ * Single satellite passes are computed on the pass compute executor,
+ * so the servlet threads are free for the other requests meanwhile.
  */
 @Slf4j
 @RequiredArgsConstructor
@@ -25,13 +53,33 @@ import javax.validation.constraints.Size;
 @RequestMapping("/api/v1/passes")
 public class PassesController {
 
+    /**
+     * Name of the pass details field in the pass data
+     */
+    private static final String EVENT_DETAILS_FIELD = "eventDetails";
+
     /**
      * Predict service
      */
     private final PredictService predictService;
 
+    /**
+     * Pass compute executor
+     */
+    private final PassComputeService passComputeService;
+
+    /**
+     * Catalog-wide predict service
+     */
+    private final BatchPredictService batchPredictService;
+
+    /**
+     * JSON mapper, for the streamed responses
+     */
+    private final ObjectMapper objectMapper;
+
     @GetMapping("/{searchString}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}")
-    public SatellitePass passWithoutDetails(
+    public CompletableFuture<SatellitePass> passWithoutDetails(
 
             @Size(min = 5, max = 11, message = "Satellite identifier must be between 5 and 11 characters long")
             @PathVariable String searchString,
@@ -40,8 +88,8 @@ public class PassesController {
             @Max(value = 90, message = "Latitude should not be greater than 90")
             @PathVariable double lat,
 
-            @Min(value = -90, message = "Longitude should not be less than -90")
-            @Max(value = 90, message = "Longitude should not be greater than 90")
+            @Min(value = -180, message = "Longitude should not be less than -180")
+            @Max(value = 180, message = "Longitude should not be greater than 180")
             @PathVariable double lon,
 
             @Min(value = 0, message = "Altitude should be greater or equal to zero")
@@ -53,11 +101,11 @@ public class PassesController {
             @PathVariable double minEl
 
     ) {
-        return predictService.getNextEventWithoutDetails(searchString, lat, lon, alt, minEl);
+        return passComputeService.submit(() -> predictService.getNextEventWithoutDetails(searchString, lat, lon, alt, minEl));
     }
 
     @GetMapping("/{searchString}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{stepSize}")
-    public SatellitePass passWithDetails(
+    public CompletableFuture<SatellitePass> passWithDetails(
 
             @Size(min = 5, max = 11, message = "Satellite identifier must be between 5 and 11 characters long")
             @PathVariable String searchString,
@@ -66,8 +114,8 @@ public class PassesController {
             @Max(value = 90, message = "Latitude should not be greater than 90")
             @PathVariable double lat,
 
-            @Min(value = -90, message = "Longitude should not be less than -90")
-            @Max(value = 90, message = "Longitude should not be greater than 90")
+            @Min(value = -180, message = "Longitude should not be less than -180")
+            @Max(value = 180, message = "Longitude should not be greater than 180")
 
             @PathVariable double lon,
             @Min(value = 0, message = "Altitude should be greater or equal to zero")
@@ -82,7 +130,189 @@ public class PassesController {
             @PathVariable double stepSize
 
     ) {
-        return predictService.getNextEventWithDetails(searchString, lat, lon, alt, minEl, stepSize);
+        return passComputeService.submit(() -> predictService.getNextEventWithDetails(searchString, lat, lon, alt, minEl, stepSize));
+    }
+
+    @GetMapping(value = "/{searchString}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{stepSize}", params = "stream=true")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> streamedPassWithDetails(
+
+            @Size(min = 5, max = 11, message = "Satellite identifier must be between 5 and 11 characters long")
+            @PathVariable String searchString,
+
+            @Min(value = -90, message = "Latitude should not be less than -90")
+            @Max(value = 90, message = "Latitude should not be greater than 90")
+            @PathVariable double lat,
+
+            @Min(value = -180, message = "Longitude should not be less than -180")
+            @Max(value = 180, message = "Longitude should not be greater than 180")
+            @PathVariable double lon,
+
+            @Min(value = 0, message = "Altitude should be greater or equal to zero")
+            @Max(value = Integer.MAX_VALUE, message = "Altitude value is too large")
+            @PathVariable double alt,
+
+            @Min(value = 0, message = "Elevation should not be less than 0")
+            @Max(value = 90, message = "Elevation should not be greater than 90")
+            @PathVariable double minEl,
+
+            @DecimalMin(value = "0.01", message = "Step size should not be less than 0.01")
+            @PathVariable double stepSize
+
+    ) {
+        // pass is found on the pass compute executor before streaming starts,
+        // so errors (and saturation) still get a proper status
+        return passComputeService.submit(() -> predictService.getNextEventForStreaming(searchString, lat, lon, alt, minEl, stepSize))
+                .thenApply(this::streamPass);
+    }
+
+    /**
+     * Returns a response streaming the details of a found pass
+     *
+     * @param streamedPass pass to stream, or null if there is no pass
+     * @return streamed response
+     */
+    private ResponseEntity<StreamingResponseBody> streamPass(StreamedPass streamedPass) {
+
+        if (streamedPass == null) {
+            return ResponseEntity.ok().build();
+        }
+
+        // same document as the non-streamed response, but the event
+        // details are written out while they are being calculated
+        ObjectNode header = objectMapper.valueToTree(streamedPass.getPass());
+        header.remove(EVENT_DETAILS_FIELD);
+        ObjectWriter pointWriter = objectMapper.writerFor(PassEventDataPoint.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                Iterator<Map.Entry<String, JsonNode>> fields = header.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    generator.writeFieldName(field.getKey());
+                    generator.writeTree(field.getValue());
+                }
+                generator.writeArrayFieldStart(EVENT_DETAILS_FIELD);
+                predictService.streamPassDetails(streamedPass, point -> {
+                    try {
+                        pointWriter.writeValue(generator, point);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/{searchString}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/count/{count}")
+    public CompletableFuture<List<SatellitePass>> nextPasses(
+
+            @Size(min = 5, max = 11, message = "Satellite identifier must be between 5 and 11 characters long")
+            @PathVariable String searchString,
+
+            @Min(value = -90, message = "Latitude should not be less than -90")
+            @Max(value = 90, message = "Latitude should not be greater than 90")
+            @PathVariable double lat,
+
+            @Min(value = -180, message = "Longitude should not be less than -180")
+            @Max(value = 180, message = "Longitude should not be greater than 180")
+            @PathVariable double lon,
+
+            @Min(value = 0, message = "Altitude should be greater or equal to zero")
+            @Max(value = Integer.MAX_VALUE, message = "Altitude value is too large")
+            @PathVariable double alt,
+
+            @Min(value = 0, message = "Elevation should not be less than 0")
+            @Max(value = 90, message = "Elevation should not be greater than 90")
+            @PathVariable double minEl,
+
+            @Min(value = 1, message = "Number of passes should not be less than 1")
+            @Max(value = 50, message = "Number of passes should not be greater than 50")
+            @PathVariable int count
+
+    ) {
+        return passComputeService.submit(() -> predictService.getNextEvents(searchString, lat, lon, alt, minEl, count));
+    }
+
+    @GetMapping("/{searchString}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/hours/{hours}")
+    public CompletableFuture<List<SatellitePass>> passesWithin(
+
+            @Size(min = 5, max = 11, message = "Satellite identifier must be between 5 and 11 characters long")
+            @PathVariable String searchString,
+
+            @Min(value = -90, message = "Latitude should not be less than -90")
+            @Max(value = 90, message = "Latitude should not be greater than 90")
+            @PathVariable double lat,
+
+            @Min(value = -180, message = "Longitude should not be less than -180")
+            @Max(value = 180, message = "Longitude should not be greater than 180")
+            @PathVariable double lon,
+
+            @Min(value = 0, message = "Altitude should be greater or equal to zero")
+            @Max(value = Integer.MAX_VALUE, message = "Altitude value is too large")
+            @PathVariable double alt,
+
+            @Min(value = 0, message = "Elevation should not be less than 0")
+            @Max(value = 90, message = "Elevation should not be greater than 90")
+            @PathVariable double minEl,
+
+            @DecimalMin(value = "0.1", message = "Time window should not be shorter than 0.1 hours")
+            @Max(value = 240, message = "Time window should not be longer than 240 hours")
+            @PathVariable double hours
+
+    ) {
+        return passComputeService.submit(() -> predictService.getEventsWithin(searchString, lat, lon, alt, minEl, hours));
+    }
+
+    @PostMapping("/stations")
+    public CompletableFuture<List<StationPasses>> stationPassesWithin(@Valid @RequestBody StationPassesRequest request) {
+        return passComputeService.submit(() -> predictService.getStationEventsWithin(request.getId(), request.getStations(), request.getHours()));
+    }
+
+    @GetMapping("/all/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/hours/{hours}")
+    public ResponseEntity<StreamingResponseBody> catalogPassesWithin(
+
+            @Min(value = -90, message = "Latitude should not be less than -90")
+            @Max(value = 90, message = "Latitude should not be greater than 90")
+            @PathVariable double lat,
+
+            @Min(value = -180, message = "Longitude should not be less than -180")
+            @Max(value = 180, message = "Longitude should not be greater than 180")
+            @PathVariable double lon,
+
+            @Min(value = 0, message = "Altitude should be greater or equal to zero")
+            @Max(value = Integer.MAX_VALUE, message = "Altitude value is too large")
+            @PathVariable double alt,
+
+            @Min(value = 0, message = "Elevation should not be less than 0")
+            @Max(value = 90, message = "Elevation should not be greater than 90")
+            @PathVariable double minEl,
+
+            @DecimalMin(value = "0.1", message = "Time window should not be shorter than 0.1 hours")
+            @Max(value = 72, message = "Time window should not be longer than 72 hours")
+            @PathVariable double hours,
+
+            @Valid ElementFilter filter
+
+    ) {
+        // one pass per line, written as soon as a satellite is done
+        StreamingResponseBody body = outputStream -> batchPredictService.streamCatalogEventsWithin(lat, lon, alt, minEl, hours, filter, passes -> {
+            try {
+                for (SatellitePass pass : passes) {
+                    outputStream.write(objectMapper.writeValueAsBytes(pass));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
 }
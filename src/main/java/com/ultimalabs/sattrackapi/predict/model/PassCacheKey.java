@@ -0,0 +1,33 @@
+package com.ultimalabs.sattrackapi.predict.model;
+
+import com.ultimalabs.sattrackapi.common.model.QuantizedLocation;
+import lombok.Data;
+import org.orekit.time.AbsoluteDate;
+
+/**
+ * Pass cache key
+ */
+@Data
+public class PassCacheKey {
+
+    /**
+     * Satellite Catalog Number
+     */
+    private final int satelliteNumber;
+
+    /**
+     * Observer location
+     */
+    private final QuantizedLocation location;
+
+    /**
+     * Minimum elevation, in degrees
+     */
+    private final double minElevation;
+
+    /**
+     * Epoch of the TLE used for propagation
+     */
+    private final AbsoluteDate tleEpoch;
+
+}
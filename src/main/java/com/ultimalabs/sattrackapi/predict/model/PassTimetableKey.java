@@ -0,0 +1,27 @@
+package com.ultimalabs.sattrackapi.predict.model;
+
+import com.ultimalabs.sattrackapi.common.model.QuantizedLocation;
+import lombok.Data;
+
+/**
+ * Pass timetable key
+ */
+@Data
+public class PassTimetableKey {
+
+    /**
+     * Satellite Catalog Number
+     */
+    private final int satelliteNumber;
+
+    /**
+     * Observer location
+     */
+    private final QuantizedLocation location;
+
+    /**
+     * Minimum elevation, in degrees
+     */
+    private final double minElevation;
+
+}
@@ -0,0 +1,46 @@
+package com.ultimalabs.sattrackapi.predict.model;
+
+import lombok.Data;
+import org.orekit.time.AbsoluteDate;
+
+/**
+ * Pass window
+ * <p>
+ * Rise, midpoint and set of a single pass, as found by the
+ * event detectors. Doesn't depend on the time of the request,
+ * so it can be shared between requests.
+ */
+@Data
+public class PassWindow {
+
+    /**
+     * TLE used for propagation
+     */
+    private final String tle;
+
+    /**
+     * Satellite rise date
+     */
+    private final AbsoluteDate riseDate;
+
+    /**
+     * Satellite set date
+     */
+    private final AbsoluteDate setDate;
+
+    /**
+     * Satellite rise time data point
+     */
+    private final PassEventDataPoint risePoint;
+
+    /**
+     * Pass midpoint
+     */
+    private final PassEventDataPoint midPoint;
+
+    /**
+     * Satellite set time data point
+     */
+    private final PassEventDataPoint setPoint;
+
+}
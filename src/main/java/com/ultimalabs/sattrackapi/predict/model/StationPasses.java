@@ -0,0 +1,23 @@
+package com.ultimalabs.sattrackapi.predict.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Passes of a satellite over one of the requested stations
+ */
+@Data
+public class StationPasses {
+
+    /**
+     * Station name, as requested
+     */
+    private final String name;
+
+    /**
+     * Passes, in chronological order
+     */
+    private final List<SatellitePass> passes;
+
+}
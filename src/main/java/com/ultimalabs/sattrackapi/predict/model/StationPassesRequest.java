@@ -0,0 +1,71 @@
+package com.ultimalabs.sattrackapi.predict.model;
+
+import lombok.Data;
+
+import javax.validation.Valid;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Multi-station pass request
+ */
+@Data
+public class StationPassesRequest {
+
+    /**
+     * Satellite Number or International Designator
+     */
+    @NotNull(message = "Satellite identifier is required")
+    @Size(min = 5, max = 11, message = "Satellite identifier must be between 5 and 11 characters long")
+    private String id;
+
+    /**
+     * Time window duration, in hours from now
+     */
+    @DecimalMin(value = "0.1", message = "Time window should not be shorter than 0.1 hours")
+    @Max(value = 240, message = "Time window should not be longer than 240 hours")
+    private double hours = 24.;
+
+    /**
+     * Observers
+     */
+    @Valid
+    @NotEmpty(message = "At least one station must be requested")
+    @Size(max = 500, message = "At most 500 stations can be requested at once")
+    private List<Station> stations;
+
+    /**
+     * Observer location and minimum elevation
+     */
+    @Data
+    public static class Station {
+
+        /**
+         * Station name, returned with its passes
+         */
+        private String name;
+
+        @Min(value = -90, message = "Latitude should not be less than -90")
+        @Max(value = 90, message = "Latitude should not be greater than 90")
+        private double latitude;
+
+        @Min(value = -180, message = "Longitude should not be less than -180")
+        @Max(value = 180, message = "Longitude should not be greater than 180")
+        private double longitude;
+
+        @Min(value = 0, message = "Altitude should be greater or equal to zero")
+        @Max(value = Integer.MAX_VALUE, message = "Altitude value is too large")
+        private double altitude;
+
+        @Min(value = 0, message = "Elevation should not be less than 0")
+        @Max(value = 90, message = "Elevation should not be greater than 90")
+        private double minElevation;
+
+    }
+
+}
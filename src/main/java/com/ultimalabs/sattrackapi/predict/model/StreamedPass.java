@@ -0,0 +1,41 @@
+package com.ultimalabs.sattrackapi.predict.model;
+
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import lombok.Data;
+import org.orekit.frames.TopocentricFrame;
+
+/**
+ * Pass found for a streamed pass details response
+ * <p>
+ * Holds the pass data (without the details) and everything needed
+ * to calculate the details while they are being written out.
+ */
+@Data
+public class StreamedPass {
+
+    /**
+     * Pass data, without the details
+     */
+    private final SatellitePass pass;
+
+    /**
+     * TLE used for propagation
+     */
+    private final TLEPlus tle;
+
+    /**
+     * Observer frame
+     */
+    private final TopocentricFrame observerFrame;
+
+    /**
+     * Pass window
+     */
+    private final PassWindow window;
+
+    /**
+     * Resolution for pass event details, in seconds
+     */
+    private final double stepSize;
+
+}
@@ -0,0 +1,15 @@
+package com.ultimalabs.sattrackapi.predict.service;
+
+import com.ultimalabs.sattrackapi.predict.model.SatellitePass;
+import com.ultimalabs.sattrackapi.tle.model.ElementFilter;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface BatchPredictService {
+
+    void streamCatalogEventsWithin(double latitude, double longitude, double altitude, double minElevation, double hours, Consumer<List<SatellitePass>> consumer);
+
+    void streamCatalogEventsWithin(double latitude, double longitude, double altitude, double minElevation, double hours, ElementFilter filter, Consumer<List<SatellitePass>> consumer);
+
+}
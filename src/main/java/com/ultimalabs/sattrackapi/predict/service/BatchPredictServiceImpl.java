@@ -0,0 +1,220 @@
+package com.ultimalabs.sattrackapi.predict.service;
+
+import com.ultimalabs.sattrackapi.common.config.ExecutorConfig;
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.common.service.ObserverFrameService;
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+import com.ultimalabs.sattrackapi.predict.model.SatellitePass;
+import com.ultimalabs.sattrackapi.predict.util.DeadlineDetector;
+import com.ultimalabs.sattrackapi.predict.util.PassFinder;
+import com.ultimalabs.sattrackapi.predict.util.PredictUtil;
+import com.ultimalabs.sattrackapi.predict.util.PropagationTimeoutException;
+import com.ultimalabs.sattrackapi.tle.model.ElementFilter;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.model.TleDataStore;
+import com.ultimalabs.sattrackapi.tle.service.PropagatorCacheService;
+import com.ultimalabs.sattrackapi.tle.service.TleFetcherService;
+import lombok.extern.slf4j.Slf4j;
+import org.orekit.frames.TopocentricFrame;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Catalog-wide pass prediction
+ * <p>
+ * Each satellite is a separate task on the batch predict executor, with
+ * its own propagator. Results are handed to the consumer on the calling
+ * thread, in completion order, so the consumer doesn't need to be
+ * thread-safe. The number of tasks in flight is limited to twice the
+ * executor parallelism, which keeps the memory bounded for large catalogs.
+ */
+@Slf4j
+@Service
+public class BatchPredictServiceImpl implements BatchPredictService {
+
+    /**
+     * TLE fetcher service
+     */
+    private final TleFetcherService tleFetcherService;
+
+    /**
+     * Propagator cache
+     */
+    private final PropagatorCacheService propagatorCacheService;
+
+    /**
+     * Observer frame service
+     */
+    private final ObserverFrameService observerFrameService;
+
+    /**
+     * Config object
+     */
+    private final SatTrackConfig config;
+
+    /**
+     * Executor for the pass prediction tasks
+     */
+    private final ExecutorService executor;
+
+    public BatchPredictServiceImpl(TleFetcherService tleFetcherService,
+                                   PropagatorCacheService propagatorCacheService,
+                                   ObserverFrameService observerFrameService,
+                                   SatTrackConfig config,
+                                   @Qualifier("batchPredictExecutor") ExecutorService executor) {
+        this.tleFetcherService = tleFetcherService;
+        this.propagatorCacheService = propagatorCacheService;
+        this.observerFrameService = observerFrameService;
+        this.config = config;
+        this.executor = executor;
+    }
+
+    /**
+     * Finds the passes of all the satellites within a time window
+     * <p>
+     * Satellites without passes, the ones that can't be propagated and
+     * the ones that exceed the per-satellite time limit are skipped.
+     *
+     * @param latitude     observer latitude
+     * @param longitude    observer longitude
+     * @param altitude     observer altitude
+     * @param minElevation minimal elevation
+     * @param hours        time window duration, in hours from now
+     * @param consumer     receives the passes of a single satellite, in chronological order
+     */
+    @Override
+    public void streamCatalogEventsWithin(double latitude, double longitude, double altitude, double minElevation,
+                                          double hours, Consumer<List<SatellitePass>> consumer) {
+        streamCatalogEventsWithin(latitude, longitude, altitude, minElevation, hours, null, consumer);
+    }
+
+    /**
+     * Finds the passes of the satellites matching the element filter within a time window
+     * <p>
+     * The filter is applied to the element index of the current TLE data
+     * store before any propagation, so the satellites outside the ranges
+     * cost nothing.
+     *
+     * @param latitude     observer latitude
+     * @param longitude    observer longitude
+     * @param altitude     observer altitude
+     * @param minElevation minimal elevation
+     * @param hours        time window duration, in hours from now
+     * @param filter       mean orbital element ranges; null for all the satellites
+     * @param consumer     receives the passes of a single satellite, in chronological order
+     */
+    @Override
+    public void streamCatalogEventsWithin(double latitude, double longitude, double altitude, double minElevation,
+                                          double hours, ElementFilter filter, Consumer<List<SatellitePass>> consumer) {
+
+        final AbsoluteDate now = new AbsoluteDate(new Date(), TimeScalesFactory.getUTC());
+        final TopocentricFrame observerFrame = observerFrameService.getObserverFrame(latitude, longitude, altitude);
+        final double duration = hours * 3600.;
+        final int maxInFlight = 2 * ExecutorConfig.effectiveParallelism(config.getBatchPredictParallelism());
+
+        CompletionService<List<SatellitePass>> completionService = new ExecutorCompletionService<>(executor);
+        Set<Future<List<SatellitePass>>> inFlight = new HashSet<>();
+        Iterator<TLEPlus> tles = getTles(filter).iterator();
+
+        try {
+            while (tles.hasNext() || !inFlight.isEmpty()) {
+
+                while (inFlight.size() < maxInFlight && tles.hasNext()) {
+                    final TLEPlus tle = tles.next();
+                    inFlight.add(completionService.submit(() -> predictPasses(tle, observerFrame, minElevation, now, duration)));
+                }
+
+                Future<List<SatellitePass>> done = completionService.take();
+                inFlight.remove(done);
+
+                List<SatellitePass> passes = done.get();
+                if (!passes.isEmpty()) {
+                    consumer.accept(passes);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("Catalog pass prediction failed: " + e.getCause());
+        } finally {
+            // consumer failed (e.g. client went away) or we were interrupted
+            for (Future<List<SatellitePass>> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+
+    }
+
+    /**
+     * Returns the satellites to predict the passes for
+     *
+     * @param filter mean orbital element ranges; may be null
+     * @return TLE objects
+     */
+    private Collection<TLEPlus> getTles(ElementFilter filter) {
+
+        if (filter == null || filter.isUnbounded()) {
+            return tleFetcherService.getAllTles();
+        }
+
+        TleDataStore store = tleFetcherService.getTleDataStore();
+        return store == null ? Collections.emptyList() : store.getElementIndex().filter(filter);
+    }
+
+    /**
+     * Finds the passes of a single satellite
+     *
+     * @param tle           TLE object
+     * @param observerFrame observer frame
+     * @param minEl         minimum elevation for visibility event
+     * @param now           search start date
+     * @param duration      search duration, in seconds
+     * @return passes, in chronological order
+     */
+    private List<SatellitePass> predictPasses(TLEPlus tle, TopocentricFrame observerFrame, double minEl,
+                                              AbsoluteDate now, double duration) {
+
+        List<PassWindow> windows;
+
+        try {
+            windows = propagatorCacheService.withPropagator(tle, propagator -> {
+                propagator.addEventDetector(DeadlineDetector.afterMillis(config.getBatchPredictTimeout()));
+                return PassFinder.findPassWindows(propagator, tle, observerFrame, minEl, now, duration, Integer.MAX_VALUE);
+            });
+        } catch (PropagationTimeoutException e) {
+            log.debug("Pass prediction for satellite " + tle.getSatelliteNumber() + " skipped: " + e.getMessage());
+            return Collections.emptyList();
+        } catch (RuntimeException e) {
+            // a single bad TLE (e.g. decayed orbit) must not abort the whole batch
+            log.debug("Pass prediction for satellite " + tle.getSatelliteNumber() + " failed: " + e.getMessage());
+            return Collections.emptyList();
+        }
+
+        List<SatellitePass> passes = new ArrayList<>(windows.size());
+
+        for (PassWindow window : windows) {
+            passes.add(PredictUtil.toSatellitePass(window, now, Collections.emptyList()));
+        }
+
+        return passes;
+
+    }
+
+}
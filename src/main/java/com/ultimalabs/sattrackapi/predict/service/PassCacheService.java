@@ -0,0 +1,12 @@
+package com.ultimalabs.sattrackapi.predict.service;
+
+import com.ultimalabs.sattrackapi.predict.model.PassCacheKey;
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+
+import java.util.function.Function;
+
+public interface PassCacheService {
+
+    PassWindow getPassWindow(PassCacheKey key, Function<PassCacheKey, PassWindow> loader);
+
+}
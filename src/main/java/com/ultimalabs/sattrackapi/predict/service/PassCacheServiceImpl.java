@@ -0,0 +1,133 @@
+package com.ultimalabs.sattrackapi.predict.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.predict.model.PassCacheKey;
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.hipparchus.util.FastMath;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Pass cache
+ * <p>
+ * Caches pass windows (rise, midpoint and set) keyed by satellite,
+ * observer location, minimum elevation and TLE epoch. An entry expires
+ * when the pass rises or after the configured TTL, whichever comes
+ * first, so a pass in progress is never returned; the next one is
+ * loaded instead. "No pass" results are cached as well, for the much
+ * shorter miss TTL.
+ * <p>
+ * Cache statistics are exposed as "cache.*" metrics, tagged with
+ * cache=passes.
+ */
+@Slf4j
+@Service
+public class PassCacheServiceImpl implements PassCacheService {
+
+    /**
+     * Pass windows; an empty value means there's no pass
+     */
+    private final Cache<PassCacheKey, Optional<PassWindow>> cache;
+
+    public PassCacheServiceImpl(SatTrackConfig config, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getPassCacheSize())
+                .expireAfter(new PassWindowExpiry(TimeUnit.SECONDS.toNanos(config.getPassCacheTtl()),
+                        TimeUnit.SECONDS.toNanos(config.getPassCacheMissTtl())))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "passes");
+    }
+
+    /**
+     * Returns a cached pass window or loads a new one
+     * <p>
+     * Concurrent requests for the same key wait for a single load.
+     *
+     * @param key    pass cache key
+     * @param loader computes the pass window for a key; returns null if there is no pass
+     * @return pass window or null if there is no pass
+     */
+    @Override
+    public PassWindow getPassWindow(PassCacheKey key, Function<PassCacheKey, PassWindow> loader) {
+
+        Optional<PassWindow> window = cache.get(key, k -> Optional.ofNullable(loader.apply(k)));
+
+        // expiration isn't exact, so make sure a pass in progress is never returned
+        if (window.isPresent() && secondsUntil(window.get().getRiseDate()) <= 0) {
+            cache.invalidate(key);
+            window = cache.get(key, k -> Optional.ofNullable(loader.apply(k)));
+        }
+
+        return window.orElse(null);
+    }
+
+    /**
+     * Returns number of seconds between now and the given date
+     *
+     * @param date date
+     * @return number of seconds, negative if date is in the past
+     */
+    private static double secondsUntil(AbsoluteDate date) {
+        return date.durationFrom(new AbsoluteDate(new Date(), TimeScalesFactory.getUTC()));
+    }
+
+    /**
+     * Expires a pass window at rise time or after the TTL, and a missing pass after the miss TTL
+     */
+    private static class PassWindowExpiry implements Expiry<PassCacheKey, Optional<PassWindow>> {
+
+        /**
+         * Time to live, in nanoseconds
+         */
+        private final long ttlNanos;
+
+        /**
+         * Time to live of a missing pass, in nanoseconds
+         */
+        private final long missTtlNanos;
+
+        PassWindowExpiry(long ttlNanos, long missTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.missTtlNanos = missTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(PassCacheKey key, Optional<PassWindow> value, long currentTime) {
+
+            if (!value.isPresent()) {
+                return missTtlNanos;
+            }
+
+            double secondsToRise = secondsUntil(value.get().getRiseDate());
+            long nanosToRise = (long) (FastMath.max(0., secondsToRise) * 1e9);
+
+            return FastMath.min(ttlNanos, nanosToRise);
+        }
+
+        @Override
+        public long expireAfterUpdate(PassCacheKey key, Optional<PassWindow> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(PassCacheKey key, Optional<PassWindow> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
+}
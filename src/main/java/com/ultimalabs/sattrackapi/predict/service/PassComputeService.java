@@ -0,0 +1,10 @@
+package com.ultimalabs.sattrackapi.predict.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public interface PassComputeService {
+
+    <T> CompletableFuture<T> submit(Supplier<T> task);
+
+}
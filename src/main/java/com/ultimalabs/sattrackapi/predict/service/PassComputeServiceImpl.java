@@ -0,0 +1,144 @@
+package com.ultimalabs.sattrackapi.predict.service;
+
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.predict.util.DeadlineDetector;
+import com.ultimalabs.sattrackapi.predict.util.PropagationTimeoutException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Pass computation executor
+ * <p>
+ * Runs the pass requests on a dedicated pool with a bounded queue, so
+ * slow searches (e.g. satellites which never rise above the horizon)
+ * can't take up all the servlet threads, and the cheap endpoints keep
+ * their latency under load.
+ * <p>
+ * Each request has a deadline, counted from its submission, so the time
+ * spent in the queue counts as well. The deadline is added to all the
+ * propagations the request runs, which are aborted once it passes.
+ * Requests which don't fit in the queue or miss their deadline are
+ * answered with 503 Service Unavailable.
+ */
+@Slf4j
+@Service
+public class PassComputeServiceImpl implements PassComputeService {
+
+    /**
+     * Config object
+     */
+    private final SatTrackConfig config;
+
+    /**
+     * Executor for the pass requests
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Number of requests rejected because the queue was full
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Number of requests which missed their deadline
+     */
+    private final LongAdder timeouts = new LongAdder();
+
+    public PassComputeServiceImpl(SatTrackConfig config,
+                                  @Qualifier("passComputeExecutor") ExecutorService executor,
+                                  MeterRegistry meterRegistry) {
+        this.config = config;
+        this.executor = executor;
+
+        new ExecutorServiceMetrics(executor, "passCompute", Tags.empty()).bindTo(meterRegistry);
+
+        FunctionCounter.builder("sattrack.passes.rejected", rejected, LongAdder::sum)
+                .description("Pass requests rejected because the queue was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("sattrack.passes.timeouts", timeouts, LongAdder::sum)
+                .description("Pass requests which missed their deadline")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a pass computation
+     * <p>
+     * The returned future is completed with the task result, or with the
+     * exception it threw. Cancelling it interrupts the task, which aborts
+     * its propagation.
+     *
+     * @param task pass computation
+     * @param <T>  task result type
+     * @return task result
+     * @throws ResponseStatusException (503) if the queue is full
+     */
+    @Override
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+
+        long deadlineNanos = System.nanoTime() + config.getPassComputeTimeout() * 1_000_000L;
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        Future<?> future;
+
+        try {
+            future = executor.submit(() -> run(task, deadlineNanos, result));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many pass requests, try again later.");
+        }
+
+        result.whenComplete((value, e) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Runs a task with a deadline and completes its future
+     *
+     * @param task          pass computation
+     * @param deadlineNanos deadline, as a System.nanoTime() value
+     * @param result        future to complete
+     * @param <T>           task result type
+     */
+    private <T> void run(Supplier<T> task, long deadlineNanos, CompletableFuture<T> result) {
+
+        // cancelled while queued
+        if (result.isDone()) {
+            return;
+        }
+
+        try {
+            result.complete(DeadlineDetector.callWithDeadline(deadlineNanos, () -> {
+                // the deadline may have passed in the queue already
+                DeadlineDetector.checkCurrent();
+                return task.get();
+            }));
+        } catch (PropagationTimeoutException e) {
+            timeouts.increment();
+            log.debug("Pass request aborted: " + e.getMessage());
+            result.completeExceptionally(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Pass computation took too long, try again later."));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+}
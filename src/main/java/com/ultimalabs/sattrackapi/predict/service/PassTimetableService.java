@@ -0,0 +1,18 @@
+package com.ultimalabs.sattrackapi.predict.service;
+
+import com.ultimalabs.sattrackapi.common.model.QuantizedLocation;
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.orekit.time.AbsoluteDate;
+
+import java.util.List;
+
+public interface PassTimetableService {
+
+    PassWindow getNextPass(TLEPlus tle, QuantizedLocation location, double minElevation, AbsoluteDate now);
+
+    List<PassWindow> getPasses(TLEPlus tle, QuantizedLocation location, double minElevation, AbsoluteDate now, int count);
+
+    List<PassWindow> getPassesWithin(TLEPlus tle, QuantizedLocation location, double minElevation, AbsoluteDate now, double duration);
+
+}
@@ -0,0 +1,366 @@
+package com.ultimalabs.sattrackapi.predict.service;
+
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.common.model.QuantizedLocation;
+import com.ultimalabs.sattrackapi.common.service.ObserverFrameService;
+import com.ultimalabs.sattrackapi.predict.model.PassTimetableKey;
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+import com.ultimalabs.sattrackapi.predict.util.MultiStationPassFinder;
+import com.ultimalabs.sattrackapi.predict.util.PassTimetable;
+import com.ultimalabs.sattrackapi.tle.event.TleDataRefreshedEvent;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.model.TleDataStore;
+import com.ultimalabs.sattrackapi.tle.service.PropagatorCacheService;
+import com.ultimalabs.sattrackapi.tle.service.TleFetcherService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.orekit.frames.TopocentricFrame;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pass timetables of the registered stations
+ * <p>
+ * At startup, after each TLE refresh, and hourly, the passes of the
+ * tracked satellites over each registered station are computed for the
+ * configured span, on the timetable executor; all the stations tracking
+ * a satellite share a single propagation. A timetable is recomputed
+ * when the satellite TLE changes or when less than half of its span is
+ * left, so lookups are always answered from a timetable covering at
+ * least half of the span ahead.
+ * <p>
+ * Lookups for other observers, satellites or minimum elevations, and
+ * the ones reaching beyond a timetable span, return null; the passes
+ * then have to be computed.
+ */
+@Slf4j
+@Service
+public class PassTimetableServiceImpl implements PassTimetableService {
+
+    /**
+     * Timetable roll check interval, in milliseconds
+     */
+    private static final long ROLL_INTERVAL = 3600000L;
+
+    /**
+     * Config object
+     */
+    private final SatTrackConfig config;
+
+    /**
+     * TLE fetcher service
+     */
+    private final TleFetcherService tleFetcherService;
+
+    /**
+     * Propagator cache
+     */
+    private final PropagatorCacheService propagatorCacheService;
+
+    /**
+     * Observer frame service
+     */
+    private final ObserverFrameService observerFrameService;
+
+    /**
+     * Executor for the timetable computation
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Pass timetables
+     */
+    private final ConcurrentMap<PassTimetableKey, PassTimetable> timetables = new ConcurrentHashMap<>();
+
+    /**
+     * Timetables queued for computation
+     */
+    private final Set<PassTimetableKey> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Number of lookups answered from a timetable
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Number of lookups for a registered station which had to be computed
+     */
+    private final LongAdder misses = new LongAdder();
+
+    public PassTimetableServiceImpl(SatTrackConfig config,
+                                    TleFetcherService tleFetcherService,
+                                    PropagatorCacheService propagatorCacheService,
+                                    ObserverFrameService observerFrameService,
+                                    @Qualifier("timetableExecutor") ExecutorService executor,
+                                    MeterRegistry meterRegistry) {
+        this.config = config;
+        this.tleFetcherService = tleFetcherService;
+        this.propagatorCacheService = propagatorCacheService;
+        this.observerFrameService = observerFrameService;
+        this.executor = executor;
+
+        FunctionCounter.builder("sattrack.timetable.hits", hits, LongAdder::sum)
+                .description("Pass lookups answered from a precomputed timetable")
+                .register(meterRegistry);
+        FunctionCounter.builder("sattrack.timetable.misses", misses, LongAdder::sum)
+                .description("Pass lookups for a registered station which had to be computed")
+                .register(meterRegistry);
+        Gauge.builder("sattrack.timetable.size", this, s -> s.timetables.size())
+                .description("Number of precomputed pass timetables")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the next pass from a timetable
+     *
+     * @param tle          TLE object
+     * @param location     observer location
+     * @param minElevation minimum elevation, in degrees
+     * @param now          search start date
+     * @return first pass rising at or after the search start, or null if the timetable can't tell
+     */
+    @Override
+    public PassWindow getNextPass(TLEPlus tle, QuantizedLocation location, double minElevation, AbsoluteDate now) {
+        PassTimetable timetable = getTimetable(tle, location, minElevation);
+        return count(timetable, timetable == null ? null : timetable.getNextPass(now));
+    }
+
+    /**
+     * Returns a number of upcoming passes from a timetable
+     *
+     * @param tle          TLE object
+     * @param location     observer location
+     * @param minElevation minimum elevation, in degrees
+     * @param now          search start date
+     * @param count        number of passes
+     * @return passes, in chronological order, or null if the timetable can't tell
+     */
+    @Override
+    public List<PassWindow> getPasses(TLEPlus tle, QuantizedLocation location, double minElevation, AbsoluteDate now, int count) {
+        PassTimetable timetable = getTimetable(tle, location, minElevation);
+        return count(timetable, timetable == null ? null : timetable.getPasses(now, count));
+    }
+
+    /**
+     * Returns the passes within a time window from a timetable
+     *
+     * @param tle          TLE object
+     * @param location     observer location
+     * @param minElevation minimum elevation, in degrees
+     * @param now          time window start
+     * @param duration     time window duration, in seconds
+     * @return passes, in chronological order, or null if the timetable can't tell
+     */
+    @Override
+    public List<PassWindow> getPassesWithin(TLEPlus tle, QuantizedLocation location, double minElevation, AbsoluteDate now, double duration) {
+        PassTimetable timetable = getTimetable(tle, location, minElevation);
+        return count(timetable, timetable == null ? null : timetable.getPassesWithin(now, duration));
+    }
+
+    /**
+     * Computes the timetables for the TLE data loaded at startup
+     * <p>
+     * The startup TLE load is published before the event listeners are
+     * registered, and a background refresh finding no changes doesn't
+     * publish anything, so the first timetables are scheduled from here.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rollTimetables();
+    }
+
+    /**
+     * Recomputes the timetables of the changed satellites after a TLE refresh
+     *
+     * @param event TLE refresh event
+     */
+    @EventListener
+    public void onTleDataRefreshed(TleDataRefreshedEvent event) {
+        scheduleUpdates(event.getTleStore());
+    }
+
+    /**
+     * Recomputes the timetables running out of their span
+     * <p>
+     * TLE refreshes without changes don't publish a new store, so the
+     * timetables are rolled forward independently.
+     */
+    @Scheduled(initialDelay = ROLL_INTERVAL, fixedDelay = ROLL_INTERVAL)
+    public void rollTimetables() {
+        TleDataStore store = tleFetcherService.getTleDataStore();
+        if (store != null) {
+            scheduleUpdates(store);
+        }
+    }
+
+    /**
+     * Queues the computation of the missing, stale and expiring timetables
+     * <p>
+     * Timetables of a satellite are computed together, for all the
+     * stations tracking it, with a single propagation.
+     *
+     * @param store TLE data store
+     */
+    void scheduleUpdates(TleDataStore store) {
+
+        AbsoluteDate now = new AbsoluteDate(new Date(), TimeScalesFactory.getUTC());
+        double span = config.getTimetableDays() * 86400.;
+        Map<Integer, List<PassTimetableKey>> updates = new LinkedHashMap<>();
+
+        for (SatTrackConfig.Station station : config.getStations()) {
+
+            QuantizedLocation location = QuantizedLocation.of(station.getLatitude(), station.getLongitude(), station.getAltitude());
+
+            for (Integer satelliteId : station.getSatellites()) {
+
+                PassTimetableKey key = new PassTimetableKey(satelliteId, location, station.getMinElevation());
+                TLEPlus tle = store.getCatalogIndex().getBySatelliteId(satelliteId);
+
+                if (tle == null) {
+                    timetables.remove(key);
+                    continue;
+                }
+
+                PassTimetable current = timetables.get(key);
+                if (current != null && current.getTle() == tle && current.getRemainingSpan(now) > span / 2.) {
+                    continue;
+                }
+
+                if (pending.add(key)) {
+                    updates.computeIfAbsent(satelliteId, id -> new ArrayList<>()).add(key);
+                }
+            }
+        }
+
+        int queued = 0;
+        for (Map.Entry<Integer, List<PassTimetableKey>> update : updates.entrySet()) {
+            TLEPlus tle = store.getCatalogIndex().getBySatelliteId(update.getKey());
+            if (submit(tle, update.getValue(), span)) {
+                queued += update.getValue().size();
+            }
+        }
+
+        if (queued > 0) {
+            log.info("Pass timetables queued for computation: " + queued);
+        }
+    }
+
+    /**
+     * Submits the timetable computation for a satellite
+     *
+     * @param tle  TLE object
+     * @param keys timetable keys, all for the given satellite
+     * @param span timetable span, in seconds
+     * @return true if submitted
+     */
+    private boolean submit(TLEPlus tle, List<PassTimetableKey> keys, double span) {
+        try {
+            executor.submit(() -> {
+                try {
+                    computeTimetables(tle, keys, span);
+                } catch (RuntimeException e) {
+                    // keep the old timetables, they're dropped once the TLE no longer matches
+                    log.error("Pass timetables for satellite " + tle.getSatelliteNumber() + " failed: " + e.getMessage());
+                } finally {
+                    pending.removeAll(keys);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            // shutting down
+            pending.removeAll(keys);
+            return false;
+        }
+    }
+
+    /**
+     * Computes the timetables of a satellite, starting now
+     *
+     * @param tle  TLE object
+     * @param keys timetable keys, all for the given satellite
+     * @param span timetable span, in seconds
+     */
+    private void computeTimetables(TLEPlus tle, List<PassTimetableKey> keys, double span) {
+
+        AbsoluteDate start = new AbsoluteDate(new Date(), TimeScalesFactory.getUTC());
+        List<TopocentricFrame> observerFrames = new ArrayList<>(keys.size());
+        double[] minEls = new double[keys.size()];
+
+        for (int i = 0; i < keys.size(); i++) {
+            observerFrames.add(observerFrameService.getObserverFrame(keys.get(i).getLocation()));
+            minEls[i] = keys.get(i).getMinElevation();
+        }
+
+        List<List<PassWindow>> windows = propagatorCacheService.withPropagator(tle, propagator ->
+                MultiStationPassFinder.findPassWindows(propagator, tle, observerFrames, minEls, start, span));
+
+        for (int i = 0; i < keys.size(); i++) {
+            timetables.put(keys.get(i), new PassTimetable(tle, start, span, windows.get(i)));
+        }
+    }
+
+    /**
+     * Returns the timetable computed with the given TLE
+     *
+     * @param tle          TLE object
+     * @param location     observer location
+     * @param minElevation minimum elevation, in degrees
+     * @return pass timetable, or null if there's none
+     */
+    private PassTimetable getTimetable(TLEPlus tle, QuantizedLocation location, double minElevation) {
+
+        PassTimetable timetable = timetables.get(new PassTimetableKey(tle.getSatelliteNumber(), location, minElevation));
+
+        if (timetable == null) {
+            return null;
+        }
+
+        // computed with an older TLE, and not recomputed yet
+        TLEPlus timetableTle = timetable.getTle();
+        if (timetableTle != tle && !(timetableTle.getLine1().equals(tle.getLine1()) && timetableTle.getLine2().equals(tle.getLine2()))) {
+            misses.increment();
+            return null;
+        }
+
+        return timetable;
+    }
+
+    /**
+     * Counts a lookup on a timetable
+     *
+     * @param timetable pass timetable, or null if there's none
+     * @param result    lookup result, or null if the timetable can't tell
+     * @param <T>       lookup result type
+     * @return lookup result
+     */
+    private <T> T count(PassTimetable timetable, T result) {
+        if (timetable != null) {
+            if (result != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+            }
+        }
+        return result;
+    }
+
+}
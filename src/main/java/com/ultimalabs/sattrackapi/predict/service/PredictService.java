@@ -1,11 +1,28 @@
 package com.ultimalabs.sattrackapi.predict.service;
 
+import com.ultimalabs.sattrackapi.predict.model.PassEventDataPoint;
 import com.ultimalabs.sattrackapi.predict.model.SatellitePass;
+import com.ultimalabs.sattrackapi.predict.model.StationPasses;
+import com.ultimalabs.sattrackapi.predict.model.StationPassesRequest;
+import com.ultimalabs.sattrackapi.predict.model.StreamedPass;
+
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface PredictService {
 
     SatellitePass getNextEventWithDetails(String searchString, double longitude, double latitude, double altitude, double minElevation, double stepSize);
 
+    StreamedPass getNextEventForStreaming(String searchString, double latitude, double longitude, double altitude, double minElevation, double stepSize);
+
+    void streamPassDetails(StreamedPass streamedPass, Consumer<PassEventDataPoint> consumer);
+
     SatellitePass getNextEventWithoutDetails(String searchString, double longitude, double latitude, double altitude, double minElevation);
 
+    List<SatellitePass> getNextEvents(String searchString, double latitude, double longitude, double altitude, double minElevation, int count);
+
+    List<SatellitePass> getEventsWithin(String searchString, double latitude, double longitude, double altitude, double minElevation, double hours);
+
+    List<StationPasses> getStationEventsWithin(String searchString, List<StationPassesRequest.Station> stations, double hours);
+
 }
@@ -1,29 +1,26 @@
 package com.ultimalabs.sattrackapi.predict.service;
 
-import com.ultimalabs.sattrackapi.common.model.EarthParams;
-import com.ultimalabs.sattrackapi.common.util.DoubleRound;
+import com.ultimalabs.sattrackapi.common.model.QuantizedLocation;
+import com.ultimalabs.sattrackapi.common.service.ObserverFrameService;
+import com.ultimalabs.sattrackapi.common.service.TransformCacheService;
+import com.ultimalabs.sattrackapi.predict.model.PassCacheKey;
 import com.ultimalabs.sattrackapi.predict.model.PassEventDataPoint;
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
 import com.ultimalabs.sattrackapi.predict.model.SatellitePass;
+import com.ultimalabs.sattrackapi.predict.model.StationPasses;
+import com.ultimalabs.sattrackapi.predict.model.StationPassesRequest;
+import com.ultimalabs.sattrackapi.predict.model.StreamedPass;
+import com.ultimalabs.sattrackapi.predict.util.MultiStationPassFinder;
+import com.ultimalabs.sattrackapi.predict.util.PassFinder;
 import com.ultimalabs.sattrackapi.predict.util.PredictUtil;
 import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.service.PropagatorCacheService;
 import com.ultimalabs.sattrackapi.tle.service.TleFetcherService;
-import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.hipparchus.util.FastMath;
-import org.orekit.bodies.BodyShape;
-import org.orekit.bodies.GeodeticPoint;
-import org.orekit.bodies.OneAxisEllipsoid;
 import org.orekit.frames.TopocentricFrame;
 import org.orekit.propagation.SpacecraftState;
 import org.orekit.propagation.analytical.tle.TLEPropagator;
-import org.orekit.propagation.events.ElevationDetector;
-import org.orekit.propagation.events.ElevationExtremumDetector;
-import org.orekit.propagation.events.EventEnablingPredicateFilter;
-import org.orekit.propagation.events.EventsLogger;
-import org.orekit.propagation.events.EventsLogger.LoggedEvent;
-import org.orekit.propagation.events.handlers.ContinueOnEvent;
-import org.orekit.propagation.events.handlers.EventHandler;
 import org.orekit.propagation.sampling.OrekitFixedStepHandler;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.time.TimeScalesFactory;
@@ -33,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Predict service
@@ -47,6 +45,31 @@ public class PredictServiceImpl implements PredictService {
      */
     private final TleFetcherService tleFetcherService;
 
+    /**
+     * Propagator cache
+     */
+    private final PropagatorCacheService propagatorCacheService;
+
+    /**
+     * Observer frame service
+     */
+    private final ObserverFrameService observerFrameService;
+
+    /**
+     * Pass cache
+     */
+    private final PassCacheService passCacheService;
+
+    /**
+     * Pass timetables of the registered stations
+     */
+    private final PassTimetableService passTimetableService;
+
+    /**
+     * TEME to Earth frame transforms, shared between requests
+     */
+    private final TransformCacheService transformCacheService;
+
     /**
      * Returns next visibility event without pass details
      *
@@ -78,6 +101,149 @@ public class PredictServiceImpl implements PredictService {
         return getEventData(getTle(searchString), latitude, longitude, altitude, minElevation, stepSize);
     }
 
+    /**
+     * Returns next visibility event, prepared for streaming the pass details
+     * <p>
+     * Details aren't calculated here; see {@link #streamPassDetails(StreamedPass, Consumer)}.
+     *
+     * @param searchString Satellite Number or International Designator
+     * @param latitude     observer latitude
+     * @param longitude    observer longitude
+     * @param altitude     observer altitude
+     * @param minElevation minimal elevation
+     * @param stepSize     step resolution for the master mode propagator
+     * @return next visibility event, without the details, or null if there is no pass
+     */
+    @Override
+    public StreamedPass getNextEventForStreaming(String searchString, double latitude, double longitude, double altitude, double minElevation, double stepSize) {
+
+        TLEPlus tle = getTle(searchString);
+        AbsoluteDate now = new AbsoluteDate(new Date(), TimeScalesFactory.getUTC());
+
+        final QuantizedLocation location = QuantizedLocation.of(latitude, longitude, altitude);
+        final TopocentricFrame observerFrame = observerFrameService.getObserverFrame(location);
+
+        PassWindow window = getPassWindow(tle, location, observerFrame, minElevation, now);
+
+        if (window == null) {
+            return null;
+        }
+
+        return new StreamedPass(PredictUtil.toSatellitePass(window, now, Collections.emptyList()),
+                tle, observerFrame, window, stepSize);
+
+    }
+
+    /**
+     * Calculates the pass details, handing each data point to the consumer as soon as it's calculated
+     *
+     * @param streamedPass pass prepared for streaming
+     * @param consumer     receives the data points, in chronological order
+     */
+    @Override
+    public void streamPassDetails(StreamedPass streamedPass, Consumer<PassEventDataPoint> consumer) {
+        propagatorCacheService.withPropagator(streamedPass.getTle(),
+                propagator -> propagatePassDetails(propagator, streamedPass.getObserverFrame(),
+                        streamedPass.getWindow(), streamedPass.getStepSize(), consumer));
+    }
+
+    /**
+     * Returns a number of upcoming visibility events, without pass details
+     * <p>
+     * All the passes are found in a single propagation run. Passes are
+     * searched for up to 10 days ahead, so fewer passes may be returned.
+     *
+     * @param searchString Satellite Number or International Designator
+     * @param latitude     observer latitude
+     * @param longitude    observer longitude
+     * @param altitude     observer altitude
+     * @param minElevation minimal elevation
+     * @param count        maximum number of passes
+     * @return upcoming visibility events, without the details
+     */
+    @Override
+    public List<SatellitePass> getNextEvents(String searchString, double latitude, double longitude, double altitude, double minElevation, int count) {
+        return getEventsData(getTle(searchString), latitude, longitude, altitude, minElevation, PassFinder.MAX_PASSES_SEARCH_DURATION, count);
+    }
+
+    /**
+     * Returns all the visibility events within a time window, without pass details
+     * <p>
+     * Only the passes that are over before the window ends are returned.
+     *
+     * @param searchString Satellite Number or International Designator
+     * @param latitude     observer latitude
+     * @param longitude    observer longitude
+     * @param altitude     observer altitude
+     * @param minElevation minimal elevation
+     * @param hours        time window duration, in hours from now
+     * @return visibility events, without the details
+     */
+    @Override
+    public List<SatellitePass> getEventsWithin(String searchString, double latitude, double longitude, double altitude, double minElevation, double hours) {
+        return getEventsData(getTle(searchString), latitude, longitude, altitude, minElevation, hours * 3600., Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns all the visibility events within a time window for multiple stations, without pass details
+     * <p>
+     * Stations with a timetable covering the window are answered from it;
+     * the others are served by a single propagation, shared by all of them.
+     *
+     * @param searchString Satellite Number or International Designator
+     * @param stations     observer locations and minimal elevations
+     * @param hours        time window duration, in hours from now
+     * @return visibility events, without the details, per station (in the order of the stations)
+     */
+    @Override
+    public List<StationPasses> getStationEventsWithin(String searchString, List<StationPassesRequest.Station> stations, double hours) {
+
+        TLEPlus tle = getTle(searchString);
+        AbsoluteDate now = new AbsoluteDate(new Date(), TimeScalesFactory.getUTC());
+        double duration = hours * 3600.;
+
+        List<List<PassWindow>> windows = new ArrayList<>(stations.size());
+        List<Integer> computed = new ArrayList<>();
+        List<TopocentricFrame> observerFrames = new ArrayList<>();
+
+        for (StationPassesRequest.Station station : stations) {
+            QuantizedLocation location = QuantizedLocation.of(station.getLatitude(), station.getLongitude(), station.getAltitude());
+            List<PassWindow> scheduled = passTimetableService.getPassesWithin(tle, location, station.getMinElevation(), now, duration);
+            windows.add(scheduled);
+            if (scheduled == null) {
+                computed.add(windows.size() - 1);
+                observerFrames.add(observerFrameService.getObserverFrame(location));
+            }
+        }
+
+        if (!computed.isEmpty()) {
+            double[] minEls = new double[computed.size()];
+            for (int i = 0; i < minEls.length; i++) {
+                minEls[i] = stations.get(computed.get(i)).getMinElevation();
+            }
+
+            List<List<PassWindow>> found = propagatorCacheService.withPropagator(tle,
+                    propagator -> MultiStationPassFinder.findPassWindows(propagator, tle, observerFrames, minEls, now, duration));
+
+            for (int i = 0; i < found.size(); i++) {
+                windows.set(computed.get(i), found.get(i));
+            }
+        }
+
+        List<StationPasses> stationPasses = new ArrayList<>(stations.size());
+
+        for (int i = 0; i < stations.size(); i++) {
+            List<SatellitePass> passes = new ArrayList<>(windows.get(i).size());
+            for (PassWindow window : windows.get(i)) {
+                passes.add(PredictUtil.toSatellitePass(window, now, Collections.emptyList()));
+            }
+            stationPasses.add(new StationPasses(stations.get(i).getName(), passes));
+        }
+
+        return stationPasses;
+
+    }
+
     /**
      * Returns TLE object based on search string
      *
@@ -90,6 +256,9 @@ public class PredictServiceImpl implements PredictService {
 
     /**
      * Returns next pass data
+     * <p>
+     * Pass windows are cached, so only the wait time (and the pass
+     * details, if requested) are calculated for each request.
      *
      * @param tle      TLE object
      * @param lat      observer latitude
@@ -103,125 +272,123 @@ public class PredictServiceImpl implements PredictService {
     private SatellitePass getEventData(TLEPlus tle, double lat, double lon, double alt, double minEl, double stepSize) {
 
         AbsoluteDate now = new AbsoluteDate(new Date(), TimeScalesFactory.getUTC());
-        TLEPropagator propagator = TLEPropagator.selectExtrapolator(tle);
-        EventsLogger logger = new EventsLogger();
-        propagator.propagate(now);
 
-        final BodyShape earth = new OneAxisEllipsoid(EarthParams.EQUATORIAL_RADIUS, EarthParams.FLATTENING, EarthParams.iers2010Frame);
+        final QuantizedLocation location = QuantizedLocation.of(lat, lon, alt);
+        final TopocentricFrame observerFrame = observerFrameService.getObserverFrame(location);
 
-        final GeodeticPoint observer = new GeodeticPoint(FastMath.toRadians(lat), FastMath.toRadians(lon), alt);
-        final TopocentricFrame observerFrame = new TopocentricFrame(earth, observer, "observer");
+        PassWindow window = getPassWindow(tle, location, observerFrame, minEl, now);
 
-        // Event definition
-        final double maxCheck = 60.0;
-        final double threshold = 10e-6;
-        final double elevation = FastMath.toRadians(minEl);
+        if (window == null) {
+            return null;
+        }
 
-        final ElevationDetector visibilityDetector =
-                new ElevationDetector(maxCheck, threshold, observerFrame).
-                        withConstantElevation(elevation).
-                        withHandler(new VisibilityHandler());
+        List<PassEventDataPoint> passDetails = Collections.emptyList();
 
-        final ElevationExtremumDetector raw =
-                new ElevationExtremumDetector(maxCheck, threshold, observerFrame).
-                        withHandler(new ContinueOnEvent<>());
+        if (stepSize != 0.) {
+            List<PassEventDataPoint> collectedDetails = new ArrayList<>();
+            propagatorCacheService.withPropagator(tle,
+                    propagator -> propagatePassDetails(propagator, observerFrame, window, stepSize, collectedDetails::add));
+            passDetails = collectedDetails;
+        }
 
-        final EventEnablingPredicateFilter<ElevationExtremumDetector> aboveGroundElevationDetector =
-                new EventEnablingPredicateFilter<>(raw,
-                        (state, eventDetector, g) -> eventDetector.getElevation(state) > elevation).withMaxCheck(maxCheck);
+        return PredictUtil.toSatellitePass(window, now, passDetails);
 
-        propagator.addEventDetector(logger.monitorDetector(aboveGroundElevationDetector));
-        propagator.addEventDetector(logger.monitorDetector(visibilityDetector));
+    }
 
-        // Propagate from now to the first raising or for the fixed duration of 72 hours
-        propagator.propagate(now.shiftedBy(259200.));
+    /**
+     * Returns the next pass window, from a timetable or the cache if possible
+     *
+     * @param tle           TLE object
+     * @param location      quantized observer location
+     * @param observerFrame observer frame
+     * @param minEl         minimum elevation for visibility event
+     * @param now           search start date
+     * @return pass window or null if there is no pass
+     */
+    private PassWindow getPassWindow(TLEPlus tle, QuantizedLocation location, TopocentricFrame observerFrame, double minEl, AbsoluteDate now) {
 
-        // if all went well, we have a list with three events:
-        // 0 - rise
-        // 1 - midpoint
-        // 2 - set
-        if (logger.getLoggedEvents().size() != 3) {
-            return null;
+        PassWindow scheduled = passTimetableService.getNextPass(tle, location, minEl, now);
+        if (scheduled != null) {
+            return scheduled;
+        }
+
+        PassCacheKey key = new PassCacheKey(tle.getSatelliteNumber(), location, minEl, tle.getDate());
+        return passCacheService.getPassWindow(key, k -> propagatorCacheService.withPropagator(tle,
+                propagator -> PassFinder.findPassWindow(propagator, tle, observerFrame, minEl, now)));
+    }
+
+    /**
+     * Returns data for multiple passes
+     * <p>
+     * Passes are taken from a timetable if possible, and computed otherwise.
+     *
+     * @param tle       TLE object
+     * @param lat       observer latitude
+     * @param lon       observer longitude
+     * @param alt       observer altitude
+     * @param minEl     minimum elevation for visibility event
+     * @param duration  search duration, in seconds
+     * @param maxPasses maximum number of passes
+     * @return pass event data, in chronological order
+     */
+    private List<SatellitePass> getEventsData(TLEPlus tle, double lat, double lon, double alt, double minEl, double duration, int maxPasses) {
+
+        AbsoluteDate now = new AbsoluteDate(new Date(), TimeScalesFactory.getUTC());
+
+        final QuantizedLocation location = QuantizedLocation.of(lat, lon, alt);
+
+        List<PassWindow> windows = maxPasses == Integer.MAX_VALUE
+                ? passTimetableService.getPassesWithin(tle, location, minEl, now, duration)
+                : passTimetableService.getPasses(tle, location, minEl, now, maxPasses);
+
+        if (windows == null) {
+            final TopocentricFrame observerFrame = observerFrameService.getObserverFrame(location);
+            windows = propagatorCacheService.withPropagator(tle,
+                    propagator -> PassFinder.findPassWindows(propagator, tle, observerFrame, minEl, now, duration, maxPasses));
         }
 
-        List<LoggedEvent> loggedEvents = logger.getLoggedEvents();
-
-        LoggedEvent riseEvent = loggedEvents.get(0);
-        LoggedEvent midPointEvent = loggedEvents.get(1);
-        LoggedEvent setEvent = loggedEvents.get(2);
-
-        AbsoluteDate riseDate = loggedEvents.get(0).getState().getDate();
-        AbsoluteDate setDate = loggedEvents.get(2).getState().getDate();
-
-        if (stepSize == 0.) {
-            return new SatellitePass(
-                    tle.getTle(),
-                    now.getDate().toString(),
-                    DoubleRound.round(riseDate.offsetFrom(now, TimeScalesFactory.getUTC()), 2),
-                    PredictUtil.getEventDetails(riseEvent.getState(), observerFrame),
-                    PredictUtil.getEventDetails(midPointEvent.getState(), observerFrame),
-                    PredictUtil.getEventDetails(setEvent.getState(), observerFrame),
-                    DoubleRound.round(setDate.offsetFrom(riseDate, TimeScalesFactory.getUTC()), 2),
-                    Collections.emptyList()
-            );
+        List<SatellitePass> passes = new ArrayList<>(windows.size());
+
+        for (PassWindow window : windows) {
+            passes.add(PredictUtil.toSatellitePass(window, now, Collections.emptyList()));
         }
 
-        TLEPropagator masterModePropagator = TLEPropagator.selectExtrapolator(tle);
-        masterModePropagator.propagate(riseDate);
-        StepHandler stepHandler = new StepHandler(observerFrame);
-        masterModePropagator.setMasterMode(stepSize, stepHandler);
-        masterModePropagator.propagate(setDate);
-
-        return new SatellitePass(
-                tle.getTle(),
-                now.getDate().toString(),
-                DoubleRound.round(riseDate.offsetFrom(now, TimeScalesFactory.getUTC()), 2),
-                PredictUtil.getEventDetails(riseEvent.getState(), observerFrame),
-                PredictUtil.getEventDetails(midPointEvent.getState(), observerFrame),
-                PredictUtil.getEventDetails(setEvent.getState(), observerFrame),
-                DoubleRound.round(setDate.offsetFrom(riseDate, TimeScalesFactory.getUTC()), 2),
-                stepHandler.getPassDetails()
-        );
+        return passes;
 
     }
 
     /**
-     * Handler for visibility events
+     * Calculates pass details, using the given propagator
+     *
+     * @param propagator    TLE propagator, exclusively owned by the caller
+     * @param observerFrame observer frame
+     * @param window        pass window
+     * @param stepSize      resolution for pass event details, in seconds
+     * @param consumer      receives the pass details, in chronological order
+     * @return final propagation state
      */
-    @Getter
-    private static class VisibilityHandler implements EventHandler<ElevationDetector> {
+    private SpacecraftState propagatePassDetails(TLEPropagator propagator, TopocentricFrame observerFrame, PassWindow window,
+                                                 double stepSize, Consumer<PassEventDataPoint> consumer) {
 
-        /**
-         * Handle the event
-         *
-         * @param s          SpaceCraft state to be used in the evaluation
-         * @param detector   object with appropriate type that can be used in determining correct return state
-         * @param increasing with the event occurred in an "increasing" or "decreasing" slope direction
-         * @return the Action that the calling detector should pass back to the evaluation system
-         */
-        public Action eventOccurred(final SpacecraftState s, final ElevationDetector detector,
-                                    final boolean increasing) {
-            if (increasing) {
-                return Action.CONTINUE;
-            }
+        propagator.propagate(window.getRiseDate());
+        propagator.setMasterMode(stepSize, new StepHandler(observerFrame, transformCacheService, consumer));
+        return propagator.propagate(window.getSetDate());
 
-            return Action.STOP;
-
-        }
     }
 
     /**
      * Specialized step handler
      * <p>
-     * This class extends the step handler in order to save the parameters at the given step
+     * This class extends the step handler in order to hand over the parameters at the given step
      */
-    @Getter
     @RequiredArgsConstructor
     private static class StepHandler implements OrekitFixedStepHandler {
 
         private final TopocentricFrame observerFrame;
 
-        private List<PassEventDataPoint> passDetails = new ArrayList<>();
+        private final TransformCacheService transformCacheService;
+
+        private final Consumer<PassEventDataPoint> consumer;
 
         /**
          * Handle the current step
@@ -231,7 +398,8 @@ public class PredictServiceImpl implements PredictService {
          */
         public void handleStep(SpacecraftState currentState, boolean isLast) {
 
-            passDetails.add(PredictUtil.getEventDetails(currentState, observerFrame));
+            consumer.accept(PredictUtil.getEventDetails(currentState, observerFrame,
+                    transformCacheService.getTemeToEarth(currentState.getDate())));
 
         }
 
@@ -0,0 +1,136 @@
+package com.ultimalabs.sattrackapi.predict.util;
+
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.events.AbstractDetector;
+import org.orekit.propagation.events.handlers.ContinueOnEvent;
+import org.orekit.propagation.events.handlers.EventHandler;
+
+import java.util.function.Supplier;
+
+/**
+ * Aborts a propagation after a wall-clock deadline
+ * <p>
+ * Orekit has no cancellation support, so this detector checks the deadline
+ * (and the thread interrupt flag) each time its switching function is
+ * evaluated, i.e. at least once per max check interval of propagated time,
+ * and throws a PropagationTimeoutException once it's passed. The switching
+ * function itself never changes sign, so no events are ever triggered.
+ * <p>
+ * A deadline can also be set for everything a thread runs (see
+ * {@link #callWithDeadline}); pooled propagators get it added
+ * automatically, and loops which don't go through the event detection
+ * can check it with {@link #checkCurrent()}.
+ */
+public class DeadlineDetector extends AbstractDetector<DeadlineDetector> {
+
+    /**
+     * Deadline of the task the current thread is running, if any
+     */
+    private static final ThreadLocal<DeadlineDetector> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Deadline, as a System.nanoTime() value
+     */
+    private final long deadlineNanos;
+
+    /**
+     * Creates a detector with the given deadline
+     *
+     * @param deadlineNanos deadline, as a System.nanoTime() value
+     */
+    public DeadlineDetector(long deadlineNanos) {
+        this(PassFinder.MAX_CHECK, PassFinder.THRESHOLD, DEFAULT_MAX_ITER, new ContinueOnEvent<>(), deadlineNanos);
+    }
+
+    private DeadlineDetector(double maxCheck, double threshold, int maxIter,
+                             EventHandler<? super DeadlineDetector> handler, long deadlineNanos) {
+        super(maxCheck, threshold, maxIter, handler);
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a detector which expires after the given timeout
+     *
+     * @param timeoutMillis timeout, in milliseconds
+     * @return deadline detector
+     */
+    public static DeadlineDetector afterMillis(long timeoutMillis) {
+        return new DeadlineDetector(System.nanoTime() + timeoutMillis * 1_000_000L);
+    }
+
+    /**
+     * Runs a task with a deadline for the current thread
+     *
+     * @param deadlineNanos deadline, as a System.nanoTime() value
+     * @param task          task to run
+     * @param <T>           task result type
+     * @return task result
+     */
+    public static <T> T callWithDeadline(long deadlineNanos, Supplier<T> task) {
+
+        DeadlineDetector previous = CURRENT.get();
+        CURRENT.set(new DeadlineDetector(deadlineNanos));
+
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Returns the deadline of the task the current thread is running
+     *
+     * @return deadline detector, or null if there's no deadline
+     */
+    public static DeadlineDetector current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Checks the deadline of the task the current thread is running, if any
+     */
+    public static void checkCurrent() {
+        DeadlineDetector current = CURRENT.get();
+        if (current != null) {
+            current.check();
+        }
+    }
+
+    @Override
+    protected DeadlineDetector create(double newMaxCheck, double newThreshold, int newMaxIter,
+                                      EventHandler<? super DeadlineDetector> newHandler) {
+        return new DeadlineDetector(newMaxCheck, newThreshold, newMaxIter, newHandler, deadlineNanos);
+    }
+
+    /**
+     * Checks the deadline
+     *
+     * @param s spacecraft state
+     * @return always positive
+     */
+    @Override
+    public double g(SpacecraftState s) {
+        check();
+        return 1.;
+    }
+
+    /**
+     * Throws a PropagationTimeoutException if the deadline has passed or the thread was interrupted
+     */
+    private void check() {
+
+        if (Thread.currentThread().isInterrupted()) {
+            throw new PropagationTimeoutException("Propagation interrupted");
+        }
+
+        if (System.nanoTime() - deadlineNanos > 0) {
+            throw new PropagationTimeoutException("Propagation deadline exceeded");
+        }
+    }
+
+}
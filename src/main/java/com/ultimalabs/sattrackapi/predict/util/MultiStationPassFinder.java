@@ -0,0 +1,253 @@
+package com.ultimalabs.sattrackapi.predict.util;
+
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.hipparchus.analysis.UnivariateFunction;
+import org.hipparchus.analysis.solvers.AllowedSolution;
+import org.hipparchus.analysis.solvers.BracketingNthOrderBrentSolver;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.optim.MaxEval;
+import org.hipparchus.optim.nonlinear.scalar.GoalType;
+import org.hipparchus.optim.univariate.BrentOptimizer;
+import org.hipparchus.optim.univariate.SearchInterval;
+import org.hipparchus.optim.univariate.UnivariateObjectiveFunction;
+import org.hipparchus.util.FastMath;
+import org.orekit.frames.Frame;
+import org.orekit.frames.TopocentricFrame;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pass finder for multiple observers, with a single propagation
+ * <p>
+ * The satellite is propagated once, on a time grid shared by all the
+ * observers, and its position is transformed to the Earth-fixed frame
+ * once per grid point. Elevations are then a dot product per observer,
+ * so the cost grows with the number of observers only by that cheap
+ * geometry, instead of a separate propagation with its own event
+ * detectors (and frame transforms) per observer.
+ * <p>
+ * A grid interval in which the elevation crosses the minimum is refined
+ * to the exact rise or set time with a root solver, and the highest grid
+ * point of a pass to the exact culmination with an optimizer. The grid
+ * step is the smallest event detector max check interval of the
+ * observers, so the passes found are the ones {@link PassFinder} finds
+ * for each observer separately.
+ */
+public class MultiStationPassFinder {
+
+    /**
+     * Maximum number of function evaluations when refining an event
+     */
+    private static final int MAX_EVAL = 100;
+
+    private MultiStationPassFinder() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Finds all the pass windows in a time span, for each observer
+     * <p>
+     * Pass in progress at the search start, and the one in progress at the
+     * search end, are omitted.
+     *
+     * @param propagator     TLE propagator, exclusively owned by the caller
+     * @param tle            TLE object
+     * @param observerFrames observer frames, all on the same body
+     * @param minEls         minimum elevation for visibility event, per observer
+     * @param start          search start date
+     * @param duration       search duration, in seconds
+     * @return pass windows, in chronological order, per observer (in the order of the observer frames)
+     */
+    public static List<List<PassWindow>> findPassWindows(TLEPropagator propagator, TLEPlus tle, List<TopocentricFrame> observerFrames,
+                                                         double[] minEls, AbsoluteDate start, double duration) {
+
+        List<List<PassWindow>> windows = new ArrayList<>(observerFrames.size());
+        List<StationTrack> tracks = new ArrayList<>(observerFrames.size());
+        double step = Double.POSITIVE_INFINITY;
+
+        for (int i = 0; i < observerFrames.size(); i++) {
+            List<PassWindow> stationWindows = new ArrayList<>();
+            windows.add(stationWindows);
+
+            TopocentricFrame observerFrame = observerFrames.get(i);
+            if (VisibilityFilter.isPossiblyVisible(tle, observerFrame.getPoint(), minEls[i])) {
+                tracks.add(new StationTrack(observerFrame, minEls[i], stationWindows));
+                step = FastMath.min(step, VisibilityFilter.maxCheckInterval(tle, minEls[i]));
+            }
+        }
+
+        if (tracks.isEmpty()) {
+            return windows;
+        }
+
+        Frame bodyFrame = observerFrames.get(0).getParentShape().getBodyFrame();
+        int steps = (int) FastMath.ceil(duration / step);
+        step = duration / steps;
+
+        for (int k = 0; k <= steps; k++) {
+
+            // sampling doesn't go through the event detection, so the deadline is checked here
+            DeadlineDetector.checkCurrent();
+
+            double time = k * step;
+            Vector3D position = propagator.getPVCoordinates(start.shiftedBy(time), bodyFrame).getPosition();
+
+            for (StationTrack track : tracks) {
+                track.sample(k, time, position);
+                track.refine(propagator, tle, bodyFrame, start, step);
+            }
+        }
+
+        return windows;
+    }
+
+    /**
+     * Pass search state of a single observer
+     */
+    private static class StationTrack {
+
+        private final TopocentricFrame observerFrame;
+
+        /**
+         * Observer position, in the body frame
+         */
+        private final Vector3D observerPosition;
+
+        /**
+         * Observer zenith, in the body frame
+         */
+        private final Vector3D zenith;
+
+        /**
+         * Minimum elevation, in radians
+         */
+        private final double minElevation;
+
+        /**
+         * Found pass windows
+         */
+        private final List<PassWindow> windows;
+
+        /**
+         * Elevation at the previous grid point, in radians
+         */
+        private double previousElevation = Double.NaN;
+
+        /**
+         * Grid interval containing the rise of the current pass, or -1 if not risen
+         */
+        private int riseStep = -1;
+
+        /**
+         * Grid interval containing the set of the current pass, or -1 if not set yet
+         */
+        private int setStep = -1;
+
+        /**
+         * Highest grid point of the current pass
+         */
+        private double peakTime;
+        private double peakElevation;
+
+        StationTrack(TopocentricFrame observerFrame, double minEl, List<PassWindow> windows) {
+            this.observerFrame = observerFrame;
+            this.observerPosition = observerFrame.getParentShape().transform(observerFrame.getPoint());
+            this.zenith = observerFrame.getZenith();
+            this.minElevation = FastMath.toRadians(minEl);
+            this.windows = windows;
+        }
+
+        /**
+         * Returns the elevation of a position
+         *
+         * @param position position, in the body frame
+         * @return elevation, in radians
+         */
+        double elevation(Vector3D position) {
+            Vector3D line = position.subtract(observerPosition);
+            return FastMath.asin(Vector3D.dotProduct(line, zenith) / line.getNorm());
+        }
+
+        /**
+         * Evaluates a grid point
+         *
+         * @param k        grid point index
+         * @param time     grid point time, in seconds from the search start
+         * @param position satellite position, in the body frame
+         */
+        void sample(int k, double time, Vector3D position) {
+
+            double elevation = elevation(position);
+            boolean above = elevation > minElevation;
+            boolean wasAbove = previousElevation > minElevation;
+
+            if (k > 0 && above && !wasAbove) {
+                riseStep = k;
+                peakElevation = Double.NEGATIVE_INFINITY;
+            } else if (riseStep >= 0 && !above && wasAbove) {
+                setStep = k;
+            }
+
+            if (riseStep >= 0 && above && elevation > peakElevation) {
+                peakElevation = elevation;
+                peakTime = time;
+            }
+
+            previousElevation = elevation;
+        }
+
+        /**
+         * Refines the pass completed on the last grid interval, if any
+         *
+         * @param propagator TLE propagator
+         * @param tle        TLE object
+         * @param bodyFrame  body frame
+         * @param start      search start date
+         * @param step       grid step, in seconds
+         */
+        void refine(TLEPropagator propagator, TLEPlus tle, Frame bodyFrame, AbsoluteDate start, double step) {
+
+            if (setStep < 0) {
+                return;
+            }
+
+            UnivariateFunction elevationAt = t -> elevation(propagator.getPVCoordinates(start.shiftedBy(t), bodyFrame).getPosition());
+            UnivariateFunction aboveMinimum = t -> elevationAt.value(t) - minElevation;
+
+            // solvers keep the evaluation state, so they can't be shared between threads
+            BracketingNthOrderBrentSolver solver = new BracketingNthOrderBrentSolver(1e-14, PassFinder.THRESHOLD, 5);
+            double riseTime = solver.solve(MAX_EVAL, aboveMinimum, (riseStep - 1) * step, riseStep * step, AllowedSolution.ANY_SIDE);
+            double setTime = solver.solve(MAX_EVAL, aboveMinimum, (setStep - 1) * step, setStep * step, AllowedSolution.ANY_SIDE);
+
+            // culmination is within a grid step from the highest grid point
+            double peakStart = FastMath.max(riseTime, peakTime - step);
+            double peakEnd = FastMath.min(setTime, peakTime + step);
+            double culminationTime = new BrentOptimizer(1e-10, PassFinder.THRESHOLD).optimize(
+                    new MaxEval(MAX_EVAL),
+                    new UnivariateObjectiveFunction(t -> elevationAt.value(peakStart + t)),
+                    GoalType.MAXIMIZE,
+                    new SearchInterval(0., peakEnd - peakStart, peakTime - peakStart)).getPoint() + peakStart;
+
+            AbsoluteDate riseDate = start.shiftedBy(riseTime);
+            AbsoluteDate setDate = start.shiftedBy(setTime);
+
+            windows.add(new PassWindow(
+                    tle.getTle(),
+                    riseDate,
+                    setDate,
+                    PredictUtil.getEventDetails(propagator.propagate(riseDate), observerFrame),
+                    PredictUtil.getEventDetails(propagator.propagate(start.shiftedBy(culminationTime)), observerFrame),
+                    PredictUtil.getEventDetails(propagator.propagate(setDate), observerFrame)
+            ));
+
+            riseStep = -1;
+            setStep = -1;
+        }
+
+    }
+
+}
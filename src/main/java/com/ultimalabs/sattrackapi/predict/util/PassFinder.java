@@ -0,0 +1,236 @@
+package com.ultimalabs.sattrackapi.predict.util;
+
+import com.ultimalabs.sattrackapi.predict.model.PassEventDataPoint;
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import lombok.RequiredArgsConstructor;
+import org.hipparchus.util.FastMath;
+import org.orekit.frames.TopocentricFrame;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.propagation.events.ElevationDetector;
+import org.orekit.propagation.events.ElevationExtremumDetector;
+import org.orekit.propagation.events.EventEnablingPredicateFilter;
+import org.orekit.propagation.events.EventsLogger;
+import org.orekit.propagation.events.EventsLogger.LoggedEvent;
+import org.orekit.propagation.events.handlers.ContinueOnEvent;
+import org.orekit.propagation.events.handlers.EventHandler;
+import org.orekit.time.AbsoluteDate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pass finder utility class
+ * <p>
+ * Finds pass windows using the elevation event detectors. Detectors
+ * are added to the given propagator and left there; the caller is
+ * responsible for clearing them.
+ */
+public class PassFinder {
+
+    /**
+     * Default event detector max check interval, in seconds
+     * <p>
+     * Pass detectors use the interval adapted to the orbit, see
+     * {@link VisibilityFilter#maxCheckInterval(TLEPlus, double)}.
+     */
+    public static final double MAX_CHECK = 60.0;
+
+    /**
+     * Event detector convergence threshold, in seconds
+     */
+    public static final double THRESHOLD = 10e-6;
+
+    /**
+     * Next pass search duration, in seconds (72 hours)
+     */
+    public static final double NEXT_PASS_SEARCH_DURATION = 259200.;
+
+    /**
+     * Multiple passes search duration limit, in seconds (10 days)
+     */
+    public static final double MAX_PASSES_SEARCH_DURATION = 864000.;
+
+    private PassFinder() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Finds the next pass window, using the given propagator
+     * <p>
+     * A pass in progress at the search start is skipped; the next pass
+     * after its set is returned instead.
+     *
+     * @param propagator    TLE propagator, exclusively owned by the caller
+     * @param tle           TLE object
+     * @param observerFrame observer frame
+     * @param minEl         minimum elevation for visibility event
+     * @param now           search start date
+     * @return first pass window rising after the search start, or null if there is none in the next 72 hours
+     */
+    public static PassWindow findPassWindow(TLEPropagator propagator, TLEPlus tle, TopocentricFrame observerFrame, double minEl, AbsoluteDate now) {
+
+        List<PassWindow> windows = findPassWindows(propagator, tle, observerFrame, minEl, now, NEXT_PASS_SEARCH_DURATION, 1);
+
+        return windows.isEmpty() ? null : windows.get(0);
+
+    }
+
+    /**
+     * Finds all the pass windows in a time span, using the given propagator
+     * <p>
+     * Pass in progress at the search start, and the one in progress at the
+     * search end, are omitted.
+     *
+     * @param propagator    TLE propagator, exclusively owned by the caller
+     * @param tle           TLE object
+     * @param observerFrame observer frame
+     * @param minEl         minimum elevation for visibility event
+     * @param start         search start date
+     * @param duration      search duration, in seconds
+     * @param maxPasses     propagation stops after this many passes
+     * @return pass windows, in chronological order
+     */
+    public static List<PassWindow> findPassWindows(TLEPropagator propagator, TLEPlus tle, TopocentricFrame observerFrame,
+                                                   double minEl, AbsoluteDate start, double duration, int maxPasses) {
+
+        if (!VisibilityFilter.isPossiblyVisible(tle, observerFrame.getPoint(), minEl)) {
+            return new ArrayList<>();
+        }
+
+        EventsLogger logger = new EventsLogger();
+        propagator.propagate(start);
+
+        addPassDetectors(propagator, logger, tle, observerFrame, minEl, new PassCountHandler(maxPasses));
+
+        propagator.propagate(start.shiftedBy(duration));
+
+        // logged events are in chronological order; each pass is a rise,
+        // one or more elevation extremums and a set
+        List<PassWindow> windows = new ArrayList<>();
+        LoggedEvent riseEvent = null;
+        PassEventDataPoint midPoint = null;
+
+        for (LoggedEvent event : logger.getLoggedEvents()) {
+
+            if (event.getEventDetector() instanceof ElevationDetector) {
+
+                if (event.isIncreasing()) {
+                    riseEvent = event;
+                    midPoint = null;
+                    continue;
+                }
+
+                if (riseEvent != null && midPoint != null) {
+                    windows.add(new PassWindow(
+                            tle.getTle(),
+                            riseEvent.getState().getDate(),
+                            event.getState().getDate(),
+                            PredictUtil.getEventDetails(riseEvent.getState(), observerFrame),
+                            midPoint,
+                            PredictUtil.getEventDetails(event.getState(), observerFrame)
+                    ));
+                }
+
+                riseEvent = null;
+
+            } else if (riseEvent != null) {
+
+                // keep the highest extremum
+                PassEventDataPoint extremum = PredictUtil.getEventDetails(event.getState(), observerFrame);
+                if (midPoint == null || extremum.getEl() > midPoint.getEl()) {
+                    midPoint = extremum;
+                }
+
+            }
+        }
+
+        return windows;
+
+    }
+
+    /**
+     * Adds the visibility and the culmination event detectors to a propagator
+     *
+     * @param propagator    TLE propagator
+     * @param logger        events logger
+     * @param tle           TLE object, used for the max check interval
+     * @param observerFrame observer frame
+     * @param minEl         minimum elevation for visibility event
+     * @param handler       visibility event handler
+     */
+    private static void addPassDetectors(TLEPropagator propagator, EventsLogger logger, TLEPlus tle, TopocentricFrame observerFrame,
+                                         double minEl, EventHandler<? super ElevationDetector> handler) {
+
+        final double elevation = FastMath.toRadians(minEl);
+        final double maxCheck = VisibilityFilter.maxCheckInterval(tle, minEl);
+
+        final ElevationDetector visibilityDetector =
+                new ElevationDetector(maxCheck, THRESHOLD, observerFrame).
+                        withConstantElevation(elevation).
+                        withHandler(handler);
+
+        final ElevationExtremumDetector raw =
+                new ElevationExtremumDetector(maxCheck, THRESHOLD, observerFrame).
+                        withHandler(new ContinueOnEvent<>());
+
+        final EventEnablingPredicateFilter<ElevationExtremumDetector> aboveGroundElevationDetector =
+                new EventEnablingPredicateFilter<>(raw,
+                        (state, eventDetector, g) -> eventDetector.getElevation(state) > elevation).withMaxCheck(maxCheck);
+
+        propagator.addEventDetector(logger.monitorDetector(aboveGroundElevationDetector));
+        propagator.addEventDetector(logger.monitorDetector(visibilityDetector));
+
+    }
+
+    /**
+     * Handler for visibility events, stops after a number of passes
+     * <p>
+     * A set event without the preceding rise event (pass in progress
+     * at the propagation start) is not counted.
+     */
+    @RequiredArgsConstructor
+    private static class PassCountHandler implements EventHandler<ElevationDetector> {
+
+        /**
+         * Number of passes after which the propagation is stopped
+         */
+        private final int maxPasses;
+
+        /**
+         * Whether the satellite is currently above the minimum elevation
+         */
+        private boolean risen = false;
+
+        /**
+         * Number of complete passes so far
+         */
+        private int passes = 0;
+
+        /**
+         * Handle the event
+         *
+         * @param s          SpaceCraft state to be used in the evaluation
+         * @param detector   object with appropriate type that can be used in determining correct return state
+         * @param increasing with the event occurred in an "increasing" or "decreasing" slope direction
+         * @return the Action that the calling detector should pass back to the evaluation system
+         */
+        public Action eventOccurred(final SpacecraftState s, final ElevationDetector detector,
+                                    final boolean increasing) {
+            if (increasing) {
+                risen = true;
+                return Action.CONTINUE;
+            }
+
+            if (risen) {
+                risen = false;
+                passes++;
+            }
+
+            return passes >= maxPasses ? Action.STOP : Action.CONTINUE;
+
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.ultimalabs.sattrackapi.predict.util;
+
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.orekit.time.AbsoluteDate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Precomputed pass windows of a satellite over a station, for a time span
+ * <p>
+ * Rise times are kept in a sorted array, so the passes after a given
+ * date are found with a binary search. Lookups return null when the
+ * answer isn't fully within the timetable span, in which case the
+ * passes have to be computed.
+ */
+public class PassTimetable {
+
+    /**
+     * TLE used for propagation
+     */
+    private final TLEPlus tle;
+
+    /**
+     * Span start
+     */
+    private final AbsoluteDate start;
+
+    /**
+     * Span duration, in seconds
+     */
+    private final double duration;
+
+    /**
+     * Pass windows, in chronological order
+     */
+    private final PassWindow[] windows;
+
+    /**
+     * Rise times, in seconds from the span start
+     */
+    private final double[] riseTimes;
+
+    /**
+     * Creates the timetable
+     *
+     * @param tle      TLE used for propagation
+     * @param start    span start
+     * @param duration span duration, in seconds
+     * @param windows  all the passes that rise and set within the span, in chronological order
+     */
+    public PassTimetable(TLEPlus tle, AbsoluteDate start, double duration, List<PassWindow> windows) {
+        this.tle = tle;
+        this.start = start;
+        this.duration = duration;
+        this.windows = windows.toArray(new PassWindow[0]);
+        this.riseTimes = new double[this.windows.length];
+        for (int i = 0; i < riseTimes.length; i++) {
+            riseTimes[i] = this.windows[i].getRiseDate().durationFrom(start);
+        }
+    }
+
+    /**
+     * Returns the TLE used for propagation
+     *
+     * @return TLE object
+     */
+    public TLEPlus getTle() {
+        return tle;
+    }
+
+    /**
+     * Returns the time left until the span ends
+     *
+     * @param now current date
+     * @return remaining span, in seconds; negative if the span has ended
+     */
+    public double getRemainingSpan(AbsoluteDate now) {
+        return duration - now.durationFrom(start);
+    }
+
+    /**
+     * Returns the next pass
+     *
+     * @param now search start date
+     * @return first pass rising at or after the search start, or null if there's none within the span
+     */
+    public PassWindow getNextPass(AbsoluteDate now) {
+        int first = firstRiseAtOrAfter(now);
+        return first >= 0 && first < windows.length ? windows[first] : null;
+    }
+
+    /**
+     * Returns a number of upcoming passes
+     *
+     * @param now   search start date
+     * @param count number of passes
+     * @return passes rising at or after the search start, or null if there are fewer within the span
+     */
+    public List<PassWindow> getPasses(AbsoluteDate now, int count) {
+
+        int first = firstRiseAtOrAfter(now);
+
+        if (first < 0 || windows.length - first < count) {
+            return null;
+        }
+
+        return new ArrayList<>(Arrays.asList(windows).subList(first, first + count));
+    }
+
+    /**
+     * Returns the passes within a time window
+     *
+     * @param now            time window start
+     * @param windowDuration time window duration, in seconds
+     * @return passes rising at or after the window start and setting before it ends,
+     * or null if the time window isn't within the span
+     */
+    public List<PassWindow> getPassesWithin(AbsoluteDate now, double windowDuration) {
+
+        int first = firstRiseAtOrAfter(now);
+
+        if (first < 0 || now.durationFrom(start) + windowDuration > duration) {
+            return null;
+        }
+
+        AbsoluteDate end = now.shiftedBy(windowDuration);
+        List<PassWindow> passes = new ArrayList<>();
+
+        for (int i = first; i < windows.length && windows[i].getSetDate().compareTo(end) <= 0; i++) {
+            passes.add(windows[i]);
+        }
+
+        return passes;
+    }
+
+    /**
+     * Finds the first pass rising at or after the given date
+     *
+     * @param now date
+     * @return pass index (equal to the number of passes if there's none),
+     * or -1 if the date is outside the span
+     */
+    private int firstRiseAtOrAfter(AbsoluteDate now) {
+
+        double time = now.durationFrom(start);
+
+        if (time < 0 || time > duration) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = riseTimes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (riseTimes[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+}
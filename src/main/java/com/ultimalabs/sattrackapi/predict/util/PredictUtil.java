@@ -1,14 +1,21 @@
 package com.ultimalabs.sattrackapi.predict.util;
 
 import com.ultimalabs.sattrackapi.common.util.DoubleRound;
+import com.ultimalabs.sattrackapi.common.util.TimestampFormat;
 import com.ultimalabs.sattrackapi.predict.model.PassEventDataPoint;
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+import com.ultimalabs.sattrackapi.predict.model.SatellitePass;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.hipparchus.util.FastMath;
 import org.orekit.frames.TopocentricFrame;
 import org.orekit.frames.Transform;
 import org.orekit.propagation.SpacecraftState;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
 import org.orekit.utils.PVCoordinates;
 
+import java.util.List;
+
 /**
  * Predict utility class
  */
@@ -20,6 +27,10 @@ public class PredictUtil {
 
     /**
      * Creates a PassEventDetailsEntry from a spacecraft state and observer frame
+     * <p>
+     * Called once per step, so the state is transformed to the observer
+     * frame only once, and azimuth, elevation, distance and range rate
+     * are all calculated from the transformed coordinates.
      *
      * @param s             spacecraft state
      * @param observerFrame observer frame
@@ -34,22 +45,63 @@ public class PredictUtil {
 
         // get position-velocity in ground station frame
         PVCoordinates pv = transform.transformPVCoordinates(s.getPVCoordinates());
+
+        return getEventDetails(s.getDate(), pv);
+
+    }
+
+    /**
+     * Creates a PassEventDetailsEntry from a TLE propagator state, observer frame and a shared transform
+     * <p>
+     * Same as {@link #getEventDetails(SpacecraftState, TopocentricFrame)},
+     * but the TEME to Earth frame transform, which is the expensive part,
+     * is given, so it can be shared with other requests at the same date.
+     * Only the fixed Earth to observer transform is computed here.
+     *
+     * @param s             spacecraft state, in TEME
+     * @param observerFrame observer frame, on the Earth frame of the transform
+     * @param temeToEarth   transform from TEME to the Earth frame at the state date
+     * @return pass event details
+     */
+    public static PassEventDataPoint getEventDetails(SpacecraftState s, TopocentricFrame observerFrame, Transform temeToEarth) {
+
+        Transform earthToObserver = observerFrame.getParent().getTransformTo(observerFrame, s.getDate());
+        Transform transform = new Transform(s.getDate(), temeToEarth, earthToObserver);
+
+        return getEventDetails(s.getDate(), transform.transformPVCoordinates(s.getPVCoordinates()));
+
+    }
+
+    /**
+     * Creates a PassEventDetailsEntry from position-velocity in observer frame
+     *
+     * @param date date of the data point
+     * @param pv   position-velocity in observer frame
+     * @return pass event details
+     */
+    public static PassEventDataPoint getEventDetails(AbsoluteDate date, PVCoordinates pv) {
+
         Vector3D position = pv.getPosition();
         Vector3D velocity = pv.getVelocity();
 
+        final double x = position.getX();
+        final double y = position.getY();
+        final double z = position.getZ();
+
+        final double distance = FastMath.sqrt(x * x + y * y + z * z);
+
         // extract pointing data
-        double azimuth = FastMath.toDegrees(position.getAlpha() * -1.) + 90;
+        double azimuth = 90. - FastMath.toDegrees(FastMath.atan2(y, x));
 
         if (azimuth < 0.) {
             azimuth += 360.;
         }
 
-        double elevation = FastMath.toDegrees(position.getDelta());
-        double distance = s.getPVCoordinates(observerFrame).getPosition().getNorm();
-        double doppler = position.normalize().dotProduct(velocity);
+        double elevation = FastMath.toDegrees(FastMath.asin(z / distance));
+        double doppler = (x * velocity.getX() + y * velocity.getY() + z * velocity.getZ()) / distance;
 
         return new PassEventDataPoint(
-                s.getDate().toString(),
+                TimestampFormat.format(date),
                 DoubleRound.round(azimuth, 2),
                 DoubleRound.round(elevation, 2),
                 DoubleRound.round(distance, 0),
@@ -58,4 +110,25 @@ public class PredictUtil {
 
     }
 
+    /**
+     * Builds the pass data from a pass window
+     *
+     * @param window      pass window
+     * @param now         current date
+     * @param passDetails pass details
+     * @return pass event data
+     */
+    public static SatellitePass toSatellitePass(PassWindow window, AbsoluteDate now, List<PassEventDataPoint> passDetails) {
+        return new SatellitePass(
+                window.getTle(),
+                TimestampFormat.format(now),
+                DoubleRound.round(window.getRiseDate().offsetFrom(now, TimeScalesFactory.getUTC()), 2),
+                window.getRisePoint(),
+                window.getMidPoint(),
+                window.getSetPoint(),
+                DoubleRound.round(window.getSetDate().offsetFrom(window.getRiseDate(), TimeScalesFactory.getUTC()), 2),
+                passDetails
+        );
+    }
+
 }
@@ -0,0 +1,12 @@
+package com.ultimalabs.sattrackapi.predict.util;
+
+/**
+ * Thrown when a propagation runs past its deadline or its thread is interrupted
+ */
+public class PropagationTimeoutException extends RuntimeException {
+
+    public PropagationTimeoutException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.ultimalabs.sattrackapi.predict.util;
+
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.hipparchus.util.FastMath;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.utils.Constants;
+
+/**
+ * Analytic visibility checks, used before the numerical pass search
+ * <p>
+ * All the checks are based on the mean elements and a spherical Earth,
+ * so they are only used to rule out the impossible cases and to pick
+ * the event detector step; exact pass times still come from propagation.
+ */
+public class VisibilityFilter {
+
+    /**
+     * Safety margin for the latitude check, in radians
+     * <p>
+     * Covers geodetic vs geocentric latitude, Earth flattening
+     * and short-periodic variations of the inclination.
+     */
+    private static final double LATITUDE_MARGIN = FastMath.toRadians(1.);
+
+    /**
+     * Smallest max check interval, in seconds
+     */
+    private static final double MIN_MAX_CHECK = 1.;
+
+    /**
+     * Largest max check interval, in seconds
+     */
+    private static final double MAX_MAX_CHECK = 3600.;
+
+    /**
+     * Orbital period from which on the max check interval is adapted, in
+     * seconds (225 minutes, the SGP4/SDP4 deep-space boundary)
+     */
+    private static final double ADAPTIVE_MIN_PERIOD = 225. * 60.;
+
+    private VisibilityFilter() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Checks whether a satellite can ever rise above the minimum elevation
+     * <p>
+     * The sub-satellite point never goes beyond the latitude equal to the
+     * inclination (or its supplement, for retrograde orbits), and the
+     * satellite is visible only within the Earth central angle given by
+     * its altitude and the minimum elevation. If the observer is further
+     * away from the equator than these two combined, there are no passes.
+     *
+     * @param tle      TLE object
+     * @param observer observer location
+     * @param minEl    minimum elevation, in degrees
+     * @return false if satellite is never visible, true if it might be
+     */
+    public static boolean isPossiblyVisible(TLEPlus tle, GeodeticPoint observer, double minEl) {
+
+        double maxGroundTrackLatitude = FastMath.min(tle.getI(), FastMath.PI - tle.getI());
+        double maxCentralAngle = centralAngle(tle.getApogeeAltitude(), FastMath.toRadians(minEl));
+
+        return FastMath.abs(observer.getLatitude()) <= maxGroundTrackLatitude + maxCentralAngle + LATITUDE_MARGIN;
+    }
+
+    /**
+     * Returns the event detector max check interval for a satellite
+     * <p>
+     * The shortest overhead pass happens at perigee, where the satellite
+     * moves fastest. Its duration is the visibility central angle swept at
+     * the satellite angular rate, increased by the Earth rotation rate as a
+     * worst case. Half of that is used as max check, so the passes that are
+     * at least half as long as an overhead pass are never missed. The
+     * interval is also kept below a quarter of the orbital period, so the
+     * elevation extremums aren't missed either.
+     * <p>
+     * Grazing passes can be arbitrarily short, and any pass shorter than
+     * the max check can be missed. Near-earth satellites therefore never
+     * go above the default interval ({@link PassFinder#MAX_CHECK}), so
+     * every pass at least that long is found; only the deep-space ones,
+     * with passes lasting hours, get a longer interval.
+     *
+     * @param tle   TLE object
+     * @param minEl minimum elevation, in degrees
+     * @return max check interval, in seconds
+     */
+    public static double maxCheckInterval(TLEPlus tle, double minEl) {
+
+        double e = tle.getE();
+        double perigeeRate = tle.getMeanMotion() * (1. + e) * (1. + e) / FastMath.pow(1. - e * e, 1.5);
+        double relativeRate = perigeeRate + Constants.WGS84_EARTH_ANGULAR_VELOCITY;
+
+        double shortestOverheadPass = 2. * centralAngle(tle.getPerigeeAltitude(), FastMath.toRadians(minEl)) / relativeRate;
+        double maxCheck = FastMath.min(shortestOverheadPass / 2., tle.getPeriod() / 4.);
+
+        if (tle.getPeriod() < ADAPTIVE_MIN_PERIOD) {
+            maxCheck = FastMath.min(maxCheck, PassFinder.MAX_CHECK);
+        }
+
+        return FastMath.max(MIN_MAX_CHECK, FastMath.min(MAX_MAX_CHECK, maxCheck));
+    }
+
+    /**
+     * Earth central angle between the sub-satellite point and an observer
+     * seeing the satellite at the given elevation
+     *
+     * @param altitude  satellite altitude, in meters
+     * @param elevation elevation, in radians
+     * @return central angle, in radians; zero if the satellite is below the surface
+     */
+    private static double centralAngle(double altitude, double elevation) {
+
+        if (altitude <= 0.) {
+            return 0.;
+        }
+
+        double ratio = Constants.WGS84_EARTH_EQUATORIAL_RADIUS * FastMath.cos(elevation) /
+                (Constants.WGS84_EARTH_EQUATORIAL_RADIUS + altitude);
+
+        return FastMath.max(0., FastMath.acos(ratio) - elevation);
+    }
+
+}
@@ -1,15 +1,28 @@
 package com.ultimalabs.sattrackapi.tle.controller;
 
+import com.ultimalabs.sattrackapi.tle.model.ElementFilter;
+import com.ultimalabs.sattrackapi.tle.model.SearchResults;
 import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.model.TleExport;
+import com.ultimalabs.sattrackapi.tle.service.TleExportService;
 import com.ultimalabs.sattrackapi.tle.service.TleFetcherService;
+import com.ultimalabs.sattrackapi.tle.service.TleSearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
 /**
@@ -27,6 +40,16 @@ public class TleController {
      */
     private final TleFetcherService tleFetcherService;
 
+    /**
+     * Catalog search service
+     */
+    private final TleSearchService tleSearchService;
+
+    /**
+     * Bulk TLE export service
+     */
+    private final TleExportService tleExportService;
+
     @GetMapping("/{searchString}")
     public String getTleByNumber(
             @Size(min = 5, max = 11, message = "Satellite identifier must be between 5 and 11 characters long")
@@ -34,4 +57,61 @@ public class TleController {
         TLEPlus tle = tleFetcherService.getTle(searchString);
         return tle.getTle();
     }
+
+    @GetMapping("/search")
+    public SearchResults search(
+            @Size(min = 1, max = 24, message = "Search query must be between 1 and 24 characters long")
+            @RequestParam String q,
+            @Pattern(regexp = "name|contains|designator", message = "Search type must be one of: name, contains, designator")
+            @RequestParam(defaultValue = "name") String type,
+            @Min(value = 0, message = "Page number should not be less than 0")
+            @RequestParam(defaultValue = "0") int page,
+            @Min(value = 1, message = "Page size should not be less than 1")
+            @Max(value = 100, message = "Page size should not be greater than 100")
+            @RequestParam(defaultValue = "20") int size) {
+
+        switch (type) {
+            case "contains":
+                return tleSearchService.findByNameSubstring(q, page, size);
+            case "designator":
+                return tleSearchService.findByDesignatorPrefix(q, page, size);
+            default:
+                return tleSearchService.findByNamePrefix(q, page, size);
+        }
+    }
+
+    @GetMapping("/filter")
+    public SearchResults filter(
+            @Valid ElementFilter filter,
+            @Min(value = 0, message = "Page number should not be less than 0")
+            @RequestParam(defaultValue = "0") int page,
+            @Min(value = 1, message = "Page size should not be less than 1")
+            @Max(value = 100, message = "Page size should not be greater than 100")
+            @RequestParam(defaultValue = "20") int size) {
+        return tleSearchService.findByElements(filter, page, size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<byte[]> export(
+            @Pattern(regexp = "3le|json|bin", message = "Export format must be one of: 3le, json, bin")
+            @RequestParam(defaultValue = "3le") String format,
+            @RequestParam(required = false) String group,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        TleExport export = tleExportService.getExport(format, group);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        // conditional requests are answered with 304 by Spring, based on the ETag;
+        // compressed and uncompressed bodies are different representations
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, export.getContentType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .eTag(gzip ? export.getEtag() + "-gzip" : export.getEtag());
+
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(export.getGzippedBody());
+        }
+
+        return response.body(export.getBody());
+    }
 }
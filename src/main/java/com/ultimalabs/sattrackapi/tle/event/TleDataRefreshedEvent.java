@@ -0,0 +1,34 @@
+package com.ultimalabs.sattrackapi.tle.event;
+
+import com.ultimalabs.sattrackapi.tle.model.TleChangeset;
+import com.ultimalabs.sattrackapi.tle.model.TleDataStore;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published after a new TLE data store has been swapped in
+ * <p>
+ * TLE objects which haven't changed are shared between the stores, so
+ * per-satellite caches only need to drop the updated and the removed
+ * satellites.
+ */
+@Getter
+public class TleDataRefreshedEvent extends ApplicationEvent {
+
+    /**
+     * Newly published TLE data store
+     */
+    private final transient TleDataStore tleStore;
+
+    /**
+     * Changes since the previously published store
+     */
+    private final transient TleChangeset changeset;
+
+    public TleDataRefreshedEvent(Object source, TleDataStore tleStore, TleChangeset changeset) {
+        super(source);
+        this.tleStore = tleStore;
+        this.changeset = changeset;
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.ultimalabs.sattrackapi.tle.model;
+
+import lombok.Data;
+
+import javax.validation.constraints.DecimalMin;
+
+/**
+ * Mean orbital element ranges
+ * <p>
+ * Each range is inclusive and unbounded by default, so only the given
+ * bounds are checked. Longitude ranges with the minimum greater than the
+ * maximum wrap around the antimeridian.
+ */
+@Data
+public class ElementFilter {
+
+    /**
+     * Inclination, in degrees
+     */
+    private double minInclination = Double.NEGATIVE_INFINITY;
+    private double maxInclination = Double.POSITIVE_INFINITY;
+
+    /**
+     * Eccentricity
+     */
+    private double minEccentricity = Double.NEGATIVE_INFINITY;
+    private double maxEccentricity = Double.POSITIVE_INFINITY;
+
+    /**
+     * Mean motion, in revolutions per day
+     */
+    private double minMeanMotion = Double.NEGATIVE_INFINITY;
+    private double maxMeanMotion = Double.POSITIVE_INFINITY;
+
+    /**
+     * Orbital period, in minutes
+     */
+    private double minPeriod = Double.NEGATIVE_INFINITY;
+    private double maxPeriod = Double.POSITIVE_INFINITY;
+
+    /**
+     * Right ascension of the ascending node, in degrees (0 - 360)
+     */
+    private double minRaan = Double.NEGATIVE_INFINITY;
+    private double maxRaan = Double.POSITIVE_INFINITY;
+
+    /**
+     * Apogee altitude, in kilometers
+     */
+    private double minApogee = Double.NEGATIVE_INFINITY;
+    private double maxApogee = Double.POSITIVE_INFINITY;
+
+    /**
+     * Perigee altitude, in kilometers
+     */
+    private double minPerigee = Double.NEGATIVE_INFINITY;
+    private double maxPerigee = Double.POSITIVE_INFINITY;
+
+    /**
+     * Mean longitude at the TLE epoch, in degrees (-180 - 180)
+     * <p>
+     * Meaningful for geosynchronous orbits only, where it's the
+     * longitude slot of the satellite.
+     */
+    private double minLongitude = Double.NEGATIVE_INFINITY;
+    private double maxLongitude = Double.POSITIVE_INFINITY;
+
+    /**
+     * Maximum TLE age, in days
+     */
+    @DecimalMin(value = "0", message = "TLE age should not be less than 0")
+    private double maxEpochAge = Double.POSITIVE_INFINITY;
+
+    /**
+     * Checks whether any bounds are given
+     *
+     * @return true if all the ranges are unbounded
+     */
+    public boolean isUnbounded() {
+        return isUnbounded(minInclination, maxInclination) && isUnbounded(minEccentricity, maxEccentricity) &&
+                isUnbounded(minMeanMotion, maxMeanMotion) && isUnbounded(minPeriod, maxPeriod) &&
+                isUnbounded(minRaan, maxRaan) && isUnbounded(minApogee, maxApogee) &&
+                isUnbounded(minPerigee, maxPerigee) && isUnbounded(minLongitude, maxLongitude) &&
+                maxEpochAge == Double.POSITIVE_INFINITY;
+    }
+
+    private static boolean isUnbounded(double min, double max) {
+        return min == Double.NEGATIVE_INFINITY && max == Double.POSITIVE_INFINITY;
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.ultimalabs.sattrackapi.tle.model;
+
+import lombok.Data;
+
+/**
+ * Satellite identifiers and name, as a catalog search result
+ */
+@Data
+public class SatelliteSummary {
+
+    /**
+     * Satellite Catalog Number
+     */
+    private final int id;
+
+    /**
+     * International Designator, shorter variant
+     */
+    private final String designator;
+
+    /**
+     * Satellite name; empty if the TLE has no name
+     */
+    private final String name;
+
+    /**
+     * Creates a summary of a TLE
+     *
+     * @param tle TLE object
+     * @return satellite summary
+     */
+    public static SatelliteSummary of(TLEPlus tle) {
+        return new SatelliteSummary(tle.getSatelliteNumber(), tle.getInternationalDesignator(), tle.getName());
+    }
+
+}
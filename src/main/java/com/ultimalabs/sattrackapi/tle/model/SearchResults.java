@@ -0,0 +1,33 @@
+package com.ultimalabs.sattrackapi.tle.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A page of catalog search results
+ */
+@Data
+public class SearchResults {
+
+    /**
+     * Total number of matching satellites
+     */
+    private final int total;
+
+    /**
+     * Page number, starting from zero
+     */
+    private final int page;
+
+    /**
+     * Maximum number of results per page
+     */
+    private final int size;
+
+    /**
+     * Matching satellites on this page
+     */
+    private final List<SatelliteSummary> results;
+
+}
@@ -1,8 +1,10 @@
 package com.ultimalabs.sattrackapi.tle.model;
 
+import org.hipparchus.util.FastMath;
 import org.orekit.errors.OrekitException;
 import org.orekit.errors.OrekitMessages;
 import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.utils.Constants;
 
 import java.util.Objects;
 
@@ -10,7 +12,7 @@ import java.util.Objects;
  * Extended TLE
  * <p>
  * Added satellite name, TLE lines validation, international
- * designator and raw TLE data getters.
+ * designator, derived orbit geometry and raw TLE data getters.
  */
 public class TLEPlus extends TLE {
 
@@ -65,6 +67,42 @@ public class TLEPlus extends TLE {
         return text.length() >= 3;
     }
 
+    /**
+     * Returns mean semi-major axis, derived from the mean motion
+     *
+     * @return semi-major axis, in meters
+     */
+    public double getSemiMajorAxis() {
+        return FastMath.cbrt(Constants.WGS84_EARTH_MU / (getMeanMotion() * getMeanMotion()));
+    }
+
+    /**
+     * Returns apogee altitude above the equatorial radius
+     *
+     * @return apogee altitude, in meters
+     */
+    public double getApogeeAltitude() {
+        return getSemiMajorAxis() * (1. + getE()) - Constants.WGS84_EARTH_EQUATORIAL_RADIUS;
+    }
+
+    /**
+     * Returns perigee altitude above the equatorial radius
+     *
+     * @return perigee altitude, in meters
+     */
+    public double getPerigeeAltitude() {
+        return getSemiMajorAxis() * (1. - getE()) - Constants.WGS84_EARTH_EQUATORIAL_RADIUS;
+    }
+
+    /**
+     * Returns orbital period
+     *
+     * @return orbital period, in seconds
+     */
+    public double getPeriod() {
+        return 2. * FastMath.PI / getMeanMotion();
+    }
+
     /**
      * Returns international designator
      * <p>
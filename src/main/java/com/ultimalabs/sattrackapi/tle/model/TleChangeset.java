@@ -0,0 +1,37 @@
+package com.ultimalabs.sattrackapi.tle.model;
+
+import lombok.Data;
+
+import java.util.Set;
+
+/**
+ * Satellites whose TLE changed between two TLE data stores
+ */
+@Data
+public class TleChangeset {
+
+    /**
+     * Satellite Catalog Numbers which weren't in the previous store
+     */
+    private final Set<Integer> added;
+
+    /**
+     * Satellite Catalog Numbers with a new TLE
+     */
+    private final Set<Integer> updated;
+
+    /**
+     * Satellite Catalog Numbers which aren't in the new store
+     */
+    private final Set<Integer> removed;
+
+    /**
+     * Whether no TLE has changed
+     *
+     * @return true if there are no changes
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && updated.isEmpty() && removed.isEmpty();
+    }
+
+}
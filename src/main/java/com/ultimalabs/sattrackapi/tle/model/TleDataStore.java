@@ -1,23 +1,72 @@
 package com.ultimalabs.sattrackapi.tle.model;
 
+import com.ultimalabs.sattrackapi.tle.util.CatalogIndex;
+import com.ultimalabs.sattrackapi.tle.util.CatalogSearchIndex;
+import com.ultimalabs.sattrackapi.tle.util.ElementIndex;
 import lombok.Data;
+import lombok.With;
 
+import java.util.List;
 import java.util.Map;
 
 /**
- * Data store for TLE HashMaps
+ * Data store for TLE objects
+ * <p>
+ * A store is an immutable snapshot: the index and the maps are read-only
+ * and are never changed after the store is built. Each refresh publishes
+ * a new store, with a higher version number.
  */
 @Data
 public class TleDataStore {
 
+    /**
+     * TLE objects, indexed by Satellite Catalog Number and International Designator
+     */
+    private final CatalogIndex catalogIndex;
+
+    /**
+     * Satellite names and International Designators, indexed for searching
+     */
+    private final CatalogSearchIndex searchIndex;
+
+    /**
+     * Mean orbital elements, indexed for range queries
+     */
+    private final ElementIndex elementIndex;
+
+    /**
+     * Satellite Catalog Numbers, grouped by TLE source name
+     */
+    private final Map<String, List<Integer>> satelliteIdsByGroup;
+
+    /**
+     * Version number, incremented with each published store;
+     * zero if the store hasn't been published
+     */
+    @With
+    private final long version;
+
     /**
      * Map of TLE objects, indexed by Satellite Catalog Number
+     * <p>
+     * This is a read-only view of the catalog index; lookups through
+     * {@link CatalogIndex#getBySatelliteId(int)} avoid boxing.
+     *
+     * @return map view
      */
-    private final Map<Integer, TLEPlus> tleMapBySatelliteId;
+    public Map<Integer, TLEPlus> getTleMapBySatelliteId() {
+        return catalogIndex.asSatelliteIdMap();
+    }
 
     /**
      * Map of TLE objects, indexed by International Designator
+     * <p>
+     * This is a read-only view of the catalog index.
+     *
+     * @return map view
      */
-    private final Map<String, TLEPlus> tleMapByInternationalDesignator;
+    public Map<String, TLEPlus> getTleMapByInternationalDesignator() {
+        return catalogIndex.asInternationalDesignatorMap();
+    }
 
 }
@@ -0,0 +1,34 @@
+package com.ultimalabs.sattrackapi.tle.model;
+
+import lombok.Data;
+
+/**
+ * Serialized TLE data, ready to be sent as is
+ * <p>
+ * Built once per TLE data store and export format, and shared by all
+ * the requests for it, so the arrays must never be modified.
+ */
+@Data
+public class TleExport {
+
+    /**
+     * Media type of the body
+     */
+    private final String contentType;
+
+    /**
+     * Serialized TLEs
+     */
+    private final byte[] body;
+
+    /**
+     * Serialized TLEs, gzip compressed
+     */
+    private final byte[] gzippedBody;
+
+    /**
+     * Entity tag of the body, without quotes
+     */
+    private final String etag;
+
+}
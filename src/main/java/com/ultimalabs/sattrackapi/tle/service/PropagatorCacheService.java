@@ -0,0 +1,12 @@
+package com.ultimalabs.sattrackapi.tle.service;
+
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+
+import java.util.function.Function;
+
+public interface PropagatorCacheService {
+
+    <T> T withPropagator(TLEPlus tle, Function<TLEPropagator, T> task);
+
+}
@@ -0,0 +1,201 @@
+package com.ultimalabs.sattrackapi.tle.service;
+
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.predict.util.DeadlineDetector;
+import com.ultimalabs.sattrackapi.tle.event.TleDataRefreshedEvent;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.model.TleChangeset;
+import com.ultimalabs.sattrackapi.tle.util.PropagatorPool;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Propagator cache
+ * <p>
+ * Keeps a pool of initialized TLE propagators for each satellite, so
+ * SGP4/SDP4 initialization is done once per TLE instead of once per
+ * request. When a new TLE data store is published, only the pools of the
+ * updated and the removed satellites are dropped.
+ */
+@Slf4j
+@Service
+public class PropagatorCacheServiceImpl implements PropagatorCacheService {
+
+    /**
+     * Config object
+     */
+    private final SatTrackConfig config;
+
+    /**
+     * Propagator pools, indexed by Satellite Catalog Number
+     */
+    private final ConcurrentMap<Integer, PropagatorPool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * Number of requests served by a pooled propagator
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Number of requests which had to build a new propagator
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Number of propagator pools dropped because of a TLE refresh
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    public PropagatorCacheServiceImpl(SatTrackConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+
+        FunctionCounter.builder("sattrack.propagator.cache.hits", hits, LongAdder::sum)
+                .description("Requests served by a pooled propagator")
+                .register(meterRegistry);
+        FunctionCounter.builder("sattrack.propagator.cache.misses", misses, LongAdder::sum)
+                .description("Requests which had to build a new propagator")
+                .register(meterRegistry);
+        FunctionCounter.builder("sattrack.propagator.cache.evictions", evictions, LongAdder::sum)
+                .description("Propagator pools dropped because of a TLE refresh")
+                .register(meterRegistry);
+        Gauge.builder("sattrack.propagator.cache.size", this, s -> s.pools.size())
+                .description("Number of satellites with a propagator pool")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a task with a propagator for the given TLE
+     * <p>
+     * The propagator is exclusively owned by the task until it returns,
+     * after which it is reset and returned to the pool. Tasks must not
+     * keep a reference to the propagator. If the current thread runs
+     * with a deadline, it's added to the propagator's event detectors.
+     *
+     * @param tle  TLE object
+     * @param task task using the propagator
+     * @param <T>  task result type
+     * @return task result
+     */
+    @Override
+    public <T> T withPropagator(TLEPlus tle, Function<TLEPropagator, T> task) {
+
+        PropagatorPool pool = getPool(tle);
+        TLEPropagator propagator = pool.poll();
+
+        if (propagator == null) {
+            misses.increment();
+            propagator = pool.create();
+        } else {
+            hits.increment();
+        }
+
+        DeadlineDetector deadline = DeadlineDetector.current();
+        if (deadline != null) {
+            propagator.addEventDetector(deadline);
+        }
+
+        try {
+            return task.apply(propagator);
+        } finally {
+            pool.offer(propagator);
+        }
+    }
+
+    /**
+     * Drops the propagator pools of the changed satellites after a TLE refresh
+     * <p>
+     * The startup TLE load is published before this listener is
+     * registered; that's harmless, since there are no pools yet, and a
+     * pool built for an older TLE is replaced on the next request anyway.
+     *
+     * @param event TLE refresh event
+     */
+    @EventListener
+    public void onTleDataRefreshed(TleDataRefreshedEvent event) {
+
+        TleChangeset changeset = event.getChangeset();
+        int evicted = 0;
+
+        for (Integer satelliteId : changeset.getUpdated()) {
+            if (pools.remove(satelliteId) != null) {
+                evicted++;
+            }
+        }
+
+        for (Integer satelliteId : changeset.getRemoved()) {
+            if (pools.remove(satelliteId) != null) {
+                evicted++;
+            }
+        }
+
+        evictions.add(evicted);
+        log.info("Propagator cache updated, " + evicted + " pools evicted");
+    }
+
+    /**
+     * Returns number of requests served by a pooled propagator
+     *
+     * @return number of cache hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns number of requests which had to build a new propagator
+     *
+     * @return number of cache misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns number of evicted propagator pools
+     *
+     * @return number of evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the pool for the given TLE
+     * <p>
+     * A pool built for a different TLE of the same satellite (i.e. a
+     * request that raced with a refresh) is replaced if the requested
+     * TLE is newer. Requests holding an older TLE get a throwaway pool.
+     *
+     * @param tle TLE object
+     * @return propagator pool
+     */
+    private PropagatorPool getPool(TLEPlus tle) {
+
+        PropagatorPool pool = pools.computeIfAbsent(tle.getSatelliteNumber(),
+                k -> new PropagatorPool(tle, config.getPropagatorPoolSize()));
+
+        if (pool.getTle() == tle) {
+            return pool;
+        }
+
+        PropagatorPool newPool = new PropagatorPool(tle, config.getPropagatorPoolSize());
+
+        if (tle.getDate().compareTo(pool.getTle().getDate()) >= 0
+                && pools.replace(tle.getSatelliteNumber(), pool, newPool)) {
+            evictions.increment();
+        }
+
+        return newPool;
+    }
+
+}
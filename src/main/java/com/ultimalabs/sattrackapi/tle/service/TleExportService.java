@@ -0,0 +1,9 @@
+package com.ultimalabs.sattrackapi.tle.service;
+
+import com.ultimalabs.sattrackapi.tle.model.TleExport;
+
+public interface TleExportService {
+
+    TleExport getExport(String format, String group);
+
+}
@@ -0,0 +1,172 @@
+package com.ultimalabs.sattrackapi.tle.service;
+
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.model.TleDataStore;
+import com.ultimalabs.sattrackapi.tle.model.TleExport;
+import com.ultimalabs.sattrackapi.tle.util.TleExportWriter;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bulk TLE export
+ * <p>
+ * Each export (format and group) is serialized once per TLE data store,
+ * on the first request, and then served from memory until a new store
+ * is published. Exports of an older store are dropped as soon as a
+ * request sees the new one.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class TleExportServiceImpl implements TleExportService {
+
+    /**
+     * 3LE text format
+     */
+    public static final String FORMAT_3LE = "3le";
+
+    /**
+     * JSON format, with the OMM keywords
+     */
+    public static final String FORMAT_JSON = "json";
+
+    /**
+     * Compact binary format
+     */
+    public static final String FORMAT_BINARY = "bin";
+
+    /**
+     * TLE fetcher service
+     */
+    private final TleFetcherService tleFetcherService;
+
+    /**
+     * Exports of the most recently seen store
+     */
+    private final AtomicReference<StoreExports> exports = new AtomicReference<>();
+
+    /**
+     * Returns the serialized TLEs of the current store
+     *
+     * @param format export format: "3le", "json" or "bin"
+     * @param group  TLE source group name, or null for all the TLEs
+     * @return serialized TLEs
+     */
+    @Override
+    public TleExport getExport(String format, String group) {
+
+        TleDataStore store = tleFetcherService.getTleDataStore();
+
+        if (store == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "TLE data isn't loaded yet.");
+        }
+
+        Collection<TLEPlus> tles = getTles(store, group);
+
+        if (tles == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No TLE group matching the given name was found.");
+        }
+
+        StoreExports storeExports = exports.updateAndGet(current ->
+                current != null && current.getStore() == store ? current : new StoreExports(store));
+
+        return storeExports.getExports().computeIfAbsent(format + ":" + (group == null ? "" : group),
+                key -> serialize(format, tles));
+    }
+
+    /**
+     * Returns the TLEs to export
+     *
+     * @param store TLE data store
+     * @param group TLE source group name, or null for all the TLEs
+     * @return TLE objects, or null if group was not found
+     */
+    private static Collection<TLEPlus> getTles(TleDataStore store, String group) {
+
+        if (group == null) {
+            return store.getCatalogIndex().getTles();
+        }
+
+        List<Integer> satelliteIds = store.getSatelliteIdsByGroup().get(group);
+        if (satelliteIds == null) {
+            return null;
+        }
+
+        List<TLEPlus> tles = new ArrayList<>(satelliteIds.size());
+        for (Integer satelliteId : satelliteIds) {
+            tles.add(store.getCatalogIndex().getBySatelliteId(satelliteId));
+        }
+        return tles;
+    }
+
+    /**
+     * Serializes the TLEs
+     *
+     * @param format export format
+     * @param tles   TLE objects
+     * @return serialized TLEs
+     */
+    private static TleExport serialize(String format, Collection<TLEPlus> tles) {
+
+        long start = System.nanoTime();
+        String contentType;
+        byte[] body;
+
+        switch (format) {
+            case FORMAT_JSON:
+                contentType = MediaType.APPLICATION_JSON_VALUE;
+                body = TleExportWriter.writeJson(tles);
+                break;
+            case FORMAT_BINARY:
+                contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
+                body = TleExportWriter.writeBinary(tles);
+                break;
+            case FORMAT_3LE:
+                contentType = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8";
+                body = TleExportWriter.write3le(tles);
+                break;
+            default:
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export format.");
+        }
+
+        TleExport export = new TleExport(contentType, body, TleExportWriter.gzip(body), DigestUtils.md5DigestAsHex(body));
+
+        log.debug("Exported " + tles.size() + " TLEs as " + format + " (" + body.length + " bytes, " +
+                export.getGzippedBody().length + " gzipped) in " + (System.nanoTime() - start) / 1000000 + " ms");
+
+        return export;
+    }
+
+    /**
+     * Exports of a single TLE data store
+     */
+    @RequiredArgsConstructor
+    @Getter
+    private static class StoreExports {
+
+        /**
+         * TLE data store
+         */
+        private final TleDataStore store;
+
+        /**
+         * Exports, keyed by format and group
+         */
+        private final ConcurrentMap<String, TleExport> exports = new ConcurrentHashMap<>();
+
+    }
+
+}
@@ -1,6 +1,9 @@
 package com.ultimalabs.sattrackapi.tle.service;
 
 import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.model.TleDataStore;
+
+import java.util.Collection;
 
 public interface TleFetcherService {
 
@@ -10,4 +13,10 @@ public interface TleFetcherService {
 
     TLEPlus getTleByInternationalDesignator(String designator);
 
+    Collection<TLEPlus> getAllTles();
+
+    Collection<TLEPlus> getTlesByGroup(String group);
+
+    TleDataStore getTleDataStore();
+
 }
@@ -1,14 +1,27 @@
 package com.ultimalabs.sattrackapi.tle.service;
 
+import com.ultimalabs.sattrackapi.common.config.ExecutorConfig;
 import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.common.model.UrlData;
 import com.ultimalabs.sattrackapi.common.util.UrlDataReader;
+import com.ultimalabs.sattrackapi.tle.event.TleDataRefreshedEvent;
 import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.model.TleChangeset;
 import com.ultimalabs.sattrackapi.tle.model.TleDataStore;
 import com.ultimalabs.sattrackapi.tle.util.TleDataStoreBuilder;
+import com.ultimalabs.sattrackapi.tle.util.TleSourceCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.orekit.data.DataProvidersManager;
 import org.orekit.data.DirectoryCrawler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -17,26 +30,113 @@ import org.springframework.web.server.ResponseStatusException;
 import javax.annotation.PostConstruct;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Fetches TLE data
  */
 @Slf4j
-@RequiredArgsConstructor
 @Service
 public class TleFetcherServiceImpl implements TleFetcherService {
 
     /**
-     * Store of TLE objects
+     * Minimum number of lines parsed by a single task
      */
-    private TleDataStore tleStore;
+    private static final int MIN_PARSE_CHUNK_LINES = 3000;
+
+    /**
+     * Store of TLE objects, the latest published snapshot
+     * <p>
+     * Readers take the current snapshot once and use it for all their
+     * lookups, without locking; a refresh swaps in a new snapshot.
+     */
+    private final AtomicReference<TleDataStore> tleStore = new AtomicReference<>();
+
+    /**
+     * Last successfully parsed data of each TLE source, indexed by source URL
+     */
+    private final Map<String, SourceData> sourceData = new HashMap<>();
 
     /**
      * Config object
      */
     private final SatTrackConfig config;
 
+    /**
+     * On-disk cache of the TLE sources
+     */
+    private final TleSourceCache sourceCache;
+
+    /**
+     * Event publisher, used to announce TLE refreshes
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Executor for the TLE downloads
+     */
+    private final ExecutorService fetchExecutor;
+
+    /**
+     * Executor for the TLE parsing
+     */
+    private final ExecutorService parseExecutor;
+
+    /**
+     * Executor for the initial TLE refresh
+     */
+    private final ExecutorService refreshExecutor;
+
+    /**
+     * Whether the TLE sources still have to be checked after a startup from the cached TLE data
+     */
+    private volatile boolean initialRefreshPending = false;
+
+    /**
+     * Refresh stage timers
+     */
+    private final Timer fetchTimer;
+    private final Timer parseTimer;
+    private final Timer indexTimer;
+    private final Timer refreshTimer;
+
+    public TleFetcherServiceImpl(SatTrackConfig config,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Qualifier("tleFetchExecutor") ExecutorService fetchExecutor,
+                                 @Qualifier("tleParseExecutor") ExecutorService parseExecutor,
+                                 @Qualifier("tleRefreshExecutor") ExecutorService refreshExecutor,
+                                 MeterRegistry meterRegistry) {
+        this.config = config;
+        this.sourceCache = new TleSourceCache(config.getTleCacheFolder());
+        this.eventPublisher = eventPublisher;
+        this.fetchExecutor = fetchExecutor;
+        this.parseExecutor = parseExecutor;
+        this.refreshExecutor = refreshExecutor;
+        this.fetchTimer = stageTimer("fetch", meterRegistry);
+        this.parseTimer = stageTimer("parse", meterRegistry);
+        this.indexTimer = stageTimer("index", meterRegistry);
+        this.refreshTimer = stageTimer("total", meterRegistry);
+
+        Gauge.builder("sattrack.tle.version", this, s -> {
+                    TleDataStore currentStore = s.tleStore.get();
+                    return currentStore != null ? currentStore.getVersion() : 0;
+                })
+                .description("Version of the published TLE data store")
+                .register(meterRegistry);
+    }
+
     /**
      * Search for TLE
      * <p>
@@ -51,11 +151,12 @@ public class TleFetcherServiceImpl implements TleFetcherService {
     @Override
     public TLEPlus getTle(String searchString) {
 
+        TleDataStore currentStore = tleStore.get();
         TLEPlus foundTle = null;
 
         // Satellite Number
         if (TleFetcherServiceImpl.isInteger(searchString)) {
-            foundTle = getTleBySatelliteId(Integer.parseInt(searchString));
+            foundTle = getTleBySatelliteId(currentStore, Integer.parseInt(searchString));
         }
 
         // International Designator
@@ -64,10 +165,10 @@ public class TleFetcherServiceImpl implements TleFetcherService {
             // longer International Designator variant, maybe
             if (searchString.charAt(4) == '-') {
                 String shortDesignator = searchString.substring(2, 4) + searchString.substring(5);
-                foundTle = getTleByInternationalDesignator(shortDesignator);
+                foundTle = getTleByInternationalDesignator(currentStore, shortDesignator);
             } else {
                 // shorter International Designator variant
-                foundTle = getTleByInternationalDesignator(searchString);
+                foundTle = getTleByInternationalDesignator(currentStore, searchString);
             }
         }
 
@@ -89,10 +190,7 @@ public class TleFetcherServiceImpl implements TleFetcherService {
      */
     @Override
     public TLEPlus getTleBySatelliteId(int id) {
-        if (tleStore == null) {
-            return null;
-        }
-        return tleStore.getTleMapBySatelliteId().get(id);
+        return getTleBySatelliteId(tleStore.get(), id);
     }
 
     /**
@@ -103,52 +201,391 @@ public class TleFetcherServiceImpl implements TleFetcherService {
      */
     @Override
     public TLEPlus getTleByInternationalDesignator(String designator) {
-        if (tleStore == null) {
+        return getTleByInternationalDesignator(tleStore.get(), designator);
+    }
+
+    /**
+     * Get all the TLEs
+     *
+     * @return all TLEs, or an empty collection if TLE data isn't loaded
+     */
+    @Override
+    public Collection<TLEPlus> getAllTles() {
+        TleDataStore currentStore = tleStore.get();
+        if (currentStore == null) {
+            return Collections.emptyList();
+        }
+        return currentStore.getCatalogIndex().getTles();
+    }
+
+    /**
+     * Get the TLEs from a single source group
+     * <p>
+     * Group name is the TLE source file name without the extension,
+     * e.g. "weather" for ".../weather.txt".
+     *
+     * @param group source group name
+     * @return group TLEs or null if group was not found
+     */
+    @Override
+    public Collection<TLEPlus> getTlesByGroup(String group) {
+        TleDataStore currentStore = tleStore.get();
+        if (currentStore == null) {
             return null;
         }
-        return tleStore.getTleMapByInternationalDesignator().get(designator);
+
+        List<Integer> satelliteIds = currentStore.getSatelliteIdsByGroup().get(group);
+        if (satelliteIds == null) {
+            return null;
+        }
+
+        List<TLEPlus> tles = new ArrayList<>(satelliteIds.size());
+        for (Integer satelliteId : satelliteIds) {
+            tles.add(currentStore.getCatalogIndex().getBySatelliteId(satelliteId));
+        }
+        return tles;
+    }
+
+    /**
+     * Get the current TLE data store
+     * <p>
+     * The store is an immutable snapshot, so all the lookups made on it
+     * are consistent with each other, even if TLE data is refreshed in
+     * the meantime.
+     *
+     * @return current TLE data store, or null if TLE data isn't loaded
+     */
+    @Override
+    public TleDataStore getTleDataStore() {
+        return tleStore.get();
     }
 
     /**
      * Orekit initialization and intial TLE data fetch
      * <p>
+     * If there is cached TLE data on disk, it is loaded right away and the
+     * TLE sources are checked for changes in the background, once the
+     * application is ready (see {@link #onApplicationReady()}). Otherwise,
+     * startup waits for the TLE sources to be downloaded.
+     * <p>
      * For Orekit initialization part, see:
      * https://www.orekit.org/forge/projects/orekit/wiki/Configuration
      */
     @PostConstruct
     private void init() {
 
-        tleStore = null;
-
         File orekitData = new File(config.getOrekitDataFolder());
         DataProvidersManager manager = DataProvidersManager.getInstance();
         manager.addProvider(new DirectoryCrawler(orekitData));
 
-        refreshTleData();
+        if (loadCachedTleData()) {
+            initialRefreshPending = true;
+        } else {
+            refreshTleData();
+        }
+    }
+
+    /**
+     * Checks the TLE sources for changes after a startup from the cached TLE data
+     * <p>
+     * Runs once the application is ready, so the refresh event reaches
+     * all the listeners, on an executor which is shut down with the
+     * application context.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (initialRefreshPending) {
+            initialRefreshPending = false;
+            refreshExecutor.execute(this::refreshTleData);
+        }
+    }
+
+    /**
+     * Loads TLE data from the on-disk cache
+     * <p>
+     * Sources which aren't cached are left out until the next refresh.
+     *
+     * @return true if any cached TLE data was loaded
+     */
+    private synchronized boolean loadCachedTleData() {
+
+        if (!sourceCache.isEnabled()) {
+            return false;
+        }
+
+        final long start = System.nanoTime();
+        Map<String, List<TLEPlus>> parsedTles = new LinkedHashMap<>();
+
+        for (String tleUrl : config.getTleUrls()) {
+
+            UrlData data = sourceCache.load(tleUrl);
+
+            if (data == null || data.getLines().isEmpty()) {
+                continue;
+            }
+
+            List<TLEPlus> tles = TleDataStoreBuilder.parseTles(data.getLines(), 0, data.getLines().size());
+            sourceData.put(tleUrl, new SourceData(data, tles));
+            parsedTles.computeIfAbsent(getGroupName(tleUrl), k -> new ArrayList<>()).addAll(tles);
+        }
+
+        if (parsedTles.isEmpty()) {
+            return false;
+        }
+
+        publish(TleDataStoreBuilder.buildFromParsedTles(parsedTles));
+        log.info("Cached TLE data loaded in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+
+        return true;
     }
 
     /**
      * Initializes or refreshes TLE data
+     * <p>
+     * All the sources are downloaded concurrently. Each source is parsed as
+     * soon as it arrives, split into chunks which are parsed in parallel,
+     * while the other sources are still downloading. If any of the sources
+     * fails, the refresh is canceled and the current data is kept.
+     * <p>
+     * Sources are requested conditionally; the ones which haven't changed
+     * since the last refresh aren't parsed again, and if none of them has
+     * changed, the current data is kept. In the changed sources, TLEs which
+     * are the same as in the current data are reused instead of being parsed
+     * again.
      */
     @Scheduled(cron = "${sattrack.tleUpdateCron}")
-    private void refreshTleData() {
+    private synchronized void refreshTleData() {
 
-        List<String> tleTextData = new ArrayList<>();
+        final long refreshStart = System.nanoTime();
 
-        for (String tleUrl : config.getTleUrls()) {
+        List<String> tleUrls = config.getTleUrls();
+        List<CompletableFuture<SourceData>> sources = new ArrayList<>(tleUrls.size());
+        TleDataStore currentStore = tleStore.get();
+        Map<Integer, TLEPlus> currentTles = currentStore != null ? currentStore.getTleMapBySatelliteId() : null;
 
-            List<String> tleStrings = UrlDataReader.readStringDataFromUrl(tleUrl);
+        for (String tleUrl : tleUrls) {
+            SourceData previous = sourceData.get(tleUrl);
+            sources.add(CompletableFuture
+                    .supplyAsync(() -> fetch(tleUrl, previous != null ? previous.getData() : null), fetchExecutor)
+                    .thenCompose(data -> parse(data, previous, currentTles)));
+        }
 
-            if (tleStrings.isEmpty()) {
-                log.error("There was an error fetching TLE data from " + tleUrl + ". TLE data refresh canceled.");
-                return;
+        Map<String, SourceData> refreshedSources = new HashMap<>();
+        Map<String, List<TLEPlus>> parsedTles = new LinkedHashMap<>();
+        boolean changed = currentStore == null;
+
+        try {
+            for (int i = 0; i < tleUrls.size(); i++) {
+
+                String tleUrl = tleUrls.get(i);
+                SourceData source = sources.get(i).join();
+
+                if (source == null) {
+                    log.error("There was an error fetching TLE data from " + tleUrl + ". TLE data refresh canceled.");
+                    return;
+                }
+
+                if (source != sourceData.get(tleUrl)) {
+                    changed = true;
+                }
+
+                refreshedSources.put(tleUrl, source);
+                parsedTles.computeIfAbsent(getGroupName(tleUrl), k -> new ArrayList<>()).addAll(source.getTles());
+            }
+        } catch (CompletionException | CancellationException e) {
+            log.error("There was an error parsing TLE data: " + e.getCause() + ". TLE data refresh canceled.");
+            return;
+        } finally {
+            for (CompletableFuture<SourceData> source : sources) {
+                source.cancel(true);
+            }
+        }
+
+        if (!changed) {
+            refreshTimer.record(System.nanoTime() - refreshStart, TimeUnit.NANOSECONDS);
+            log.info("TLE data hasn't changed since the last refresh");
+            return;
+        }
+
+        for (Map.Entry<String, SourceData> source : refreshedSources.entrySet()) {
+            if (source.getValue() != sourceData.get(source.getKey())) {
+                sourceCache.store(source.getKey(), source.getValue().getData());
+            }
+        }
+        sourceData.clear();
+        sourceData.putAll(refreshedSources);
+
+        final long indexStart = System.nanoTime();
+        TleDataStore newStore = TleDataStoreBuilder.buildFromParsedTles(parsedTles);
+        final long refreshEnd = System.nanoTime();
+
+        indexTimer.record(refreshEnd - indexStart, TimeUnit.NANOSECONDS);
+        refreshTimer.record(refreshEnd - refreshStart, TimeUnit.NANOSECONDS);
+        log.info("TLE data refreshed in " + TimeUnit.NANOSECONDS.toMillis(refreshEnd - refreshStart) + " ms" +
+                " (indexing " + TimeUnit.NANOSECONDS.toMillis(refreshEnd - indexStart) + " ms)");
+
+        publish(newStore);
+
+    }
+
+    /**
+     * Swaps in a new TLE data store and announces the changes
+     * <p>
+     * Called by the refreshes only, which are serialized, so the version
+     * numbers are consecutive.
+     *
+     * @param newStore new TLE data store
+     */
+    private void publish(TleDataStore newStore) {
+
+        TleDataStore previousStore = tleStore.get();
+        TleDataStore versionedStore = newStore.withVersion(previousStore != null ? previousStore.getVersion() + 1 : 1);
+        TleChangeset changeset = TleDataStoreBuilder.diff(previousStore, versionedStore);
+
+        tleStore.set(versionedStore);
+
+        log.info("TLE data version " + versionedStore.getVersion() + ": " + changeset.getAdded().size() + " added, " +
+                changeset.getUpdated().size() + " updated, " + changeset.getRemoved().size() + " removed");
+
+        eventPublisher.publishEvent(new TleDataRefreshedEvent(this, versionedStore, changeset));
+
+    }
+
+    /**
+     * Downloads a single TLE source, unless it hasn't changed
+     *
+     * @param tleUrl   TLE source URL
+     * @param previous previously downloaded data, or null
+     * @return source data, the previous data if it hasn't changed, or null in case of error
+     */
+    private UrlData fetch(String tleUrl, UrlData previous) {
+        final long start = System.nanoTime();
+        UrlData data = UrlDataReader.readStringDataFromUrl(tleUrl, previous);
+        fetchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return data;
+    }
+
+    /**
+     * Parses a single TLE source, unless it hasn't changed
+     *
+     * @param data         source data
+     * @param previous     previously parsed source data, or null
+     * @param previousTles current TLE objects, reused if unchanged; may be null
+     * @return future parsed source data, the previous data if the source hasn't
+     * changed, or null if there is no data
+     */
+    private CompletableFuture<SourceData> parse(UrlData data, SourceData previous, Map<Integer, TLEPlus> previousTles) {
+
+        if (data == null || data.getLines().isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (previous != null && data == previous.getData()) {
+            return CompletableFuture.completedFuture(previous);
+        }
+
+        return parse(data.getLines(), previousTles).thenApply(tles -> new SourceData(data, tles));
+    }
+
+    /**
+     * Parses TLE lines, in parallel chunks
+     *
+     * @param lines        source lines, not empty
+     * @param previousTles current TLE objects, reused if unchanged; may be null
+     * @return future TLE objects in the order of appearance
+     */
+    private CompletableFuture<List<TLEPlus>> parse(List<String> lines, Map<Integer, TLEPlus> previousTles) {
+
+        final long start = System.nanoTime();
+        final int size = lines.size();
+        final int chunks = Math.max(1, Math.min(
+                ExecutorConfig.effectiveParallelism(config.getTleParseParallelism()),
+                size / MIN_PARSE_CHUNK_LINES));
+
+        List<CompletableFuture<List<TLEPlus>>> parts = new ArrayList<>(chunks);
+
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            final int from = (int) ((long) size * chunk / chunks);
+            final int to = (int) ((long) size * (chunk + 1) / chunks);
+            parts.add(CompletableFuture.supplyAsync(() -> TleDataStoreBuilder.parseTles(lines, from, to, previousTles), parseExecutor));
+        }
+
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture[0])).thenApply(done -> {
+            List<TLEPlus> tles = new ArrayList<>(size / 3 + 1);
+            for (CompletableFuture<List<TLEPlus>> part : parts) {
+                tles.addAll(part.join());
             }
+            parseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return tles;
+        });
+
+    }
+
+    /**
+     * Get the TLE by Satellite Catalog Number from a TLE data store
+     *
+     * @param store TLE data store; may be null
+     * @param id    Satellite Catalog Number
+     * @return TLE or null if Catalog Number was not found
+     */
+    private static TLEPlus getTleBySatelliteId(TleDataStore store, int id) {
+        if (store == null) {
+            return null;
+        }
+        return store.getCatalogIndex().getBySatelliteId(id);
+    }
+
+    /**
+     * Get the TLE by International Designator from a TLE data store
+     *
+     * @param store      TLE data store; may be null
+     * @param designator International Designator
+     * @return TLE or null if International Designator was not found
+     */
+    private static TLEPlus getTleByInternationalDesignator(TleDataStore store, String designator) {
+        if (store == null) {
+            return null;
+        }
+        return store.getCatalogIndex().getByInternationalDesignator(designator);
+    }
+
+    /**
+     * Creates a TLE refresh stage timer
+     *
+     * @param stage         stage name
+     * @param meterRegistry meter registry
+     * @return registered timer
+     */
+    private static Timer stageTimer(String stage, MeterRegistry meterRegistry) {
+        return Timer.builder("sattrack.tle.refresh")
+                .description("TLE data refresh duration, by stage")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
 
-            tleTextData.addAll(tleStrings);
+    /**
+     * Returns TLE source group name, i.e. the file name without the extension
+     *
+     * @param tleUrl TLE source URL
+     * @return group name
+     */
+    private static String getGroupName(String tleUrl) {
+
+        String path = tleUrl;
+
+        int queryStart = path.indexOf('?');
+        if (queryStart >= 0) {
+            path = path.substring(0, queryStart);
         }
 
-        tleStore = TleDataStoreBuilder.buildTleMaps(tleTextData);
+        String name = path.substring(path.lastIndexOf('/') + 1);
+
+        int extensionStart = name.lastIndexOf('.');
+        if (extensionStart > 0) {
+            name = name.substring(0, extensionStart);
+        }
 
+        return name.toLowerCase(Locale.ROOT);
     }
 
     /**
@@ -183,4 +620,23 @@ public class TleFetcherServiceImpl implements TleFetcherService {
         return true;
     }
 
+    /**
+     * Downloaded TLE source, along with the TLEs parsed from it
+     */
+    @RequiredArgsConstructor
+    @Getter
+    private static class SourceData {
+
+        /**
+         * Downloaded data, with its HTTP cache validators
+         */
+        private final UrlData data;
+
+        /**
+         * Parsed TLE objects, in the order of appearance
+         */
+        private final List<TLEPlus> tles;
+
+    }
+
 }
@@ -0,0 +1,16 @@
+package com.ultimalabs.sattrackapi.tle.service;
+
+import com.ultimalabs.sattrackapi.tle.model.ElementFilter;
+import com.ultimalabs.sattrackapi.tle.model.SearchResults;
+
+public interface TleSearchService {
+
+    SearchResults findByNamePrefix(String prefix, int page, int size);
+
+    SearchResults findByNameSubstring(String text, int page, int size);
+
+    SearchResults findByDesignatorPrefix(String prefix, int page, int size);
+
+    SearchResults findByElements(ElementFilter filter, int page, int size);
+
+}
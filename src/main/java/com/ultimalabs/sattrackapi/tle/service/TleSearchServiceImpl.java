@@ -0,0 +1,121 @@
+package com.ultimalabs.sattrackapi.tle.service;
+
+import com.ultimalabs.sattrackapi.tle.model.ElementFilter;
+import com.ultimalabs.sattrackapi.tle.model.SatelliteSummary;
+import com.ultimalabs.sattrackapi.tle.model.SearchResults;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.model.TleDataStore;
+import com.ultimalabs.sattrackapi.tle.util.CatalogSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Catalog search service
+ * <p>
+ * Searches the index of the current TLE data store; each query sees a
+ * single store snapshot, even if the store is refreshed meanwhile.
+ */
+@RequiredArgsConstructor
+@Service
+public class TleSearchServiceImpl implements TleSearchService {
+
+    /**
+     * TLE fetcher service
+     */
+    private final TleFetcherService tleFetcherService;
+
+    /**
+     * Finds the satellites with a name starting with the given prefix
+     *
+     * @param prefix name prefix, any case
+     * @param page   page number, starting from zero
+     * @param size   maximum number of results per page
+     * @return matching satellites, sorted by name
+     */
+    @Override
+    public SearchResults findByNamePrefix(String prefix, int page, int size) {
+        CatalogSearchIndex index = getSearchIndex();
+        return index == null ? emptyResults(page, size) : index.findByNamePrefix(prefix, page, size);
+    }
+
+    /**
+     * Finds the satellites with a name containing the given text
+     *
+     * @param text name substring, any case
+     * @param page page number, starting from zero
+     * @param size maximum number of results per page
+     * @return matching satellites, sorted by Satellite Catalog Number
+     */
+    @Override
+    public SearchResults findByNameSubstring(String text, int page, int size) {
+        CatalogSearchIndex index = getSearchIndex();
+        return index == null ? emptyResults(page, size) : index.findByNameSubstring(text, page, size);
+    }
+
+    /**
+     * Finds the satellites with an International Designator starting with the given prefix
+     *
+     * @param prefix International Designator prefix, shorter or longer variant
+     * @param page   page number, starting from zero
+     * @param size   maximum number of results per page
+     * @return matching satellites, sorted by International Designator
+     */
+    @Override
+    public SearchResults findByDesignatorPrefix(String prefix, int page, int size) {
+        CatalogSearchIndex index = getSearchIndex();
+        return index == null ? emptyResults(page, size) : index.findByDesignatorPrefix(prefix, page, size);
+    }
+
+    /**
+     * Finds the satellites with the mean orbital elements within the given ranges
+     *
+     * @param filter element ranges
+     * @param page   page number, starting from zero
+     * @param size   maximum number of results per page
+     * @return matching satellites, sorted by Satellite Catalog Number
+     */
+    @Override
+    public SearchResults findByElements(ElementFilter filter, int page, int size) {
+
+        TleDataStore store = tleFetcherService.getTleDataStore();
+
+        if (store == null) {
+            return emptyResults(page, size);
+        }
+
+        List<TLEPlus> matches = store.getElementIndex().filter(filter);
+        long first = (long) page * size;
+
+        if (first >= matches.size()) {
+            return new SearchResults(matches.size(), page, size, Collections.emptyList());
+        }
+
+        int last = (int) Math.min(matches.size(), first + size);
+        List<SatelliteSummary> results = new ArrayList<>(last - (int) first);
+
+        for (TLEPlus tle : matches.subList((int) first, last)) {
+            results.add(SatelliteSummary.of(tle));
+        }
+
+        return new SearchResults(matches.size(), page, size, results);
+    }
+
+    /**
+     * Returns the search index of the current store
+     *
+     * @return search index, or null if no TLEs were loaded yet
+     */
+    private CatalogSearchIndex getSearchIndex() {
+        TleDataStore store = tleFetcherService.getTleDataStore();
+        return store == null ? null : store.getSearchIndex();
+    }
+
+    private static SearchResults emptyResults(int page, int size) {
+        return new SearchResults(0, page, size, Collections.emptyList());
+    }
+
+}
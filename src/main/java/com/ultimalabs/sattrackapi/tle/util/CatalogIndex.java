@@ -0,0 +1,390 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compact, read-only index of TLE objects
+ * <p>
+ * Satellite Catalog Numbers are kept in a sorted int array and
+ * International Designators are packed into a sorted long array, each
+ * with a parallel array of TLE objects, and looked up with a binary
+ * search. Compared with a HashMap entry (node, boxed or String key and
+ * table slot, roughly 50-90 bytes with compressed oops), an entry takes
+ * 8 or 12 bytes, and lookups by Satellite Catalog Number don't box the
+ * key. Designators which can't be packed (not "YYNNNP[PP]" with upper case
+ * letters) are kept in a small HashMap.
+ * <p>
+ * Map views are provided for the callers which need a Map.
+ */
+public class CatalogIndex {
+
+    /**
+     * Radix for the launch piece letters; zero means no letter
+     */
+    private static final int PIECE_RADIX = 27;
+
+    /**
+     * Number of launch piece codes (up to three letters)
+     */
+    static final int PIECE_CODES = PIECE_RADIX * PIECE_RADIX * PIECE_RADIX;
+
+    /**
+     * Satellite Catalog Numbers, sorted
+     */
+    private final int[] satelliteIds;
+
+    /**
+     * TLE objects, in the order of the Satellite Catalog Numbers
+     */
+    private final TLEPlus[] tlesBySatelliteId;
+
+    /**
+     * Packed International Designators, sorted
+     */
+    private final long[] designatorKeys;
+
+    /**
+     * TLE objects, in the order of the packed International Designators
+     */
+    private final TLEPlus[] tlesByDesignator;
+
+    /**
+     * TLE objects with a designator which can't be packed
+     */
+    private final Map<String, TLEPlus> unpackedDesignators;
+
+    /**
+     * Read-only views
+     */
+    private final List<TLEPlus> tleList;
+    private final Map<Integer, TLEPlus> satelliteIdMap = new SatelliteIdMap();
+    private final Map<String, TLEPlus> designatorMap = new DesignatorMap();
+
+    private CatalogIndex(int[] satelliteIds, TLEPlus[] tlesBySatelliteId,
+                         long[] designatorKeys, TLEPlus[] tlesByDesignator,
+                         Map<String, TLEPlus> unpackedDesignators) {
+        this.satelliteIds = satelliteIds;
+        this.tlesBySatelliteId = tlesBySatelliteId;
+        this.designatorKeys = designatorKeys;
+        this.tlesByDesignator = tlesByDesignator;
+        this.unpackedDesignators = unpackedDesignators;
+        this.tleList = Collections.unmodifiableList(Arrays.asList(tlesBySatelliteId));
+    }
+
+    /**
+     * Builds the index from the TLE maps
+     *
+     * @param tleBySatelliteId             TLE objects, indexed by Satellite Catalog Number
+     * @param tleByInternationalDesignator TLE objects, indexed by International Designator
+     * @return built index
+     */
+    public static CatalogIndex of(Map<Integer, TLEPlus> tleBySatelliteId, Map<String, TLEPlus> tleByInternationalDesignator) {
+
+        int[] satelliteIds = new int[tleBySatelliteId.size()];
+        int i = 0;
+        for (Integer satelliteId : tleBySatelliteId.keySet()) {
+            satelliteIds[i++] = satelliteId;
+        }
+        Arrays.sort(satelliteIds);
+
+        TLEPlus[] tlesBySatelliteId = new TLEPlus[satelliteIds.length];
+        for (i = 0; i < satelliteIds.length; i++) {
+            tlesBySatelliteId[i] = tleBySatelliteId.get(satelliteIds[i]);
+        }
+
+        long[] keys = new long[tleByInternationalDesignator.size()];
+        TLEPlus[] tles = new TLEPlus[keys.length];
+        Map<String, TLEPlus> unpackedDesignators = new HashMap<>();
+        int packed = 0;
+
+        for (Map.Entry<String, TLEPlus> entry : tleByInternationalDesignator.entrySet()) {
+            long key = packDesignator(entry.getKey());
+            if (key < 0) {
+                unpackedDesignators.put(entry.getKey(), entry.getValue());
+            } else {
+                keys[packed] = key;
+                tles[packed] = entry.getValue();
+                packed++;
+            }
+        }
+
+        // sort the keys, along with their TLEs
+        Integer[] order = new Integer[packed];
+        for (i = 0; i < packed; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        long[] designatorKeys = new long[packed];
+        TLEPlus[] tlesByDesignator = new TLEPlus[packed];
+        for (i = 0; i < packed; i++) {
+            designatorKeys[i] = keys[order[i]];
+            tlesByDesignator[i] = tles[order[i]];
+        }
+
+        return new CatalogIndex(satelliteIds, tlesBySatelliteId, designatorKeys, tlesByDesignator,
+                unpackedDesignators.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(unpackedDesignators));
+
+    }
+
+    /**
+     * Get the TLE by Satellite Catalog Number
+     *
+     * @param id Satellite Catalog Number
+     * @return TLE or null if Catalog Number was not found
+     */
+    public TLEPlus getBySatelliteId(int id) {
+        int position = Arrays.binarySearch(satelliteIds, id);
+        return position >= 0 ? tlesBySatelliteId[position] : null;
+    }
+
+    /**
+     * Get the TLE by International Designator
+     *
+     * @param designator International Designator, shorter variant (e.g. "98067A")
+     * @return TLE or null if International Designator was not found
+     */
+    public TLEPlus getByInternationalDesignator(String designator) {
+
+        long key = packDesignator(designator);
+
+        if (key < 0) {
+            return designator == null ? null : unpackedDesignators.get(designator);
+        }
+
+        int position = Arrays.binarySearch(designatorKeys, key);
+        return position >= 0 ? tlesByDesignator[position] : null;
+    }
+
+    /**
+     * Returns number of satellites
+     *
+     * @return number of indexed Satellite Catalog Numbers
+     */
+    public int size() {
+        return satelliteIds.length;
+    }
+
+    /**
+     * Returns all the TLEs
+     *
+     * @return read-only list of TLEs, ordered by Satellite Catalog Number
+     */
+    public List<TLEPlus> getTles() {
+        return tleList;
+    }
+
+    /**
+     * Returns a read-only Map view, indexed by Satellite Catalog Number
+     *
+     * @return map view
+     */
+    public Map<Integer, TLEPlus> asSatelliteIdMap() {
+        return satelliteIdMap;
+    }
+
+    /**
+     * Returns a read-only Map view, indexed by International Designator
+     *
+     * @return map view
+     */
+    public Map<String, TLEPlus> asInternationalDesignatorMap() {
+        return designatorMap;
+    }
+
+    /**
+     * Packs a shorter variant International Designator into a number
+     * <p>
+     * Two-digit launch year and three-digit launch number are kept as a
+     * five-digit number, and the one to three piece letters as base 27
+     * digits, so different designators never share a key.
+     *
+     * @param designator International Designator, e.g. "98067A"
+     * @return packed designator, or -1 if it can't be packed
+     */
+    static long packDesignator(String designator) {
+
+        if (designator == null || designator.length() < 6 || designator.length() > 8) {
+            return -1;
+        }
+
+        int launch = 0;
+        for (int i = 0; i < 5; i++) {
+            char c = designator.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            launch = launch * 10 + (c - '0');
+        }
+
+        int piece = 0;
+        for (int i = 5; i < designator.length(); i++) {
+            char c = designator.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return -1;
+            }
+            piece = piece * PIECE_RADIX + (c - 'A' + 1);
+        }
+
+        return (long) launch * PIECE_CODES + piece;
+    }
+
+    /**
+     * Unpacks a packed International Designator
+     *
+     * @param key packed designator
+     * @return International Designator
+     */
+    static String unpackDesignator(long key) {
+
+        int launch = (int) (key / PIECE_CODES);
+        int piece = (int) (key % PIECE_CODES);
+
+        char[] pieceLetters = new char[3];
+        int length = 0;
+        while (piece > 0) {
+            pieceLetters[2 - length++] = (char) ('A' + piece % PIECE_RADIX - 1);
+            piece /= PIECE_RADIX;
+        }
+
+        StringBuilder designator = new StringBuilder(8);
+        String launchDigits = Integer.toString(launch);
+        for (int i = launchDigits.length(); i < 5; i++) {
+            designator.append('0');
+        }
+        return designator.append(launchDigits).append(pieceLetters, 3 - length, length).toString();
+    }
+
+    /**
+     * Map view, indexed by Satellite Catalog Number
+     */
+    private class SatelliteIdMap extends AbstractMap<Integer, TLEPlus> {
+
+        @Override
+        public TLEPlus get(Object key) {
+            return key instanceof Integer ? getBySatelliteId((Integer) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return satelliteIds.length;
+        }
+
+        @Override
+        public Collection<TLEPlus> values() {
+            return tleList;
+        }
+
+        @Override
+        public Set<Entry<Integer, TLEPlus>> entrySet() {
+            return new AbstractSet<Entry<Integer, TLEPlus>>() {
+
+                @Override
+                public Iterator<Entry<Integer, TLEPlus>> iterator() {
+                    return new Iterator<Entry<Integer, TLEPlus>>() {
+
+                        private int position = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return position < satelliteIds.length;
+                        }
+
+                        @Override
+                        public Entry<Integer, TLEPlus> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<Integer, TLEPlus> entry = new SimpleImmutableEntry<>(satelliteIds[position], tlesBySatelliteId[position]);
+                            position++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return satelliteIds.length;
+                }
+            };
+        }
+
+    }
+
+    /**
+     * Map view, indexed by International Designator
+     */
+    private class DesignatorMap extends AbstractMap<String, TLEPlus> {
+
+        @Override
+        public TLEPlus get(Object key) {
+            return key instanceof String ? getByInternationalDesignator((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return designatorKeys.length + unpackedDesignators.size();
+        }
+
+        @Override
+        public Set<Entry<String, TLEPlus>> entrySet() {
+            return new AbstractSet<Entry<String, TLEPlus>>() {
+
+                @Override
+                public Iterator<Entry<String, TLEPlus>> iterator() {
+                    return new Iterator<Entry<String, TLEPlus>>() {
+
+                        private int position = 0;
+
+                        private final Iterator<Entry<String, TLEPlus>> unpacked = unpackedDesignators.entrySet().iterator();
+
+                        @Override
+                        public boolean hasNext() {
+                            return position < designatorKeys.length || unpacked.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, TLEPlus> next() {
+                            if (position < designatorKeys.length) {
+                                Entry<String, TLEPlus> entry = new SimpleImmutableEntry<>(
+                                        unpackDesignator(designatorKeys[position]), tlesByDesignator[position]);
+                                position++;
+                                return entry;
+                            }
+                            return unpacked.next();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return DesignatorMap.this.size();
+                }
+            };
+        }
+
+    }
+
+}
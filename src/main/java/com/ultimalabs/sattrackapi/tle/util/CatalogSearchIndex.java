@@ -0,0 +1,431 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.ultimalabs.sattrackapi.tle.model.SatelliteSummary;
+import com.ultimalabs.sattrackapi.tle.model.SearchResults;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Read-only search index over the satellite names and designators
+ * <p>
+ * Built once per TLE refresh. Name and designator prefix queries are
+ * answered with a binary search over the sorted names and the sorted
+ * packed designators, and substring queries with a trigram index, so
+ * no query scans the whole catalog (except for substrings shorter than
+ * three characters, which scan the flat array of names). Names are
+ * matched case-insensitively.
+ */
+public class CatalogSearchIndex {
+
+    /**
+     * Trigram length
+     */
+    private static final int GRAM = 3;
+
+    /**
+     * TLE objects
+     */
+    private final TLEPlus[] tles;
+
+    /**
+     * Upper case names, in the order of the TLE objects; null if there is no name
+     */
+    private final String[] names;
+
+    /**
+     * Positions of the named TLE objects, sorted by name
+     */
+    private final int[] byName;
+
+    /**
+     * Positions of the TLE objects containing each trigram, in ascending order
+     */
+    private final Map<Long, int[]> trigrams;
+
+    /**
+     * Packed designators, sorted, and the positions of their TLE objects
+     */
+    private final long[] designatorKeys;
+    private final int[] byDesignator;
+
+    /**
+     * Positions of the TLE objects with a designator which can't be packed
+     */
+    private final int[] unpackedDesignators;
+
+    private CatalogSearchIndex(TLEPlus[] tles, String[] names, int[] byName, Map<Long, int[]> trigrams,
+                               long[] designatorKeys, int[] byDesignator, int[] unpackedDesignators) {
+        this.tles = tles;
+        this.names = names;
+        this.byName = byName;
+        this.trigrams = trigrams;
+        this.designatorKeys = designatorKeys;
+        this.byDesignator = byDesignator;
+        this.unpackedDesignators = unpackedDesignators;
+    }
+
+    /**
+     * Builds the index
+     *
+     * @param tleList TLE objects, one per satellite; results keep their order
+     * @return built index
+     */
+    public static CatalogSearchIndex of(List<TLEPlus> tleList) {
+
+        TLEPlus[] tles = tleList.toArray(new TLEPlus[0]);
+        String[] names = new String[tles.length];
+
+        for (int i = 0; i < tles.length; i++) {
+            String name = tles[i].getName();
+            if (!name.isEmpty()) {
+                String upperCaseName = name.toUpperCase(Locale.ROOT);
+                names[i] = upperCaseName.equals(name) ? name : upperCaseName;
+            }
+        }
+
+        return new CatalogSearchIndex(tles, names, sortByName(names), buildTrigrams(names),
+                packedDesignators(tles), sortByDesignator(tles), unpackedDesignators(tles));
+    }
+
+    /**
+     * Finds the satellites with a name starting with the given prefix
+     *
+     * @param prefix name prefix, any case
+     * @param page   page number, starting from zero
+     * @param size   maximum number of results per page
+     * @return matching satellites, sorted by name
+     */
+    public SearchResults findByNamePrefix(String prefix, int page, int size) {
+
+        String upperCasePrefix = prefix.toUpperCase(Locale.ROOT);
+
+        int from = nameLowerBound(upperCasePrefix);
+        int to = nameLowerBound(upperCasePrefix + Character.MAX_VALUE);
+
+        return toResults(to - from, i -> byName[from + i], page, size);
+    }
+
+    /**
+     * Finds the satellites with a name containing the given text
+     *
+     * @param text name substring, any case
+     * @param page page number, starting from zero
+     * @param size maximum number of results per page
+     * @return matching satellites, in the catalog order
+     */
+    public SearchResults findByNameSubstring(String text, int page, int size) {
+
+        String upperCaseText = text.toUpperCase(Locale.ROOT);
+        int[] candidates = null;
+
+        if (upperCaseText.length() >= GRAM) {
+            // the shortest posting list is checked against the whole text
+            for (int i = 0; i + GRAM <= upperCaseText.length(); i++) {
+                int[] postings = trigrams.get(trigram(upperCaseText, i));
+                if (postings == null) {
+                    return toResults(0, null, page, size);
+                }
+                if (candidates == null || postings.length < candidates.length) {
+                    candidates = postings;
+                }
+            }
+        }
+
+        int[] matches = new int[candidates != null ? candidates.length : tles.length];
+        int count = 0;
+
+        if (candidates != null) {
+            for (int position : candidates) {
+                if (names[position].contains(upperCaseText)) {
+                    matches[count++] = position;
+                }
+            }
+        } else {
+            for (int position = 0; position < names.length; position++) {
+                if (names[position] != null && names[position].contains(upperCaseText)) {
+                    matches[count++] = position;
+                }
+            }
+        }
+
+        return toResults(count, i -> matches[i], page, size);
+    }
+
+    /**
+     * Finds the satellites with an International Designator starting with the given prefix
+     * <p>
+     * The prefix can be given in the shorter ("98067") or in the longer
+     * variant, with the four-digit year and a dash ("1998-067"); the
+     * four-digit year alone is treated as the shorter variant.
+     *
+     * @param prefix International Designator prefix
+     * @param page   page number, starting from zero
+     * @param size   maximum number of results per page
+     * @return matching satellites, sorted by International Designator
+     */
+    public SearchResults findByDesignatorPrefix(String prefix, int page, int size) {
+
+        String shortPrefix = prefix.toUpperCase(Locale.ROOT);
+        if (shortPrefix.length() >= 5 && shortPrefix.charAt(4) == '-') {
+            shortPrefix = shortPrefix.substring(2, 4) + shortPrefix.substring(5);
+        }
+
+        int digits = 0;
+        while (digits < shortPrefix.length() && digits < 5 && Character.isDigit(shortPrefix.charAt(digits))) {
+            digits++;
+        }
+
+        int[] matches;
+        int count = 0;
+
+        if (digits == shortPrefix.length() || digits == 5) {
+
+            // launch range covered by the digits
+            long scale = 1;
+            for (int i = digits; i < 5; i++) {
+                scale *= 10;
+            }
+            long launch = digits > 0 ? Long.parseLong(shortPrefix.substring(0, digits)) : 0;
+
+            int from = designatorLowerBound(launch * scale * CatalogIndex.PIECE_CODES);
+            int to = designatorLowerBound((launch + 1) * scale * CatalogIndex.PIECE_CODES);
+
+            matches = new int[to - from + unpackedDesignators.length];
+            for (int i = from; i < to; i++) {
+                // launch piece letters, if any, are checked one by one
+                if (digits == shortPrefix.length()
+                        || CatalogIndex.unpackDesignator(designatorKeys[i]).startsWith(shortPrefix)) {
+                    matches[count++] = byDesignator[i];
+                }
+            }
+        } else {
+            matches = new int[unpackedDesignators.length];
+        }
+
+        for (int position : unpackedDesignators) {
+            if (tles[position].getInternationalDesignator().startsWith(shortPrefix)) {
+                matches[count++] = position;
+            }
+        }
+
+        return toResults(count, i -> matches[i], page, size);
+    }
+
+    /**
+     * Builds a page of results
+     *
+     * @param total    total number of matches
+     * @param position returns the position of the n-th match
+     * @param page     page number, starting from zero
+     * @param size     maximum number of results per page
+     * @return a page of results
+     */
+    private SearchResults toResults(int total, IntUnaryOperator position, int page, int size) {
+
+        long first = (long) page * size;
+
+        if (first >= total) {
+            return new SearchResults(total, page, size, Collections.emptyList());
+        }
+
+        int last = (int) Math.min(total, first + size);
+        List<SatelliteSummary> results = new ArrayList<>(last - (int) first);
+
+        for (int i = (int) first; i < last; i++) {
+            results.add(SatelliteSummary.of(tles[position.applyAsInt(i)]));
+        }
+
+        return new SearchResults(total, page, size, results);
+    }
+
+    /**
+     * Returns the index of the first name not less than the given key
+     *
+     * @param key upper case name prefix
+     * @return index into the sorted names
+     */
+    private int nameLowerBound(String key) {
+        int low = 0;
+        int high = byName.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (names[byName[middle]].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first packed designator not less than the given key
+     *
+     * @param key packed designator
+     * @return index into the sorted designators
+     */
+    private int designatorLowerBound(long key) {
+        int position = Arrays.binarySearch(designatorKeys, key);
+        if (position < 0) {
+            return -position - 1;
+        }
+        // binary search finds any of the equal keys
+        while (position > 0 && designatorKeys[position - 1] == key) {
+            position--;
+        }
+        return position;
+    }
+
+    /**
+     * Sorts the named TLE positions by name
+     *
+     * @param names upper case names
+     * @return positions sorted by name, then by position
+     */
+    private static int[] sortByName(String[] names) {
+
+        List<Integer> positions = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] != null) {
+                positions.add(i);
+            }
+        }
+
+        // stable sort, so equal names keep the catalog order
+        positions.sort((a, b) -> names[a].compareTo(names[b]));
+
+        int[] byName = new int[positions.size()];
+        for (int i = 0; i < byName.length; i++) {
+            byName[i] = positions.get(i);
+        }
+        return byName;
+    }
+
+    /**
+     * Builds the trigram index of the names
+     *
+     * @param names upper case names
+     * @return positions of the names containing each trigram
+     */
+    private static Map<Long, int[]> buildTrigrams(String[] names) {
+
+        // first pass counts the names per trigram, the second fills the lists;
+        // a name containing a trigram more than once is listed once
+        Map<Long, int[]> counts = new HashMap<>();
+
+        for (int position = 0; position < names.length; position++) {
+            String name = names[position];
+            for (int i = 0; name != null && i + GRAM <= name.length(); i++) {
+                int[] count = counts.computeIfAbsent(trigram(name, i), k -> new int[]{0, -1});
+                if (count[1] != position) {
+                    count[0]++;
+                    count[1] = position;
+                }
+            }
+        }
+
+        Map<Long, int[]> trigrams = new HashMap<>(counts.size() * 4 / 3 + 1);
+        for (Map.Entry<Long, int[]> entry : counts.entrySet()) {
+            trigrams.put(entry.getKey(), new int[entry.getValue()[0]]);
+            entry.getValue()[0] = 0;
+        }
+
+        for (int position = 0; position < names.length; position++) {
+            String name = names[position];
+            for (int i = 0; name != null && i + GRAM <= name.length(); i++) {
+                Long key = trigram(name, i);
+                int[] count = counts.get(key);
+                int[] postings = trigrams.get(key);
+                if (count[0] == 0 || postings[count[0] - 1] != position) {
+                    postings[count[0]++] = position;
+                }
+            }
+        }
+
+        return trigrams;
+    }
+
+    /**
+     * Packs three characters into a trigram key
+     *
+     * @param text  text
+     * @param start first character index
+     * @return trigram key
+     */
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * Returns the packable designators, sorted
+     *
+     * @param tles TLE objects
+     * @return sorted packed designators
+     */
+    private static long[] packedDesignators(TLEPlus[] tles) {
+        long[] keys = new long[tles.length];
+        int count = 0;
+        for (TLEPlus tle : tles) {
+            long key = CatalogIndex.packDesignator(tle.getInternationalDesignator());
+            if (key >= 0) {
+                keys[count++] = key;
+            }
+        }
+        keys = Arrays.copyOf(keys, count);
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    /**
+     * Sorts the TLE positions by packed designator
+     *
+     * @param tles TLE objects
+     * @return positions of the TLEs with a packable designator, in the designator order
+     */
+    private static int[] sortByDesignator(TLEPlus[] tles) {
+
+        long[] keys = new long[tles.length];
+        List<Integer> positions = new ArrayList<>(tles.length);
+
+        for (int i = 0; i < tles.length; i++) {
+            keys[i] = CatalogIndex.packDesignator(tles[i].getInternationalDesignator());
+            if (keys[i] >= 0) {
+                positions.add(i);
+            }
+        }
+
+        positions.sort((a, b) -> Long.compare(keys[a], keys[b]));
+
+        int[] byDesignator = new int[positions.size()];
+        for (int i = 0; i < byDesignator.length; i++) {
+            byDesignator[i] = positions.get(i);
+        }
+        return byDesignator;
+    }
+
+    /**
+     * Returns the positions of the TLEs with a designator which can't be packed
+     *
+     * @param tles TLE objects
+     * @return positions, in the catalog order
+     */
+    private static int[] unpackedDesignators(TLEPlus[] tles) {
+        int[] positions = new int[tles.length];
+        int count = 0;
+        for (int i = 0; i < tles.length; i++) {
+            if (CatalogIndex.packDesignator(tles[i].getInternationalDesignator()) < 0) {
+                positions[count++] = i;
+            }
+        }
+        return Arrays.copyOf(positions, count);
+    }
+
+}
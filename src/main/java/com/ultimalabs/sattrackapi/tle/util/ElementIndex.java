@@ -0,0 +1,201 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.ultimalabs.sattrackapi.tle.model.ElementFilter;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.MathUtils;
+import org.orekit.time.TimeScalesFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Columnar index of the mean orbital elements
+ * <p>
+ * Built once per TLE refresh. Each element (and each value derived from
+ * the elements) is kept in its own primitive array, in the order of the
+ * TLE objects, so a filter is a sequence of tight loops over contiguous
+ * arrays: one per bounded range, each narrowing a shared match mask
+ * without branches. Such loops are candidates for the JIT compiler
+ * auto-vectorization, and no TLE object is touched until the matches
+ * are collected.
+ */
+public class ElementIndex {
+
+    /**
+     * Seconds per day
+     */
+    private static final double DAY = 86400.;
+
+    /**
+     * Milliseconds between the Unix epoch and J2000.0
+     */
+    private static final double J2000_UNIX_MILLIS = 946728000000.;
+
+    /**
+     * TLE objects
+     */
+    private final TLEPlus[] tles;
+
+    /**
+     * Element columns, in the order of the TLE objects
+     */
+    private final double[] inclination;
+    private final double[] eccentricity;
+    private final double[] meanMotion;
+    private final double[] period;
+    private final double[] raan;
+    private final double[] apogee;
+    private final double[] perigee;
+    private final double[] longitude;
+    private final double[] epoch;
+
+    private ElementIndex(TLEPlus[] tles) {
+        int size = tles.length;
+        this.tles = tles;
+        this.inclination = new double[size];
+        this.eccentricity = new double[size];
+        this.meanMotion = new double[size];
+        this.period = new double[size];
+        this.raan = new double[size];
+        this.apogee = new double[size];
+        this.perigee = new double[size];
+        this.longitude = new double[size];
+        this.epoch = new double[size];
+    }
+
+    /**
+     * Builds the index
+     *
+     * @param tleList TLE objects; filter results keep their order
+     * @return built index
+     */
+    public static ElementIndex of(List<TLEPlus> tleList) {
+
+        ElementIndex index = new ElementIndex(tleList.toArray(new TLEPlus[0]));
+
+        for (int i = 0; i < index.tles.length; i++) {
+            TLEPlus tle = index.tles[i];
+            double epochMillis = tle.getDate().toDate(TimeScalesFactory.getUTC()).getTime();
+
+            index.inclination[i] = FastMath.toDegrees(tle.getI());
+            index.eccentricity[i] = tle.getE();
+            index.meanMotion[i] = tle.getMeanMotion() * DAY / MathUtils.TWO_PI;
+            index.period[i] = tle.getPeriod() / 60.;
+            index.raan[i] = FastMath.toDegrees(MathUtils.normalizeAngle(tle.getRaan(), FastMath.PI));
+            index.apogee[i] = tle.getApogeeAltitude() / 1000.;
+            index.perigee[i] = tle.getPerigeeAltitude() / 1000.;
+            index.longitude[i] = meanLongitude(tle, epochMillis);
+            index.epoch[i] = epochMillis;
+        }
+
+        return index;
+    }
+
+    /**
+     * Finds the TLEs with the mean elements within the filter ranges
+     *
+     * @param filter element ranges
+     * @return matching TLEs, in the index order
+     */
+    public List<TLEPlus> filter(ElementFilter filter) {
+
+        if (filter.isUnbounded()) {
+            return Collections.unmodifiableList(Arrays.asList(tles));
+        }
+
+        boolean[] match = new boolean[tles.length];
+        Arrays.fill(match, true);
+
+        narrow(match, inclination, filter.getMinInclination(), filter.getMaxInclination());
+        narrow(match, eccentricity, filter.getMinEccentricity(), filter.getMaxEccentricity());
+        narrow(match, meanMotion, filter.getMinMeanMotion(), filter.getMaxMeanMotion());
+        narrow(match, period, filter.getMinPeriod(), filter.getMaxPeriod());
+        narrow(match, raan, filter.getMinRaan(), filter.getMaxRaan());
+        narrow(match, apogee, filter.getMinApogee(), filter.getMaxApogee());
+        narrow(match, perigee, filter.getMinPerigee(), filter.getMaxPerigee());
+        narrowWrapped(match, longitude, filter.getMinLongitude(), filter.getMaxLongitude());
+        narrow(match, epoch, System.currentTimeMillis() - filter.getMaxEpochAge() * DAY * 1000., Double.POSITIVE_INFINITY);
+
+        List<TLEPlus> matches = new ArrayList<>();
+        for (int i = 0; i < match.length; i++) {
+            if (match[i]) {
+                matches.add(tles[i]);
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * Returns number of indexed TLEs
+     *
+     * @return number of TLEs
+     */
+    public int size() {
+        return tles.length;
+    }
+
+    /**
+     * Clears the mask for the values outside of the range
+     *
+     * @param match  match mask
+     * @param values element column
+     * @param min    range minimum, inclusive
+     * @param max    range maximum, inclusive
+     */
+    private static void narrow(boolean[] match, double[] values, double min, double max) {
+
+        if (min == Double.NEGATIVE_INFINITY && max == Double.POSITIVE_INFINITY) {
+            return;
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            match[i] &= values[i] >= min & values[i] <= max;
+        }
+    }
+
+    /**
+     * Clears the mask for the values outside of a range which may wrap around
+     *
+     * @param match  match mask
+     * @param values element column
+     * @param min    range minimum, inclusive; if greater than the maximum, the range wraps around
+     * @param max    range maximum, inclusive
+     */
+    private static void narrowWrapped(boolean[] match, double[] values, double min, double max) {
+
+        if (min <= max) {
+            narrow(match, values, min, max);
+            return;
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            match[i] &= values[i] >= min | values[i] <= max;
+        }
+    }
+
+    /**
+     * Returns the mean longitude at the TLE epoch
+     * <p>
+     * The mean longitude in the inertial frame, less the Greenwich mean
+     * sidereal time (UTC is used instead of UT1, which is good to a
+     * hundredth of a degree). For a geosynchronous orbit, this is the
+     * longitude the satellite drifts around.
+     *
+     * @param tle         TLE object
+     * @param epochMillis TLE epoch, in milliseconds since the Unix epoch
+     * @return mean longitude, in degrees (-180 - 180)
+     */
+    private static double meanLongitude(TLEPlus tle, double epochMillis) {
+
+        double days = (epochMillis - J2000_UNIX_MILLIS) / (DAY * 1000.);
+        double gmst = FastMath.toRadians(280.46061837 + 360.98564736629 * days);
+        double inertialLongitude = tle.getRaan() + tle.getPerigeeArgument() + tle.getMeanAnomaly();
+
+        return FastMath.toDegrees(MathUtils.normalizeAngle(inertialLongitude - gmst, 0.));
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of propagators for a single TLE
+ * <p>
+ * TLEPropagator instances are not thread-safe, so each borrowed
+ * propagator is used by a single thread only. Idle propagators are
+ * kept in a lock-free queue, up to the configured maximum; anything
+ * above that is left to the garbage collector.
+ */
+public class PropagatorPool {
+
+    /**
+     * TLE this pool was built for
+     */
+    private final TLEPlus tle;
+
+    /**
+     * Maximum number of idle propagators
+     */
+    private final int maxIdle;
+
+    /**
+     * Idle propagators
+     */
+    private final Queue<TLEPropagator> idle = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of idle propagators (queue size is O(n))
+     */
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    public PropagatorPool(TLEPlus tle, int maxIdle) {
+        this.tle = tle;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Returns TLE this pool was built for
+     *
+     * @return TLE
+     */
+    public TLEPlus getTle() {
+        return tle;
+    }
+
+    /**
+     * Takes an idle propagator from the pool
+     *
+     * @return idle propagator or null if the pool is empty
+     */
+    public TLEPropagator poll() {
+        TLEPropagator propagator = idle.poll();
+        if (propagator != null) {
+            idleCount.decrementAndGet();
+        }
+        return propagator;
+    }
+
+    /**
+     * Builds a new propagator for the pool TLE
+     *
+     * @return new propagator
+     */
+    public TLEPropagator create() {
+        return TLEPropagator.selectExtrapolator(tle);
+    }
+
+    /**
+     * Returns a propagator to the pool
+     * <p>
+     * Event detectors and step handlers are removed, so the next
+     * borrower gets a propagator in slave mode without any detectors.
+     *
+     * @param propagator propagator that's being returned
+     * @return true if propagator was pooled, false if the pool is full
+     */
+    public boolean offer(TLEPropagator propagator) {
+        propagator.clearEventsDetectors();
+        propagator.setSlaveMode();
+
+        if (idleCount.incrementAndGet() > maxIdle) {
+            idleCount.decrementAndGet();
+            return false;
+        }
+
+        idle.offer(propagator);
+        return true;
+    }
+
+    /**
+     * Returns the number of idle propagators
+     *
+     * @return number of idle propagators
+     */
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+}
@@ -1,12 +1,18 @@
 package com.ultimalabs.sattrackapi.tle.util;
 
 import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.model.TleChangeset;
 import com.ultimalabs.sattrackapi.tle.model.TleDataStore;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Builds a TLE data store
@@ -22,7 +28,7 @@ public class TleDataStoreBuilder {
      * Builds TLE data store from a list of strings
      *
      * @param tleTextData TLE data as a list of strings
-     * @return built TLE data store
+     * @return built TLE data store, without the source groups
      */
     public static TleDataStore buildTleMaps(List<String> tleTextData) {
 
@@ -33,15 +39,108 @@ public class TleDataStoreBuilder {
         Map<Integer, TLEPlus> tleBySatelliteId = new HashMap<>();
         Map<String, TLEPlus> tleByInternationalDesignator = new HashMap<>();
 
+        List<TLEPlus> tles = parseTles(tleTextData, 0, tleTextData.size());
+        addTles(tles, tleBySatelliteId, tleByInternationalDesignator, null);
+
+        return buildStore(tleBySatelliteId, tleByInternationalDesignator, new HashMap<>(), tles.size());
+
+    }
+
+    /**
+     * Builds TLE data store from lists of strings, grouped by source
+     *
+     * @param tleTextDataByGroup TLE data as lists of strings, keyed by source group name
+     * @return built TLE data store
+     */
+    public static TleDataStore buildGroupedTleMaps(Map<String, List<String>> tleTextDataByGroup) {
+
+        if (tleTextDataByGroup == null || tleTextDataByGroup.isEmpty()) {
+            return null;
+        }
+
+        Map<String, List<TLEPlus>> tlesByGroup = new LinkedHashMap<>();
+
+        for (Map.Entry<String, List<String>> group : tleTextDataByGroup.entrySet()) {
+            tlesByGroup.put(group.getKey(), parseTles(group.getValue(), 0, group.getValue().size()));
+        }
+
+        return buildFromParsedTles(tlesByGroup);
+
+    }
+
+    /**
+     * Builds TLE data store from already parsed TLEs, grouped by source
+     * <p>
+     * If a satellite appears more than once, the last one wins, same as
+     * when building from the strings.
+     *
+     * @param tlesByGroup TLE objects, keyed by source group name
+     * @return built TLE data store or null if there are no TLEs
+     */
+    public static TleDataStore buildFromParsedTles(Map<String, List<TLEPlus>> tlesByGroup) {
+
+        if (tlesByGroup == null || tlesByGroup.isEmpty()) {
+            return null;
+        }
+
+        Map<Integer, TLEPlus> tleBySatelliteId = new HashMap<>();
+        Map<String, TLEPlus> tleByInternationalDesignator = new HashMap<>();
+        Map<String, List<Integer>> satelliteIdsByGroup = new HashMap<>();
+
+        int numContructedTles = 0;
+
+        for (Map.Entry<String, List<TLEPlus>> group : tlesByGroup.entrySet()) {
+            List<Integer> groupIds = new ArrayList<>(group.getValue().size());
+            addTles(group.getValue(), tleBySatelliteId, tleByInternationalDesignator, groupIds);
+            satelliteIdsByGroup.put(group.getKey(), groupIds);
+            numContructedTles += group.getValue().size();
+        }
+
+        return buildStore(tleBySatelliteId, tleByInternationalDesignator, satelliteIdsByGroup, numContructedTles);
+
+    }
+
+    /**
+     * Parses a part of TLE data
+     * <p>
+     * Only the TLEs whose line2 is within the given range are parsed, but
+     * line1 and the name may precede the range. This allows the data to
+     * be split into ranges and parsed in parallel.
+     *
+     * @param tleTextData TLE data as a list of strings
+     * @param from        first line index, inclusive
+     * @param to          last line index, exclusive
+     * @return parsed TLE objects, in the order of appearance
+     */
+    public static List<TLEPlus> parseTles(List<String> tleTextData, int from, int to) {
+        return parseTles(tleTextData, from, to, null);
+    }
+
+    /**
+     * Parses a part of TLE data, reusing the unchanged TLE objects
+     * <p>
+     * A previous TLE object of the same satellite is reused if its name
+     * and lines are the same, i.e. it has the same epoch and elements, so
+     * only the new and the updated TLEs are constructed.
+     *
+     * @param tleTextData  TLE data as a list of strings
+     * @param from         first line index, inclusive
+     * @param to           last line index, exclusive
+     * @param previousTles previous TLE objects, indexed by Satellite Catalog Number; may be null
+     * @return parsed TLE objects, in the order of appearance
+     * @see #parseTles(List, int, int)
+     */
+    public static List<TLEPlus> parseTles(List<String> tleTextData, int from, int to, Map<Integer, TLEPlus> previousTles) {
+
+        List<TLEPlus> tles = new ArrayList<>((to - from) / 3 + 1);
+
         String line;
         String lineMinus1;
         String lineMinus2;
 
-        int numContructedTles = 0;
-
         // we're looking for a valid line2 and then working our way back
         // to fetch the data for a valid TLE
-        for (int i = 0; i < tleTextData.size(); i++) {
+        for (int i = from; i < to; i++) {
 
             line = tleTextData.get(i);
 
@@ -57,43 +156,131 @@ public class TleDataStoreBuilder {
                 lineMinus2 = null;
             }
 
-            TLEPlus singleTle = buildSingleTle(lineMinus2, lineMinus1, line);
+            TLEPlus singleTle = buildSingleTle(lineMinus2, lineMinus1, line, previousTles);
 
             if (singleTle != null) {
+                tles.add(singleTle);
+            }
+
+        }
+
+        return tles;
+
+    }
+
+    /**
+     * Compares two TLE data stores
+     * <p>
+     * TLE objects are compared by reference, so the stores should be built
+     * with {@link #parseTles(List, int, int, Map)}, reusing the unchanged ones.
+     *
+     * @param previous previous TLE data store; may be null
+     * @param current  new TLE data store; may be null
+     * @return satellites added, updated and removed in the new store
+     */
+    public static TleChangeset diff(TleDataStore previous, TleDataStore current) {
+
+        Map<Integer, TLEPlus> previousTles = previous != null ? previous.getTleMapBySatelliteId() : Collections.emptyMap();
+        Map<Integer, TLEPlus> currentTles = current != null ? current.getTleMapBySatelliteId() : Collections.emptyMap();
 
-                numContructedTles++;
+        Set<Integer> added = new HashSet<>();
+        Set<Integer> updated = new HashSet<>();
+        Set<Integer> removed = new HashSet<>();
 
-                tleBySatelliteId.put(singleTle.getSatelliteNumber(), singleTle);
-                tleByInternationalDesignator.put(singleTle.getInternationalDesignator(), singleTle);
+        for (Map.Entry<Integer, TLEPlus> entry : currentTles.entrySet()) {
+            TLEPlus previousTle = previousTles.get(entry.getKey());
+            if (previousTle == null) {
+                added.add(entry.getKey());
+            } else if (previousTle != entry.getValue()) {
+                updated.add(entry.getKey());
             }
+        }
 
+        for (Integer satelliteId : previousTles.keySet()) {
+            if (!currentTles.containsKey(satelliteId)) {
+                removed.add(satelliteId);
+            }
         }
 
+        return new TleChangeset(added, updated, removed);
+
+    }
+
+    /**
+     * Builds TLE data store from the populated maps
+     * <p>
+     * The maps are only used to resolve the duplicates (the last one wins);
+     * the store keeps a compact index built from them. The store isn't
+     * versioned yet.
+     *
+     * @param tleBySatelliteId             TLE objects, indexed by Satellite Catalog Number
+     * @param tleByInternationalDesignator TLE objects, indexed by International Designator
+     * @param satelliteIdsByGroup          Satellite Catalog Numbers, grouped by source
+     * @param numContructedTles            number of constructed TLEs, for logging
+     * @return built TLE data store or null if there are no TLEs
+     */
+    private static TleDataStore buildStore(Map<Integer, TLEPlus> tleBySatelliteId,
+                                           Map<String, TLEPlus> tleByInternationalDesignator,
+                                           Map<String, List<Integer>> satelliteIdsByGroup,
+                                           int numContructedTles) {
+
         if (tleBySatelliteId.isEmpty() || tleByInternationalDesignator.isEmpty()) {
             return null;
         }
 
         log.info("Number of constructed TLEs: " + numContructedTles);
 
-        return new TleDataStore(tleBySatelliteId, tleByInternationalDesignator);
+        for (Map.Entry<String, List<Integer>> group : satelliteIdsByGroup.entrySet()) {
+            group.setValue(Collections.unmodifiableList(group.getValue()));
+        }
+
+        CatalogIndex catalogIndex = CatalogIndex.of(tleBySatelliteId, tleByInternationalDesignator);
+
+        return new TleDataStore(catalogIndex,
+                CatalogSearchIndex.of(catalogIndex.getTles()),
+                ElementIndex.of(catalogIndex.getTles()),
+                Collections.unmodifiableMap(satelliteIdsByGroup),
+                0);
 
     }
 
     /**
-     * Builds a single TLEPlus object
+     * Adds the TLEs to the maps
      *
-     * @param satName satellite name
-     * @param line1   TLE line1
-     * @param line2   TLE line2
-     * @return TLE object or null in case of error
+     * @param tles                         TLE objects
+     * @param tleBySatelliteId             TLE objects, indexed by Satellite Catalog Number
+     * @param tleByInternationalDesignator TLE objects, indexed by International Designator
+     * @param groupIds                     receives the Satellite Catalog Numbers; may be null
      */
-    private static TLEPlus buildSingleTle(String satName, String line1, String line2) {
+    private static void addTles(List<TLEPlus> tles,
+                                Map<Integer, TLEPlus> tleBySatelliteId,
+                                Map<String, TLEPlus> tleByInternationalDesignator,
+                                List<Integer> groupIds) {
 
-        if (!TLEPlus.looksLikeTleLine(line1, 1) || !TLEPlus.looksLikeTleLine(line2, 2)) {
-            return null;
+        for (TLEPlus tle : tles) {
+
+            tleBySatelliteId.put(tle.getSatelliteNumber(), tle);
+            tleByInternationalDesignator.put(tle.getInternationalDesignator(), tle);
+
+            if (groupIds != null) {
+                groupIds.add(tle.getSatelliteNumber());
+            }
         }
 
-        if (!TLEPlus.isFormatOK(line1, line2)) {
+    }
+
+    /**
+     * Builds a single TLEPlus object, or reuses the previous one
+     *
+     * @param satName      satellite name
+     * @param line1        TLE line1
+     * @param line2        TLE line2
+     * @param previousTles previous TLE objects, indexed by Satellite Catalog Number; may be null
+     * @return TLE object or null in case of error
+     */
+    private static TLEPlus buildSingleTle(String satName, String line1, String line2, Map<Integer, TLEPlus> previousTles) {
+
+        if (!TLEPlus.looksLikeTleLine(line1, 1) || !TLEPlus.looksLikeTleLine(line2, 2)) {
             return null;
         }
 
@@ -102,11 +289,57 @@ public class TleDataStoreBuilder {
         }
 
         if (!TLEPlus.isValidSatelliteTitle(satName)) {
-            return new TLEPlus(null, line1, line2);
+            satName = null;
+        }
+
+        TLEPlus previousTle = findUnchangedTle(satName, line1, line2, previousTles);
+
+        if (previousTle != null) {
+            return previousTle;
+        }
+
+        if (!TLEPlus.isFormatOK(line1, line2)) {
+            return null;
         }
 
         return new TLEPlus(satName, line1, line2);
 
     }
 
+    /**
+     * Finds the previous TLE object with the same name and lines
+     *
+     * @param satName      satellite name, already validated; may be null
+     * @param line1        TLE line1
+     * @param line2        TLE line2
+     * @param previousTles previous TLE objects, indexed by Satellite Catalog Number; may be null
+     * @return previous TLE object or null if there is none, or the TLE has changed
+     */
+    private static TLEPlus findUnchangedTle(String satName, String line1, String line2, Map<Integer, TLEPlus> previousTles) {
+
+        if (previousTles == null) {
+            return null;
+        }
+
+        int satelliteNumber;
+
+        try {
+            satelliteNumber = Integer.parseInt(line1.substring(2, 7).trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        TLEPlus previousTle = previousTles.get(satelliteNumber);
+
+        if (previousTle == null
+                || !previousTle.getLine1().equals(line1)
+                || !previousTle.getLine2().equals(line2)
+                || !previousTle.getName().equals(satName == null ? "" : satName)) {
+            return null;
+        }
+
+        return previousTle;
+
+    }
+
 }
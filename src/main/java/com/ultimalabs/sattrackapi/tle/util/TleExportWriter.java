@@ -0,0 +1,311 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.orekit.time.TimeScalesFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializes TLEs for the bulk export
+ * <p>
+ * Numeric fields of the JSON and binary formats are taken from the TLE
+ * lines as they are, so the exported values are exactly the ones in the
+ * TLE source (angles in degrees, mean motion in revolutions per day,
+ * first and second mean motion derivatives divided by 2 and 6).
+ */
+public class TleExportWriter {
+
+    /**
+     * Binary format magic number, "TLEB"
+     */
+    public static final int BINARY_MAGIC = 0x544c4542;
+
+    /**
+     * Binary format version
+     */
+    public static final short BINARY_VERSION = 1;
+
+    /**
+     * Binary header size, in bytes
+     */
+    public static final int BINARY_HEADER_SIZE = 12;
+
+    /**
+     * Binary record size, in bytes
+     */
+    public static final int BINARY_RECORD_SIZE = 124;
+
+    /**
+     * Name field length in the 3LE and binary formats
+     */
+    private static final int NAME_LENGTH = 24;
+
+    /**
+     * Designator field length in the binary format
+     */
+    private static final int DESIGNATOR_LENGTH = 8;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private TleExportWriter() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Writes the TLEs as 3LE text
+     * <p>
+     * Names are padded to 24 characters; TLEs without a name are written
+     * as two lines. Lines are separated with a line feed.
+     *
+     * @param tles TLE objects
+     * @return 3LE text, UTF-8 encoded
+     */
+    public static byte[] write3le(Collection<TLEPlus> tles) {
+
+        StringBuilder text = new StringBuilder(tles.size() * (NAME_LENGTH + 2 * 69 + 3));
+
+        for (TLEPlus tle : tles) {
+            String name = tle.getName();
+            if (!name.isEmpty()) {
+                text.append(name);
+                for (int i = name.length(); i < NAME_LENGTH; i++) {
+                    text.append(' ');
+                }
+                text.append('\n');
+            }
+            text.append(tle.getLine1()).append('\n');
+            text.append(tle.getLine2()).append('\n');
+        }
+
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the TLEs as a JSON array of objects with the OMM keywords
+     *
+     * @param tles TLE objects
+     * @return JSON array, UTF-8 encoded
+     */
+    public static byte[] writeJson(Collection<TLEPlus> tles) {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(tles.size() * 512);
+
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+
+            json.writeStartArray();
+
+            for (TLEPlus tle : tles) {
+                String line1 = tle.getLine1();
+                String line2 = tle.getLine2();
+
+                json.writeStartObject();
+                json.writeStringField("OBJECT_NAME", tle.getName());
+                json.writeStringField("OBJECT_ID", getLongDesignator(tle));
+                json.writeStringField("EPOCH", tle.getDate().toString(TimeScalesFactory.getUTC()));
+                json.writeFieldName("MEAN_MOTION");
+                json.writeNumber(field(line2, 52, 63));
+                json.writeFieldName("ECCENTRICITY");
+                json.writeNumber(eccentricity(line2));
+                json.writeFieldName("INCLINATION");
+                json.writeNumber(field(line2, 8, 16));
+                json.writeFieldName("RA_OF_ASC_NODE");
+                json.writeNumber(field(line2, 17, 25));
+                json.writeFieldName("ARG_OF_PERICENTER");
+                json.writeNumber(field(line2, 34, 42));
+                json.writeFieldName("MEAN_ANOMALY");
+                json.writeNumber(field(line2, 43, 51));
+                json.writeNumberField("EPHEMERIS_TYPE", tle.getEphemerisType());
+                json.writeStringField("CLASSIFICATION_TYPE", String.valueOf(tle.getClassification()));
+                json.writeNumberField("NORAD_CAT_ID", tle.getSatelliteNumber());
+                json.writeNumberField("ELEMENT_SET_NO", tle.getElementNumber());
+                json.writeNumberField("REV_AT_EPOCH", tle.getRevolutionNumberAtEpoch());
+                json.writeFieldName("BSTAR");
+                json.writeNumber(exponential(line1, 53, 61));
+                json.writeFieldName("MEAN_MOTION_DOT");
+                json.writeNumber(decimal(line1, 33, 43));
+                json.writeFieldName("MEAN_MOTION_DDOT");
+                json.writeNumber(exponential(line1, 44, 52));
+                json.writeEndObject();
+            }
+
+            json.writeEndArray();
+
+        } catch (IOException e) {
+            // writing to memory
+            throw new UncheckedIOException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes the TLEs as fixed-size binary records
+     * <p>
+     * Header: magic number "TLEB", format version (short), record size
+     * (short) and number of records (int). Each record: Satellite Catalog
+     * Number (int), epoch in milliseconds since the Unix epoch (long), mean
+     * motion, eccentricity, inclination, RAAN, argument of perigee, mean
+     * anomaly, BSTAR, first and second mean motion derivative (doubles),
+     * revolution number at epoch (int), element set number (short),
+     * ephemeris type and classification (bytes), International Designator
+     * (8 bytes) and name (24 bytes), both ASCII and space padded. All the
+     * numbers are big-endian.
+     *
+     * @param tles TLE objects
+     * @return binary records
+     */
+    public static byte[] writeBinary(Collection<TLEPlus> tles) {
+
+        ByteBuffer buffer = ByteBuffer.allocate(BINARY_HEADER_SIZE + tles.size() * BINARY_RECORD_SIZE);
+
+        buffer.putInt(BINARY_MAGIC);
+        buffer.putShort(BINARY_VERSION);
+        buffer.putShort((short) BINARY_RECORD_SIZE);
+        buffer.putInt(tles.size());
+
+        for (TLEPlus tle : tles) {
+            String line1 = tle.getLine1();
+            String line2 = tle.getLine2();
+
+            buffer.putInt(tle.getSatelliteNumber());
+            buffer.putLong(tle.getDate().toDate(TimeScalesFactory.getUTC()).getTime());
+            buffer.putDouble(Double.parseDouble(field(line2, 52, 63)));
+            buffer.putDouble(Double.parseDouble(eccentricity(line2)));
+            buffer.putDouble(Double.parseDouble(field(line2, 8, 16)));
+            buffer.putDouble(Double.parseDouble(field(line2, 17, 25)));
+            buffer.putDouble(Double.parseDouble(field(line2, 34, 42)));
+            buffer.putDouble(Double.parseDouble(field(line2, 43, 51)));
+            buffer.putDouble(Double.parseDouble(exponential(line1, 53, 61)));
+            buffer.putDouble(Double.parseDouble(decimal(line1, 33, 43)));
+            buffer.putDouble(Double.parseDouble(exponential(line1, 44, 52)));
+            buffer.putInt(tle.getRevolutionNumberAtEpoch());
+            buffer.putShort((short) tle.getElementNumber());
+            buffer.put((byte) tle.getEphemerisType());
+            buffer.put((byte) tle.getClassification());
+            putAscii(buffer, tle.getInternationalDesignator(), DESIGNATOR_LENGTH);
+            putAscii(buffer, tle.getName(), NAME_LENGTH);
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * Compresses the data with gzip
+     *
+     * @param data uncompressed data
+     * @return compressed data
+     */
+    public static byte[] gzip(byte[] data) {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            // writing to memory
+            throw new UncheckedIOException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the longer International Designator variant, e.g. "1998-067A"
+     *
+     * @param tle TLE object
+     * @return International Designator
+     */
+    private static String getLongDesignator(TLEPlus tle) {
+        String designator = tle.getInternationalDesignator();
+        int year = tle.getLaunchYear() < 100 ? (tle.getLaunchYear() < 57 ? 2000 : 1900) + tle.getLaunchYear() : tle.getLaunchYear();
+        return year + "-" + designator.substring(2);
+    }
+
+    /**
+     * Returns a trimmed TLE field
+     *
+     * @param line TLE line
+     * @param from first column, zero-based
+     * @param to   column after the last one
+     * @return field text
+     */
+    static String field(String line, int from, int to) {
+        return line.substring(from, to).trim();
+    }
+
+    /**
+     * Returns the eccentricity, with the implied leading decimal point
+     *
+     * @param line2 second TLE line
+     * @return eccentricity text, e.g. "0.0004049"
+     */
+    static String eccentricity(String line2) {
+        return "0." + field(line2, 26, 33);
+    }
+
+    /**
+     * Returns a decimal TLE field, adding the leading zero if missing
+     *
+     * @param line TLE line
+     * @param from first column, zero-based
+     * @param to   column after the last one
+     * @return decimal number text, e.g. "-0.00000050" for "-.00000050"
+     */
+    static String decimal(String line, int from, int to) {
+
+        String text = field(line, from, to);
+        String sign = "";
+
+        if (text.startsWith("-") || text.startsWith("+")) {
+            sign = text.startsWith("-") ? "-" : "";
+            text = text.substring(1);
+        }
+
+        return sign + (text.startsWith(".") ? "0" + text : text);
+    }
+
+    /**
+     * Returns a TLE field in the exponential notation with an implied decimal point
+     *
+     * @param line TLE line
+     * @param from first column, zero-based
+     * @param to   column after the last one
+     * @return number text, e.g. "0.67055E-5" for "67055-5"
+     */
+    static String exponential(String line, int from, int to) {
+
+        String text = field(line, from, to);
+        String sign = "";
+
+        if (text.startsWith("-") || text.startsWith("+")) {
+            sign = text.startsWith("-") ? "-" : "";
+            text = text.substring(1).trim();
+        }
+
+        int exponentStart = text.length() - 2;
+        return sign + "0." + text.substring(0, exponentStart) + "E" + text.substring(exponentStart);
+    }
+
+    /**
+     * Writes a fixed length ASCII field
+     *
+     * @param buffer target buffer
+     * @param text   text; non-ASCII characters are replaced by '?', longer text is truncated
+     * @param length field length
+     */
+    private static void putAscii(ByteBuffer buffer, String text, int length) {
+        for (int i = 0; i < length; i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            buffer.put((byte) (c < 128 ? c : '?'));
+        }
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.ultimalabs.sattrackapi.common.model.UrlData;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * On-disk cache of the TLE sources
+ * <p>
+ * Each source is kept as two files: the body, as downloaded, and a
+ * properties file with its ETag and Last-Modified validators. The
+ * properties file is written last, so a source is only loaded if both
+ * files were written completely.
+ */
+@Slf4j
+public class TleSourceCache {
+
+    private static final String URL_KEY = "url";
+    private static final String ETAG_KEY = "etag";
+    private static final String LAST_MODIFIED_KEY = "lastModified";
+
+    /**
+     * Cache folder, or null if the cache is disabled
+     */
+    private final Path folder;
+
+    /**
+     * Creates the cache
+     *
+     * @param folder cache folder; null or empty disables the cache
+     */
+    public TleSourceCache(String folder) {
+        this.folder = folder == null || folder.isEmpty() ? null : Paths.get(folder);
+    }
+
+    /**
+     * Whether a cache folder is configured
+     *
+     * @return true if the cache is enabled
+     */
+    public boolean isEnabled() {
+        return folder != null;
+    }
+
+    /**
+     * Loads a cached TLE source
+     *
+     * @param tleUrl TLE source URL
+     * @return cached data, or null if the source isn't cached
+     */
+    public UrlData load(String tleUrl) {
+
+        if (folder == null) {
+            return null;
+        }
+
+        Path body = folder.resolve(getFileName(tleUrl));
+        Path meta = folder.resolve(getFileName(tleUrl) + ".properties");
+
+        if (!Files.isRegularFile(body) || !Files.isRegularFile(meta)) {
+            return null;
+        }
+
+        try (Reader reader = Files.newBufferedReader(meta, StandardCharsets.UTF_8)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+
+            if (!tleUrl.equals(properties.getProperty(URL_KEY))) {
+                return null;
+            }
+
+            List<String> lines = Files.readAllLines(body, StandardCharsets.UTF_8);
+            return new UrlData(lines, properties.getProperty(ETAG_KEY), properties.getProperty(LAST_MODIFIED_KEY));
+        } catch (IOException e) {
+            log.error("There was an error reading cached TLE data for " + tleUrl + ": " + e);
+            return null;
+        }
+
+    }
+
+    /**
+     * Stores a TLE source, replacing the previously cached one
+     *
+     * @param tleUrl TLE source URL
+     * @param data   downloaded data
+     */
+    public void store(String tleUrl, UrlData data) {
+
+        if (folder == null) {
+            return;
+        }
+
+        Path body = folder.resolve(getFileName(tleUrl));
+        Path meta = folder.resolve(getFileName(tleUrl) + ".properties");
+
+        Properties properties = new Properties();
+        properties.setProperty(URL_KEY, tleUrl);
+        if (data.getEtag() != null) {
+            properties.setProperty(ETAG_KEY, data.getEtag());
+        }
+        if (data.getLastModified() != null) {
+            properties.setProperty(LAST_MODIFIED_KEY, data.getLastModified());
+        }
+
+        try {
+            Files.createDirectories(folder);
+
+            // invalidate the entry first, so a partially written body is never loaded
+            Files.deleteIfExists(meta);
+
+            Path tempBody = Files.createTempFile(folder, "tle", ".tmp");
+            Files.write(tempBody, data.getLines(), StandardCharsets.UTF_8);
+            move(tempBody, body);
+
+            Path tempMeta = Files.createTempFile(folder, "tle", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tempMeta, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            move(tempMeta, meta);
+        } catch (IOException e) {
+            log.error("There was an error caching TLE data for " + tleUrl + ": " + e);
+        }
+
+    }
+
+    /**
+     * Replaces the target file, atomically if possible
+     *
+     * @param source source file
+     * @param target target file
+     * @throws IOException in case of error
+     */
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns the cache file name for a TLE source URL
+     * <p>
+     * The scheme is dropped and all the characters except letters,
+     * digits, dots and dashes are replaced by underscores, e.g.
+     * "download.ultimalabs.com_files_tle_weather.txt".
+     *
+     * @param tleUrl TLE source URL
+     * @return file name
+     */
+    static String getFileName(String tleUrl) {
+
+        String name = tleUrl;
+
+        int schemeEnd = name.indexOf("://");
+        if (schemeEnd >= 0) {
+            name = name.substring(schemeEnd + 3);
+        }
+
+        StringBuilder fileName = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '.' || c == '-';
+            fileName.append(allowed ? c : '_');
+        }
+
+        return fileName.toString();
+    }
+
+}
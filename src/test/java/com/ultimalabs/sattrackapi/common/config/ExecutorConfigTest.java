@@ -0,0 +1,35 @@
+package com.ultimalabs.sattrackapi.common.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest(properties = {
+        "spring.task.execution.pool.max-size=2",
+        "spring.task.execution.pool.queue-capacity=3"})
+class ExecutorConfigTest {
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private ThreadPoolTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @DisplayName("Streamed responses run on the bounded application executor")
+    @Test
+    void mvcAsyncExecutor() {
+        assertSame(applicationTaskExecutor, ReflectionTestUtils.getField(handlerAdapter, "taskExecutor"));
+        assertEquals(2, applicationTaskExecutor.getMaxPoolSize());
+        assertEquals(3, applicationTaskExecutor.getThreadPoolExecutor().getQueue().remainingCapacity());
+    }
+
+}
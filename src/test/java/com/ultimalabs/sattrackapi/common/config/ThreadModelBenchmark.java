@@ -0,0 +1,188 @@
+package com.ultimalabs.sattrackapi.common.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput and latency of the cheap endpoints under a load of slow pass
+ * requests, with platform and with virtual request threads
+ * <p>
+ * Both variants limit Tomcat to the same number of worker threads, which
+ * only applies to the platform threads. Run with "./gradlew benchmark" for
+ * the platform threads, and with "./gradlew benchmark -PvirtualThreads"
+ * (on Java 21) for both; the virtual thread variant is skipped on older
+ * JVMs.
+ */
+@Tag("benchmark")
+abstract class ThreadModelBenchmark {
+
+    private static final long WARMUP_MILLIS = 5000;
+
+    private static final long MEASUREMENT_MILLIS = 20000;
+
+    /**
+     * Number of concurrent clients
+     */
+    private static final int CLIENTS = 64;
+
+    /**
+     * Every n-th request is a slow one
+     */
+    private static final int SLOW_EVERY = 8;
+
+    private static final String CHEAP_PATH = "/api/v1/tles/25544";
+
+    private static final String SLOW_PATH = "/api/v1/passes/25544/lat/46.1613/lon/15.7534/alt/200/minEl/0/hours/240";
+
+    @LocalServerPort
+    private int port;
+
+    /**
+     * Latencies and outcomes of a single request type
+     */
+    private static class Samples {
+
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        private final List<Integer> statuses = Collections.synchronizedList(new ArrayList<>());
+
+        void add(long nanos, int status) {
+            latencies.add(nanos);
+            statuses.add(status);
+        }
+
+        void print(String model, String type, double seconds) {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            long failed = statuses.stream().filter(status -> status != HttpURLConnection.HTTP_OK).count();
+
+            System.out.printf("%-8s %-5s requests: %6d, failed: %5d, throughput: %7.1f/s, p50: %7.1f ms, p99: %7.1f ms%n",
+                    model, type, sorted.size(), failed, sorted.size() / seconds,
+                    percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6);
+        }
+
+        private static double percentile(List<Long> sorted, double p) {
+            return sorted.isEmpty() ? Double.NaN : sorted.get((int) Math.ceil(p * sorted.size()) - 1);
+        }
+    }
+
+    /**
+     * Returns the name of the thread model
+     *
+     * @return thread model name
+     */
+    abstract String model();
+
+    @DisplayName("Cheap endpoint latency under slow pass requests")
+    @Test
+    void throughputAndLatency() throws Exception {
+
+        // TLE data is loaded in the background
+        long loaded = System.currentTimeMillis() + 60000;
+        while (request(CHEAP_PATH) != HttpURLConnection.HTTP_OK && System.currentTimeMillis() < loaded) {
+            Thread.sleep(500);
+        }
+
+        run(WARMUP_MILLIS, new Samples(), new Samples());
+
+        Samples cheap = new Samples();
+        Samples slow = new Samples();
+        run(MEASUREMENT_MILLIS, cheap, slow);
+
+        cheap.print(model(), "cheap", MEASUREMENT_MILLIS / 1000.);
+        slow.print(model(), "slow", MEASUREMENT_MILLIS / 1000.);
+
+        assertTrue(cheap.latencies.size() > 0);
+    }
+
+    /**
+     * Sends requests from all the clients for the given time
+     *
+     * @param millis duration, in milliseconds
+     * @param cheap  cheap request samples
+     * @param slow   slow request samples
+     */
+    private void run(long millis, Samples cheap, Samples slow) throws InterruptedException {
+
+        long end = System.currentTimeMillis() + millis;
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+
+        for (int i = 0; i < CLIENTS; i++) {
+            int client = i;
+            clients.execute(() -> {
+                for (int n = client; System.currentTimeMillis() < end; n++) {
+                    boolean isSlow = n % SLOW_EVERY == 0;
+                    long start = System.nanoTime();
+                    int status = request(isSlow ? SLOW_PATH : CHEAP_PATH);
+                    (isSlow ? slow : cheap).add(System.nanoTime() - start, status);
+                }
+            });
+        }
+
+        clients.shutdown();
+        clients.awaitTermination(millis + 120000, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends a request and reads the response
+     *
+     * @param path request path
+     * @return response status, or -1 if the request failed
+     */
+    private int request(String path) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+            int status = connection.getResponseCode();
+            try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                if (in != null) {
+                    byte[] buffer = new byte[8192];
+                    while (in.read(buffer) != -1) {
+                        // drain the response, so the connection is reused
+                    }
+                }
+            }
+            return status;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = "server.tomcat.threads.max=16")
+    static class PlatformThreads extends ThreadModelBenchmark {
+
+        @Override
+        String model() {
+            return "platform";
+        }
+    }
+
+    @EnabledIf("com.ultimalabs.sattrackapi.common.util.VirtualThreads#isSupported")
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {"server.tomcat.threads.max=16", "sattrack.virtualThreads=true"})
+    static class VirtualThreads extends ThreadModelBenchmark {
+
+        @Override
+        String model() {
+            return "virtual";
+        }
+    }
+
+}
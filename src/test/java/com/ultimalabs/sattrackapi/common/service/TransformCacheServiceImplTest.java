@@ -0,0 +1,126 @@
+package com.ultimalabs.sattrackapi.common.service;
+
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.common.model.EarthParams;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+import org.orekit.frames.FramesFactory;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransformCacheServiceImplTest {
+
+    /**
+     * Number of positions compared against the exact transform
+     */
+    private static final int CHECKS = 1000;
+
+    private static TLEPropagator propagator;
+
+    private static AbsoluteDate start;
+
+    @BeforeAll
+    static void setup() {
+        // Orekit setup: at least a single file, "tai-utc.dat"
+        // should be present in "src/test/resources" folder
+        File orekitData = new File(".");
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+
+        TLE iss = new TLE(
+                "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405");
+        propagator = TLEPropagator.selectExtrapolator(iss);
+        start = iss.getDate();
+    }
+
+    private static SatTrackConfig config(double resolution, boolean interpolation) {
+        SatTrackConfig config = new SatTrackConfig();
+        config.setTransformCacheResolution(resolution);
+        config.setTransformCacheInterpolation(interpolation);
+        return config;
+    }
+
+    /**
+     * Returns the largest position error of the cached transforms
+     *
+     * @param service transform cache
+     * @return largest error, in meters
+     */
+    private static double largestError(TransformCacheService service) {
+        double largest = 0.;
+        for (int i = 0; i < CHECKS; i++) {
+            // dates spread over the buckets, with a few requests per bucket
+            SpacecraftState state = propagator.propagate(start.shiftedBy(i * 0.0137));
+            Vector3D teme = state.getPVCoordinates().getPosition();
+            Vector3D exact = FramesFactory.getTEME().getTransformTo(EarthParams.iers2010Frame, state.getDate()).transformPosition(teme);
+            Vector3D cached = service.getTemeToEarth(state.getDate()).transformPosition(teme);
+            largest = Math.max(largest, cached.distance(exact));
+        }
+        return largest;
+    }
+
+    private static double hitRate(MeterRegistry meterRegistry) {
+        double hits = meterRegistry.get("cache.gets").tag("cache", "transforms").tag("result", "hit").functionCounter().count();
+        double misses = meterRegistry.get("cache.gets").tag("cache", "transforms").tag("result", "miss").functionCounter().count();
+        return hits / (hits + misses);
+    }
+
+    @DisplayName("Transforms in the same bucket are shared")
+    @Test
+    void sharedBucket() {
+        TransformCacheService service = new TransformCacheServiceImpl(config(0.1, false), new SimpleMeterRegistry());
+
+        assertSame(service.getTemeToEarth(start), service.getTemeToEarth(start.shiftedBy(0.04)));
+        assertNotSame(service.getTemeToEarth(start), service.getTemeToEarth(start.shiftedBy(0.1)));
+    }
+
+    @DisplayName("Interpolated transforms are exact")
+    @Test
+    void interpolation() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TransformCacheService service = new TransformCacheServiceImpl(config(0.1, true), meterRegistry);
+
+        double error = largestError(service);
+
+        assertTrue(error < 1e-3, "error " + error + " m");
+        assertEquals(1. - 138. / CHECKS, hitRate(meterRegistry), 0.01);
+    }
+
+    @DisplayName("Bucket transforms are off by the Earth rotation within half a bucket")
+    @Test
+    void bucketError() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TransformCacheService service = new TransformCacheServiceImpl(config(0.001, false), meterRegistry);
+
+        double error = largestError(service);
+
+        // Earth rotation rate times 6800 km times half a millisecond
+        assertTrue(error < 0.3, "error " + error + " m");
+    }
+
+    @DisplayName("Disabled cache computes the exact transforms")
+    @Test
+    void disabled() {
+        SatTrackConfig config = config(0.1, false);
+        config.setTransformCacheSize(0);
+
+        assertEquals(0., largestError(new TransformCacheServiceImpl(config, new SimpleMeterRegistry())), 1e-9);
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.ultimalabs.sattrackapi.common.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DoubleRoundTest {
+
+    @DisplayName("Test rounding half up")
+    @Test
+    void roundHalfUp() {
+        assertEquals(12.35, DoubleRound.round(12.345, 2));
+        assertEquals(-12.35, DoubleRound.round(-12.345, 2));
+        assertEquals(3.0, DoubleRound.round(2.5, 0));
+        assertEquals(123457.0, DoubleRound.round(123456.789, 0));
+    }
+
+    @DisplayName("Test no negative zero")
+    @Test
+    void noNegativeZero() {
+        assertEquals(0.0, DoubleRound.round(-0.001, 2));
+    }
+
+    @DisplayName("Test negative decimal places")
+    @Test
+    void negativePlaces() {
+        assertThrows(IllegalArgumentException.class, () -> DoubleRound.round(1.0, -1));
+    }
+
+    @DisplayName("Test fast path against BigDecimal, pass data ranges")
+    @Test
+    void fastPathMatchesBigDecimal() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100000; i++) {
+            double angle = random.nextDouble() * 360. - 90.;
+            double distance = random.nextDouble() * 4e7;
+
+            assertEquals(bigDecimalRound(angle, 2), DoubleRound.round(angle, 2));
+            assertEquals(bigDecimalRound(distance, 0), DoubleRound.round(distance, 0));
+        }
+    }
+
+    @DisplayName("Test halves which aren't exact in binary")
+    @Test
+    void inexactHalves() {
+        assertEquals(1.01, DoubleRound.round(1.005, 2));
+        assertEquals(0.29, DoubleRound.round(0.285, 2));
+        assertEquals(-0.29, DoubleRound.round(-0.285, 2));
+        assertEquals(1.3, DoubleRound.round(1.25, 1));
+    }
+
+    @DisplayName("Test fast path against BigDecimal, values with one more decimal place")
+    @Test
+    void fastPathMatchesBigDecimalOnDecimals() {
+        Random random = new Random(42);
+
+        for (int places = 0; places < 9; places++) {
+            double scale = Math.pow(10, places + 1);
+            for (int i = 0; i < 100000; i++) {
+                double value = (random.nextInt(2000000001) - 1000000000) / scale;
+                assertEquals(bigDecimalRound(value, places), DoubleRound.round(value, places), value + " to " + places + " places");
+            }
+        }
+    }
+
+    private static double bigDecimalRound(double value, int places) {
+        return BigDecimal.valueOf(value).setScale(places, RoundingMode.HALF_UP).doubleValue();
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.ultimalabs.sattrackapi.common.util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimestampFormatTest {
+
+    @BeforeAll
+    static void setup() {
+        // Orekit setup: at least a single file, "tai-utc.dat"
+        // should be present in "src/test/resources" folder
+        File orekitData = new File(".");
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+    }
+
+    @DisplayName("Test format")
+    @Test
+    void format() {
+        AbsoluteDate date = new AbsoluteDate(2019, 3, 4, 5, 6, 7.089, TimeScalesFactory.getUTC());
+        assertEquals("2019-03-04T05:06:07.089", TimestampFormat.format(date));
+    }
+
+    @DisplayName("Test same as AbsoluteDate.toString()")
+    @Test
+    void sameAsToString() {
+        AbsoluteDate date = new AbsoluteDate(2019, 3, 14, 23, 59, 0., TimeScalesFactory.getUTC());
+
+        for (int i = 0; i < 10000; i++) {
+            // stay clear of the half millisecond ties
+            AbsoluteDate shifted = date.shiftedBy(i * 0.037 + 0.0002);
+            assertEquals(shifted.toString(), TimestampFormat.format(shifted));
+        }
+    }
+
+    @DisplayName("Test rounding into the next minute")
+    @Test
+    void roundingIntoNextMinute() {
+        AbsoluteDate date = new AbsoluteDate(2019, 12, 31, 23, 59, 59.9996, TimeScalesFactory.getUTC());
+        assertEquals(date.toString(), TimestampFormat.format(date));
+    }
+
+}
@@ -1,13 +1,80 @@
 package com.ultimalabs.sattrackapi.common.util;
 
+import com.sun.net.httpserver.HttpServer;
+import com.ultimalabs.sattrackapi.common.model.UrlData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class UrlDataReaderTest {
 
+    private static final String ETAG = "\"5f2b-1a\"";
+    private static final String LAST_MODIFIED = "Sat, 17 Oct 2026 09:36:00 GMT";
+    private static final String BODY = "ISS (ZARYA)\n" +
+            "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996\n" +
+            "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405\n";
+
+    private HttpServer server;
+
+    private String baseUrl;
+
+    private final AtomicInteger fullResponses = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+
+        // responds with 304 if any of the validators matches
+        server.createContext("/tle/amateur.txt", exchange -> {
+            boolean notModified = ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match")) ||
+                    LAST_MODIFIED.equals(exchange.getRequestHeaders().getFirst("If-Modified-Since"));
+
+            if (notModified) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+                fullResponses.incrementAndGet();
+            }
+            exchange.close();
+        });
+
+        server.createContext("/tle/broken.txt", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
     @DisplayName("Test reading data from an invalid URL")
     @Test
     void readStringFromInvalidUrl1() {
@@ -32,4 +99,45 @@ class UrlDataReaderTest {
         assertFalse(UrlDataReader.readStringDataFromUrl("https://download.ultimalabs.com/files/tle/galileo.txt").isEmpty());
     }
 
-}
\ No newline at end of file
+    @DisplayName("Test reading data along with the cache validators")
+    @Test
+    void readWithValidators() {
+        UrlData data = UrlDataReader.readStringDataFromUrl(baseUrl + "/tle/amateur.txt", null);
+
+        assertEquals(Arrays.asList(BODY.split("\n")), data.getLines());
+        assertEquals(ETAG, data.getEtag());
+        assertEquals(LAST_MODIFIED, data.getLastModified());
+    }
+
+    @DisplayName("Test conditional request returning previous data if not modified")
+    @Test
+    void readNotModified() {
+        UrlData data = UrlDataReader.readStringDataFromUrl(baseUrl + "/tle/amateur.txt", null);
+
+        assertSame(data, UrlDataReader.readStringDataFromUrl(baseUrl + "/tle/amateur.txt", data));
+
+        UrlData withoutEtag = new UrlData(data.getLines(), null, LAST_MODIFIED);
+        assertSame(withoutEtag, UrlDataReader.readStringDataFromUrl(baseUrl + "/tle/amateur.txt", withoutEtag));
+
+        assertEquals(1, fullResponses.get());
+    }
+
+    @DisplayName("Test conditional request with outdated validators")
+    @Test
+    void readModified() {
+        UrlData outdated = new UrlData(Collections.singletonList("outdated"), "\"0-0\"", "Thu, 01 Jan 2026 00:00:00 GMT");
+        UrlData data = UrlDataReader.readStringDataFromUrl(baseUrl + "/tle/amateur.txt", outdated);
+
+        assertNotSame(outdated, data);
+        assertEquals(3, data.getLines().size());
+        assertEquals(ETAG, data.getEtag());
+    }
+
+    @DisplayName("Test reading data with 500 response")
+    @Test
+    void readServerError() {
+        assertNull(UrlDataReader.readStringDataFromUrl(baseUrl + "/tle/broken.txt", null));
+        assertTrue(UrlDataReader.readStringDataFromUrl(baseUrl + "/tle/broken.txt").isEmpty());
+    }
+
+}
@@ -9,8 +9,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -77,4 +83,92 @@ class PositionControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
-}
\ No newline at end of file
+    @DisplayName("Get positions by identifiers - OK")
+    @Test
+    public void getPositionsByIds() throws Exception {
+        this.mockMvc.perform(get("/api/v1/positions?ids=25544,1998-067A,99999")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ids.length()").value(2))
+                .andExpect(jsonPath("$.notFound[0]").value("99999"));
+    }
+
+    @DisplayName("Get positions by group at a given epoch - OK")
+    @Test
+    public void getPositionsByGroup() throws Exception {
+        this.mockMvc.perform(get("/api/v1/positions?group=amateur&epoch=2019-03-14T12:00:00")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.t").exists());
+    }
+
+    @DisplayName("Post positions - OK")
+    @Test
+    public void postPositions() throws Exception {
+        this.mockMvc.perform(post("/api/v1/positions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [\"25544\", \"98067A\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lat.length()").value(2));
+    }
+
+    @DisplayName("Get positions - 400 Bad Request, no identifiers nor group")
+    @Test
+    public void getPositionsNoIds() throws Exception {
+        this.mockMvc.perform(get("/api/v1/positions")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Get positions - 400 Bad Request, invalid epoch")
+    @Test
+    public void getPositionsInvalidEpoch() throws Exception {
+        this.mockMvc.perform(get("/api/v1/positions?ids=25544&epoch=yesterday")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Get positions - 404 Not Found, unknown group")
+    @Test
+    public void getPositionsUnknownGroup() throws Exception {
+        this.mockMvc.perform(get("/api/v1/positions?group=nosuchgroup")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @DisplayName("Get ground track - OK, one point per step")
+    @Test
+    public void getGroundTrack() throws Exception {
+        MvcResult result = this.mockMvc.perform(get("/api/v1/positions/25544/track?start=2019-03-14T12:00:00&end=2019-03-14T12:10:00&step=60"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(11, body.split("\n").length);
+    }
+
+    @DisplayName("Get ground track - 400 Bad Request, end before start")
+    @Test
+    public void getGroundTrackEndBeforeStart() throws Exception {
+        this.mockMvc.perform(get("/api/v1/positions/25544/track?start=2019-03-14T12:00:00&end=2019-03-14T11:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Get ground track - 400 Bad Request, too many points")
+    @Test
+    public void getGroundTrackTooManyPoints() throws Exception {
+        this.mockMvc.perform(get("/api/v1/positions/25544/track?start=2019-03-14T12:00:00&end=2019-03-24T12:00:00&step=0.1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Get ground track - 404 Not Found")
+    @Test
+    public void getGroundTrackNotFound() throws Exception {
+        this.mockMvc.perform(get("/api/v1/positions/99999/track?end=2030-01-01T00:00:00"))
+                .andExpect(status().isNotFound());
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.ultimalabs.sattrackapi.position.service;
+
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.service.PropagatorCacheService;
+import com.ultimalabs.sattrackapi.tle.service.TleFetcherService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+
+import java.io.File;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EphemerisCacheServiceImplTest {
+
+    /**
+     * Grid executor which never runs the queued grids, so they stay pending
+     */
+    private ExecutorService executor;
+
+    private EphemerisCacheServiceImpl ephemerisCache;
+
+    @BeforeAll
+    static void setup() {
+        // Orekit setup: at least a single file, "tai-utc.dat"
+        // should be present in "src/test/resources" folder
+        File orekitData = new File(".");
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+    }
+
+    @BeforeEach
+    void createCache() {
+        executor = mock(ExecutorService.class);
+        ephemerisCache = new EphemerisCacheServiceImpl(new SatTrackConfig(), mock(TleFetcherService.class),
+                mock(PropagatorCacheService.class), executor, new SimpleMeterRegistry());
+    }
+
+    @DisplayName("Bulk lookups don't queue the grids")
+    @Test
+    void cachedPositionDoesntQueueGrid() {
+        AbsoluteDate now = new AbsoluteDate(new Date(), TimeScalesFactory.getUTC());
+
+        for (int i = 0; i < 10; i++) {
+            assertNull(ephemerisCache.getCachedPosition(satellite(i), now));
+        }
+
+        verify(executor, never()).submit(any(Runnable.class));
+    }
+
+    @DisplayName("Single satellite misses queue a grid each, up to the backlog limit")
+    @Test
+    void positionQueuesGridsUpToLimit() {
+        AbsoluteDate now = new AbsoluteDate(new Date(), TimeScalesFactory.getUTC());
+
+        for (int i = 0; i < 2 * EphemerisCacheServiceImpl.MAX_PENDING; i++) {
+            assertNull(ephemerisCache.getPosition(satellite(i), now));
+        }
+
+        verify(executor, times(EphemerisCacheServiceImpl.MAX_PENDING)).submit(any(Runnable.class));
+    }
+
+    private static TLEPlus satellite(int satelliteNumber) {
+        TLEPlus tle = mock(TLEPlus.class);
+        when(tle.getSatelliteNumber()).thenReturn(satelliteNumber);
+        return tle;
+    }
+
+}
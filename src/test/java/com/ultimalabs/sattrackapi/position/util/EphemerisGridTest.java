@@ -0,0 +1,106 @@
+package com.ultimalabs.sattrackapi.position.util;
+
+import com.ultimalabs.sattrackapi.common.model.EarthParams;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EphemerisGridTest {
+
+    /**
+     * Grid span, in seconds
+     */
+    private static final double SPAN = 3. * 3600.;
+
+    /**
+     * Number of positions compared against the propagation
+     */
+    private static final int CHECKS = 2000;
+
+    private static List<TLEPlus> tles;
+
+    @BeforeAll
+    static void setup() {
+        // Orekit setup: at least a single file, "tai-utc.dat"
+        // should be present in "src/test/resources" folder
+        File orekitData = new File(".");
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+
+        tles = Arrays.asList(
+                new TLEPlus("ISS (ZARYA)",
+                        "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                        "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405"),
+                new TLEPlus("NOAA 18 [B]",
+                        "1 28654U 05018A   19072.51504762  .00000017  00000-0  34275-4 0  9991",
+                        "2 28654  99.1102 117.9653 0015254  91.8549 268.4370 14.12409019711802"),
+                new TLEPlus("MOLNIYA TEST",
+                        "1 25485U 98054A   19072.50000000  .00000120  00000-0  12000-3 0  9993",
+                        "2 25485  63.4000 200.0000 7000000 270.0000  30.0000  2.00600000 10009"),
+                new TLEPlus("ASTRA 1KR",
+                        "1 29055U 06012A   19072.21734471  .00000104  00000-0  00000-0 0  9993",
+                        "2 29055   0.0657 297.8164 0002826 191.3003 138.8831  1.00273017 47108"));
+    }
+
+    @DisplayName("Interpolation error against the propagation stays within the bound")
+    @Test
+    void interpolationError() {
+
+        for (double maxError : new double[]{10., 1., 0.1}) {
+            for (TLEPlus tle : tles) {
+
+                TLEPropagator propagator = TLEPropagator.selectExtrapolator(tle);
+                AbsoluteDate start = tle.getDate();
+                EphemerisGrid grid = EphemerisGrid.of(propagator, tle, EarthParams.iers2010Frame, start, SPAN, maxError);
+
+                double largest = 0.;
+                for (int i = 0; i <= CHECKS; i++) {
+                    AbsoluteDate date = start.shiftedBy(SPAN * i / CHECKS);
+                    double error = grid.getPosition(date).distance(
+                            propagator.getPVCoordinates(date, EarthParams.iers2010Frame).getPosition());
+                    largest = Math.max(largest, error);
+                }
+
+                assertTrue(largest <= maxError, tle.getName() + " error " + largest + " m exceeds " + maxError + " m");
+            }
+        }
+    }
+
+    @DisplayName("Positions at the samples are exact")
+    @Test
+    void samples() {
+        TLEPlus iss = tles.get(0);
+        TLEPropagator propagator = TLEPropagator.selectExtrapolator(iss);
+        EphemerisGrid grid = EphemerisGrid.of(propagator, iss, EarthParams.iers2010Frame, iss.getDate(), SPAN, 1.);
+
+        AbsoluteDate sample = iss.getDate().shiftedBy(3 * EphemerisGrid.stepFor(iss, 1.));
+        assertEquals(0., grid.getPosition(sample).distance(
+                propagator.getPVCoordinates(sample, EarthParams.iers2010Frame).getPosition()), 1e-6);
+    }
+
+    @DisplayName("Span limits")
+    @Test
+    void span() {
+        TLEPlus iss = tles.get(0);
+        EphemerisGrid grid = EphemerisGrid.of(TLEPropagator.selectExtrapolator(iss), iss, EarthParams.iers2010Frame, iss.getDate(), SPAN, 1.);
+
+        assertNull(grid.getPosition(iss.getDate().shiftedBy(-1.)));
+        assertNull(grid.getPosition(iss.getDate().shiftedBy(SPAN + EphemerisGrid.stepFor(iss, 1.))));
+        assertTrue(grid.getRemainingSpan(iss.getDate()) >= SPAN);
+        assertTrue(grid.getRemainingSpan(iss.getDate().shiftedBy(SPAN)) >= 0.);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.ultimalabs.sattrackapi.predict.controller;
+
+import com.ultimalabs.sattrackapi.predict.service.PredictService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "sattrack.passComputeParallelism=1",
+        "sattrack.passComputeQueueSize=1"})
+@AutoConfigureMockMvc
+class PassesControllerSaturationTest {
+
+    private static final String STREAMED_PASS = "/api/v1/passes/25544/lat/46.1613/lon/15.7534/alt/200/minEl/25/step/30/?stream=true";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private PredictService predictService;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void releaseSearches() {
+        release.countDown();
+    }
+
+    @DisplayName("Streamed pass with details - 503 Service Unavailable when the pass searches are saturated")
+    @Test
+    public void streamedPassSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+
+        // slow pass search, holding the only thread
+        when(predictService.getNextEventForStreaming(anyString(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    return null;
+                });
+
+        this.mockMvc.perform(get(STREAMED_PASS))
+                .andExpect(request().asyncStarted());
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // fills the queue
+        this.mockMvc.perform(get(STREAMED_PASS))
+                .andExpect(request().asyncStarted());
+
+        // rejected on the request thread, before any streaming starts
+        this.mockMvc.perform(get(STREAMED_PASS))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+}
@@ -9,8 +9,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -28,10 +35,24 @@ class PassesControllerTest {
     private int minEl = 25;
     private int step = 30;
 
+    /**
+     * Performs a request answered asynchronously, and dispatches its result
+     *
+     * @param requestBuilder request
+     * @return result of the async dispatch
+     */
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = this.mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return this.mockMvc.perform(asyncDispatch(result));
+    }
+
     @DisplayName("Pass without details by Satellite Number - OK")
     @Test
     public void getValidTle1() throws Exception {
-        this.mockMvc.perform(get("/api/v1/passes/25544/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/", lat, lon, alt, minEl)
+        performAsync(get("/api/v1/passes/25544/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/", lat, lon, alt, minEl)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
@@ -39,7 +60,7 @@ class PassesControllerTest {
     @DisplayName("Pass without details by International Designator (short) - OK")
     @Test
     public void getValidTle2() throws Exception {
-        this.mockMvc.perform(get("/api/v1/passes/98067A/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/", lat, lon, alt, minEl)
+        performAsync(get("/api/v1/passes/98067A/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/", lat, lon, alt, minEl)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
@@ -47,7 +68,7 @@ class PassesControllerTest {
     @DisplayName("Pass without details by International Designator (long) - OK")
     @Test
     public void getValidTle3() throws Exception {
-        this.mockMvc.perform(get("/api/v1/passes/1998-067A/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/", lat, lon, alt, minEl)
+        performAsync(get("/api/v1/passes/1998-067A/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/", lat, lon, alt, minEl)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
@@ -55,7 +76,7 @@ class PassesControllerTest {
     @DisplayName("Pass without details - 404 Not Found 1")
     @Test
     public void getNonexistingTle1() throws Exception {
-        this.mockMvc.perform(get("/api/v1/passes/99999/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/", lat, lon, alt, minEl)
+        performAsync(get("/api/v1/passes/99999/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/", lat, lon, alt, minEl)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
@@ -63,7 +84,7 @@ class PassesControllerTest {
     @DisplayName("Pass without details - 404 Not Found 2")
     @Test
     public void getNonexistingTle2() throws Exception {
-        this.mockMvc.perform(get("/api/v1/passes/ABAB-097Aaa/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/", lat, lon, alt, minEl)
+        performAsync(get("/api/v1/passes/ABAB-097Aaa/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/", lat, lon, alt, minEl)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
@@ -87,7 +108,7 @@ class PassesControllerTest {
     @DisplayName("Pass with details by Satellite Number - OK")
     @Test
     public void getValidTle1WithDetails() throws Exception {
-        this.mockMvc.perform(get("/api/v1/passes/25544/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/", lat, lon, alt, minEl, step)
+        performAsync(get("/api/v1/passes/25544/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/", lat, lon, alt, minEl, step)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
@@ -95,7 +116,7 @@ class PassesControllerTest {
     @DisplayName("Pass with details by International Designator (short) - OK")
     @Test
     public void getValidTle2WithDetails() throws Exception {
-        this.mockMvc.perform(get("/api/v1/passes/98067A/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/", lat, lon, alt, minEl, step)
+        performAsync(get("/api/v1/passes/98067A/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/", lat, lon, alt, minEl, step)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
@@ -103,7 +124,7 @@ class PassesControllerTest {
     @DisplayName("Pass with details by International Designator (long) - OK")
     @Test
     public void getValidTle3WithDetails() throws Exception {
-        this.mockMvc.perform(get("/api/v1/passes/1998-067A/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/", lat, lon, alt, minEl, step)
+        performAsync(get("/api/v1/passes/1998-067A/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/", lat, lon, alt, minEl, step)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
@@ -111,7 +132,7 @@ class PassesControllerTest {
     @DisplayName("Pass with details - 404 Not Found 1")
     @Test
     public void getNonexistingTle1WithDetails() throws Exception {
-        this.mockMvc.perform(get("/api/v1/passes/99999/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/", lat, lon, alt, minEl, step)
+        performAsync(get("/api/v1/passes/99999/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/", lat, lon, alt, minEl, step)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
@@ -119,7 +140,7 @@ class PassesControllerTest {
     @DisplayName("Pass with details - 404 Not Found 2")
     @Test
     public void getNonexistingTle2WithDetails() throws Exception {
-        this.mockMvc.perform(get("/api/v1/passes/ABAB-097Aaa/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/", lat, lon, alt, minEl, step)
+        performAsync(get("/api/v1/passes/ABAB-097Aaa/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/", lat, lon, alt, minEl, step)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
@@ -159,7 +180,7 @@ class PassesControllerTest {
     @DisplayName("Pass without details invalid lon 1")
     @Test
     public void passWithoutDetailsInvalidLon1() throws Exception {
-        this.mockMvc.perform(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/", iss, lat, -120, alt, minEl)
+        this.mockMvc.perform(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/", iss, lat, -200, alt, minEl)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
@@ -167,11 +188,19 @@ class PassesControllerTest {
     @DisplayName("Pass without details invalid lon 2")
     @Test
     public void passWithoutDetailsInvalidLon2() throws Exception {
-        this.mockMvc.perform(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/", iss, lat, 120, alt, minEl)
+        this.mockMvc.perform(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/", iss, lat, 200, alt, minEl)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
 
+    @DisplayName("Pass without details western longitude - OK")
+    @Test
+    public void passWithoutDetailsWesternLon() throws Exception {
+        performAsync(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/", iss, lat, -120, alt, minEl)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
     @DisplayName("Pass without details invalid altitude 1")
     @Test
     public void passWithoutDetailsInvalidAlt1() throws Exception {
@@ -223,7 +252,7 @@ class PassesControllerTest {
     @DisplayName("Pass with details invalid lon 1")
     @Test
     public void passWithDetailsInvalidLon1() throws Exception {
-        this.mockMvc.perform(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/", iss, lat, -120, alt, minEl, step)
+        this.mockMvc.perform(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/", iss, lat, -200, alt, minEl, step)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
@@ -231,7 +260,7 @@ class PassesControllerTest {
     @DisplayName("Pass with details invalid lon 2")
     @Test
     public void passWithDetailsInvalidLon2() throws Exception {
-        this.mockMvc.perform(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/", iss, lat, 120, alt, minEl, step)
+        this.mockMvc.perform(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/", iss, lat, 200, alt, minEl, step)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
@@ -284,4 +313,171 @@ class PassesControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
-}
\ No newline at end of file
+    @DisplayName("Multiple passes by Satellite Number - OK")
+    @Test
+    public void nextPasses() throws Exception {
+        performAsync(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/count/{count}/", iss, lat, lon, alt, minEl, 3)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @DisplayName("Multiple passes eastern longitude - OK")
+    @Test
+    public void nextPassesEasternLon() throws Exception {
+        performAsync(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/count/{count}/", iss, lat, 150, alt, minEl, 3)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @DisplayName("Multiple passes invalid lon")
+    @Test
+    public void nextPassesInvalidLon() throws Exception {
+        this.mockMvc.perform(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/count/{count}/", iss, lat, 200, alt, minEl, 3)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Multiple passes - 404 Not Found")
+    @Test
+    public void nextPassesNonexistingTle() throws Exception {
+        performAsync(get("/api/v1/passes/99999/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/count/{count}/", lat, lon, alt, minEl, 3)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @DisplayName("Multiple passes invalid count 1")
+    @Test
+    public void nextPassesInvalidCount1() throws Exception {
+        this.mockMvc.perform(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/count/{count}/", iss, lat, lon, alt, minEl, 0)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Multiple passes invalid count 2")
+    @Test
+    public void nextPassesInvalidCount2() throws Exception {
+        this.mockMvc.perform(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/count/{count}/", iss, lat, lon, alt, minEl, 51)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Passes within a time window - OK")
+    @Test
+    public void passesWithin() throws Exception {
+        performAsync(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/hours/{hours}/", iss, lat, lon, alt, minEl, 24)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @DisplayName("Passes within a time window, window too short")
+    @Test
+    public void passesWithinInvalidHours1() throws Exception {
+        this.mockMvc.perform(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/hours/{hours}/", iss, lat, lon, alt, minEl, 0.01)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Passes within a time window, window too long")
+    @Test
+    public void passesWithinInvalidHours2() throws Exception {
+        this.mockMvc.perform(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/hours/{hours}/", iss, lat, lon, alt, minEl, 241)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Catalog passes within a time window - OK")
+    @Test
+    public void catalogPassesWithin() throws Exception {
+        this.mockMvc.perform(get("/api/v1/passes/all/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/hours/{hours}/", lat, lon, alt, minEl, 1)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @DisplayName("Catalog passes within a time window, filtered by orbital elements - OK")
+    @Test
+    public void catalogPassesWithinFiltered() throws Exception {
+        this.mockMvc.perform(get("/api/v1/passes/all/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/hours/{hours}/?maxPeriod=128", lat, lon, alt, minEl, 1)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @DisplayName("Catalog passes within a time window, eastern longitude - OK")
+    @Test
+    public void catalogPassesWithinEasternLon() throws Exception {
+        this.mockMvc.perform(get("/api/v1/passes/all/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/hours/{hours}/", lat, 150, alt, minEl, 1)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @DisplayName("Catalog passes within a time window, window too long")
+    @Test
+    public void catalogPassesWithinInvalidHours() throws Exception {
+        this.mockMvc.perform(get("/api/v1/passes/all/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/hours/{hours}/", lat, lon, alt, minEl, 73)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Streamed pass with details - OK")
+    @Test
+    public void streamedPassWithDetails() throws Exception {
+        // pass search, then the streamed details
+        MvcResult result = performAsync(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/?stream=true", iss, lat, lon, alt, minEl, step))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.risePoint").exists())
+                .andExpect(jsonPath("$.eventDetails").isArray());
+    }
+
+    @DisplayName("Streamed pass with details western longitude - OK")
+    @Test
+    public void streamedPassWithDetailsWesternLon() throws Exception {
+        MvcResult result = performAsync(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/?stream=true", iss, lat, -120, alt, minEl, step))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+
+    @DisplayName("Streamed pass with details - 404 Not Found")
+    @Test
+    public void streamedPassWithDetailsNotFound() throws Exception {
+        performAsync(get("/api/v1/passes/99999/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/?stream=true", lat, lon, alt, minEl, step))
+                .andExpect(status().isNotFound());
+    }
+
+    @DisplayName("Streamed pass with details step too small")
+    @Test
+    public void streamedPassWithDetailsInvalidStep() throws Exception {
+        this.mockMvc.perform(get("/api/v1/passes/{iss}/lat/{lat}/lon/{lon}/alt/{alt}/minEl/{minEl}/step/{step}/?stream=true", iss, lat, lon, alt, minEl, 0.001))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Passes over multiple stations - OK")
+    @Test
+    public void stationPasses() throws Exception {
+        performAsync(post("/api/v1/passes/stations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\": \"25544\", \"hours\": 24, \"stations\": [" +
+                        "{\"name\": \"Celje\", \"latitude\": 46.1613, \"longitude\": 15.7534, \"altitude\": 200, \"minElevation\": 10}, " +
+                        "{\"name\": \"North\", \"latitude\": 80, \"longitude\": 15, \"altitude\": 0, \"minElevation\": 0}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Celje"))
+                .andExpect(jsonPath("$[0].passes").isArray())
+                .andExpect(jsonPath("$[1].passes.length()").value(0));
+    }
+
+    @DisplayName("Passes over multiple stations - 400 Bad Request, no stations")
+    @Test
+    public void stationPassesNoStations() throws Exception {
+        this.mockMvc.perform(post("/api/v1/passes/stations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\": \"25544\", \"stations\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+}
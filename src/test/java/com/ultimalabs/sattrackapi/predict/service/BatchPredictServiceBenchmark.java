@@ -0,0 +1,100 @@
+package com.ultimalabs.sattrackapi.predict.service;
+
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.common.service.ObserverFrameServiceImpl;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.service.PropagatorCacheServiceImpl;
+import com.ultimalabs.sattrackapi.tle.service.TleFetcherService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Catalog-wide pass prediction throughput versus number of threads
+ * <p>
+ * Run with "./gradlew benchmark"; set the "orekit.data" system property
+ * to a full Orekit data folder for realistic Earth orientation data.
+ */
+@Tag("benchmark")
+class BatchPredictServiceBenchmark {
+
+    private static final String[][] SAMPLE_TLES = {
+            {"ISS (ZARYA)",
+                    "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                    "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405"},
+            {"NOAA 18",
+                    "1 28654U 05018A   19072.51504762  .00000017  00000-0  34275-4 0  9991",
+                    "2 28654  99.1102 117.9653 0015254  91.8549 268.4370 14.12409019711802"},
+            {"NOAA 19",
+                    "1 33591U 09005A   19072.55318419  .00000028  00000-0  40405-4 0  9997",
+                    "2 33591  99.1742  61.2940 0013053 292.9494  67.0299 14.12338669520180"}
+    };
+
+    private static final int CATALOG_SIZE = 300;
+
+    private static final List<TLEPlus> catalog = new ArrayList<>();
+
+    @BeforeAll
+    static void setup() {
+        File orekitData = new File(System.getProperty("orekit.data", "."));
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            String[] tle = SAMPLE_TLES[i % SAMPLE_TLES.length];
+            catalog.add(new TLEPlus(tle[0], tle[1], tle[2]));
+        }
+    }
+
+    @DisplayName("Catalog pass prediction throughput versus threads")
+    @Test
+    void throughputVersusThreads() {
+
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        for (int threads = 1; threads <= cores; threads *= 2) {
+
+            SatTrackConfig config = new SatTrackConfig();
+            config.setBatchPredictParallelism(threads);
+
+            TleFetcherService tleFetcherService = mock(TleFetcherService.class);
+            when(tleFetcherService.getAllTles()).thenReturn(catalog);
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+            try {
+                BatchPredictServiceImpl service = new BatchPredictServiceImpl(tleFetcherService,
+                        new PropagatorCacheServiceImpl(config, new SimpleMeterRegistry()),
+                        new ObserverFrameServiceImpl(config), config, executor);
+
+                AtomicInteger satellites = new AtomicInteger();
+                long start = System.nanoTime();
+                service.streamCatalogEventsWithin(46.1613, 15.7534, 200, 0, 24, passes -> satellites.incrementAndGet());
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                System.out.printf("threads: %2d, satellites: %d, time: %.2f s, throughput: %.1f satellites/s%n",
+                        threads, CATALOG_SIZE, seconds, CATALOG_SIZE / seconds);
+
+                assertTrue(satellites.get() > 0);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.ultimalabs.sattrackapi.predict.service;
+
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.common.model.QuantizedLocation;
+import com.ultimalabs.sattrackapi.predict.model.PassCacheKey;
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+
+import java.io.File;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PassCacheServiceImplTest {
+
+    private final PassCacheKey key = new PassCacheKey(25544,
+            QuantizedLocation.of(46.1613, 15.7534, 200), 25., AbsoluteDate.J2000_EPOCH);
+
+    private PassCacheServiceImpl passCache;
+
+    @BeforeAll
+    static void setup() {
+        // Orekit setup: at least a single file, "tai-utc.dat"
+        // should be present in "src/test/resources" folder
+        File orekitData = new File(".");
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+    }
+
+    @BeforeEach
+    void createCache() {
+        passCache = new PassCacheServiceImpl(new SatTrackConfig(), new SimpleMeterRegistry());
+    }
+
+    @DisplayName("Pass window is computed once")
+    @Test
+    void passWindowIsCached() {
+        AtomicInteger loads = new AtomicInteger();
+        PassWindow window = windowEndingIn(600.);
+
+        assertSame(window, passCache.getPassWindow(key, k -> {
+            loads.incrementAndGet();
+            return window;
+        }));
+        assertSame(window, passCache.getPassWindow(key, k -> {
+            loads.incrementAndGet();
+            return window;
+        }));
+        assertEquals(1, loads.get());
+    }
+
+    @DisplayName("Missing pass is cached")
+    @Test
+    void missingPassIsCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(passCache.getPassWindow(key, k -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(passCache.getPassWindow(key, k -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertEquals(1, loads.get());
+    }
+
+    @DisplayName("Finished pass is not returned")
+    @Test
+    void finishedPassIsReloaded() {
+        PassWindow finished = windowEndingIn(-60.);
+        PassWindow next = windowEndingIn(600.);
+
+        passCache.getPassWindow(key, k -> finished);
+
+        assertSame(next, passCache.getPassWindow(key, k -> next));
+    }
+
+    @DisplayName("Pass in progress is not returned")
+    @Test
+    void passInProgressIsReloaded() {
+        PassWindow inProgress = windowEndingIn(120.);
+        PassWindow next = windowEndingIn(6000.);
+
+        passCache.getPassWindow(key, k -> inProgress);
+
+        assertSame(next, passCache.getPassWindow(key, k -> next));
+    }
+
+    @DisplayName("Missing pass expires after the miss TTL")
+    @Test
+    void missingPassExpires() throws InterruptedException {
+        SatTrackConfig config = new SatTrackConfig();
+        config.setPassCacheMissTtl(1);
+        passCache = new PassCacheServiceImpl(config, new SimpleMeterRegistry());
+        PassWindow window = windowEndingIn(600.);
+
+        assertNull(passCache.getPassWindow(key, k -> null));
+        Thread.sleep(1500);
+
+        assertSame(window, passCache.getPassWindow(key, k -> window));
+    }
+
+    private static PassWindow windowEndingIn(double seconds) {
+        AbsoluteDate now = new AbsoluteDate(new Date(), TimeScalesFactory.getUTC());
+        return new PassWindow("", now.shiftedBy(seconds - 300.), now.shiftedBy(seconds), null, null, null);
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.ultimalabs.sattrackapi.predict.service;
+
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.predict.util.DeadlineDetector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PassComputeServiceImplTest {
+
+    private SatTrackConfig config;
+
+    private ThreadPoolExecutor executor;
+
+    @BeforeEach
+    void createExecutor() {
+        config = new SatTrackConfig();
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+    }
+
+    @AfterEach
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Spins until the deadline of the current thread passes
+     *
+     * @return never returns normally
+     */
+    private static String spin() {
+        while (true) {
+            DeadlineDetector.checkCurrent();
+        }
+    }
+
+    @DisplayName("Task result is passed through")
+    @Test
+    void result() throws Exception {
+        PassComputeService service = new PassComputeServiceImpl(config, executor, new SimpleMeterRegistry());
+
+        assertEquals("pass", service.submit(() -> "pass").get(1, TimeUnit.SECONDS));
+    }
+
+    @DisplayName("Requests beyond the queue are rejected with 503")
+    @Test
+    void rejected() throws Exception {
+        PassComputeService service = new PassComputeServiceImpl(config, executor, new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = service.submit(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "running";
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = service.submit(() -> "queued");
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> service.submit(() -> "rejected"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+
+        release.countDown();
+        assertEquals("running", running.get(1, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(1, TimeUnit.SECONDS));
+    }
+
+    @DisplayName("Requests exceeding the deadline are aborted with 503")
+    @Test
+    void deadline() {
+        config.setPassComputeTimeout(50);
+        PassComputeService service = new PassComputeServiceImpl(config, executor, new SimpleMeterRegistry());
+
+        CompletableFuture<String> result = service.submit(PassComputeServiceImplTest::spin);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof ResponseStatusException);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((ResponseStatusException) e.getCause()).getStatus());
+    }
+
+    @DisplayName("Cancelled requests are interrupted")
+    @Test
+    void cancel() throws Exception {
+        config.setPassComputeTimeout(60000);
+        PassComputeService service = new PassComputeServiceImpl(config, executor, new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+
+        CompletableFuture<String> result = service.submit(() -> {
+            started.countDown();
+            return spin();
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        result.cancel(true);
+
+        // the thread is free for the next request
+        assertEquals("next", service.submit(() -> "next").get(1, TimeUnit.SECONDS));
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.ultimalabs.sattrackapi.predict.service;
+
+import com.ultimalabs.sattrackapi.common.model.QuantizedLocation;
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.service.TleFetcherService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(properties = {
+        "sattrack.stations[0].name=Celje",
+        "sattrack.stations[0].latitude=46.1613",
+        "sattrack.stations[0].longitude=15.7534",
+        "sattrack.stations[0].altitude=200",
+        "sattrack.stations[0].minElevation=0",
+        "sattrack.stations[0].satellites[0]=25544"})
+class PassTimetableServiceImplTest {
+
+    /**
+     * Maximum time to wait for the background computation, in milliseconds
+     */
+    private static final long TIMEOUT = 30000;
+
+    @Autowired
+    private PassTimetableService passTimetableService;
+
+    @Autowired
+    private TleFetcherService tleFetcherService;
+
+    @DisplayName("Timetables of the registered stations are computed at startup")
+    @Test
+    void timetableAfterStartup() throws InterruptedException {
+
+        TLEPlus tle = tleFetcherService.getTle("25544");
+        QuantizedLocation location = QuantizedLocation.of(46.1613, 15.7534, 200);
+
+        PassWindow pass = null;
+        long end = System.currentTimeMillis() + TIMEOUT;
+
+        // the timetable is computed in the background, well before the first hourly roll
+        while (pass == null && System.currentTimeMillis() < end) {
+            AbsoluteDate now = new AbsoluteDate(new Date(), TimeScalesFactory.getUTC());
+            pass = passTimetableService.getNextPass(tle, location, 0., now);
+            if (pass == null) {
+                Thread.sleep(100);
+            }
+        }
+
+        assertNotNull(pass);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.ultimalabs.sattrackapi.predict.util;
+
+import com.ultimalabs.sattrackapi.common.model.EarthParams;
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.hipparchus.util.FastMath;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+import org.orekit.frames.TopocentricFrame;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultiStationPassFinderTest {
+
+    private static final double DURATION = 86400.;
+
+    private static TLEPlus iss;
+
+    private static List<TopocentricFrame> observerFrames;
+
+    @BeforeAll
+    static void setup() {
+        // Orekit setup: at least a single file, "tai-utc.dat"
+        // should be present in "src/test/resources" folder
+        File orekitData = new File(".");
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+
+        iss = new TLEPlus("ISS (ZARYA)",
+                "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405"
+        );
+
+        observerFrames = Arrays.asList(
+                observer(46.1613, 15.7534, 200.),
+                observer(-33.86, 151.21, 50.),
+                observer(40.71, -74.01, 10.),
+                observer(80., 15., 0.));
+    }
+
+    private static TopocentricFrame observer(double latitude, double longitude, double altitude) {
+        GeodeticPoint point = new GeodeticPoint(FastMath.toRadians(latitude), FastMath.toRadians(longitude), altitude);
+        return new TopocentricFrame(EarthParams.EARTH, point, "observer");
+    }
+
+    @DisplayName("Same passes as a propagation per station")
+    @Test
+    void samePassesAsSingleStation() {
+
+        double[] minEls = {0., 10., 25., 0.};
+
+        List<List<PassWindow>> windows = MultiStationPassFinder.findPassWindows(
+                TLEPropagator.selectExtrapolator(iss), iss, observerFrames, minEls, iss.getDate(), DURATION);
+
+        assertEquals(observerFrames.size(), windows.size());
+
+        for (int i = 0; i < observerFrames.size(); i++) {
+
+            List<PassWindow> expected = PassFinder.findPassWindows(TLEPropagator.selectExtrapolator(iss), iss,
+                    observerFrames.get(i), minEls[i], iss.getDate(), DURATION, Integer.MAX_VALUE);
+            List<PassWindow> actual = windows.get(i);
+
+            assertEquals(expected.size(), actual.size(), "passes over station " + i);
+
+            for (int j = 0; j < expected.size(); j++) {
+                assertEquals(0., actual.get(j).getRiseDate().durationFrom(expected.get(j).getRiseDate()), 1e-3);
+                assertEquals(0., actual.get(j).getSetDate().durationFrom(expected.get(j).getSetDate()), 1e-3);
+                assertEquals(expected.get(j).getMidPoint().getEl(), actual.get(j).getMidPoint().getEl(), 0.011);
+            }
+        }
+
+        // ISS never rises above the polar station
+        assertFalse(windows.get(0).isEmpty());
+        assertTrue(windows.get(3).isEmpty());
+    }
+
+    @DisplayName("No observers")
+    @Test
+    void noObservers() {
+        assertTrue(MultiStationPassFinder.findPassWindows(TLEPropagator.selectExtrapolator(iss), iss,
+                Collections.emptyList(), new double[0], iss.getDate(), DURATION).isEmpty());
+    }
+
+}
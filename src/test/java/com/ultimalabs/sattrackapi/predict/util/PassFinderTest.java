@@ -0,0 +1,86 @@
+package com.ultimalabs.sattrackapi.predict.util;
+
+import com.ultimalabs.sattrackapi.common.model.EarthParams;
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.hipparchus.util.FastMath;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+import org.orekit.frames.TopocentricFrame;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PassFinderTest {
+
+    private static TLEPlus iss;
+
+    private static TopocentricFrame observerFrame;
+
+    @BeforeAll
+    static void setup() {
+        // Orekit setup: at least a single file, "tai-utc.dat"
+        // should be present in "src/test/resources" folder
+        File orekitData = new File(".");
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+
+        iss = new TLEPlus("ISS (ZARYA)",
+                "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405"
+        );
+
+        GeodeticPoint point = new GeodeticPoint(FastMath.toRadians(46.1613), FastMath.toRadians(15.7534), 200.);
+        observerFrame = new TopocentricFrame(EarthParams.EARTH, point, "observer");
+    }
+
+    @DisplayName("Next pass is found")
+    @Test
+    void nextPass() {
+        List<PassWindow> expected = PassFinder.findPassWindows(TLEPropagator.selectExtrapolator(iss), iss,
+                observerFrame, 0., iss.getDate(), 86400., 1);
+
+        PassWindow window = PassFinder.findPassWindow(TLEPropagator.selectExtrapolator(iss), iss,
+                observerFrame, 0., iss.getDate());
+
+        assertNotNull(window);
+        assertEquals(0., window.getRiseDate().durationFrom(expected.get(0).getRiseDate()), 1e-3);
+        assertEquals(0., window.getSetDate().durationFrom(expected.get(0).getSetDate()), 1e-3);
+    }
+
+    @DisplayName("Pass in progress is skipped, the next one is found")
+    @Test
+    void searchStartedMidPass() {
+        List<PassWindow> expected = PassFinder.findPassWindows(TLEPropagator.selectExtrapolator(iss), iss,
+                observerFrame, 0., iss.getDate(), 86400., 2);
+        assertEquals(2, expected.size());
+
+        PassWindow first = expected.get(0);
+        AbsoluteDate midPass = first.getRiseDate().shiftedBy(first.getSetDate().durationFrom(first.getRiseDate()) / 2.);
+
+        PassWindow window = PassFinder.findPassWindow(TLEPropagator.selectExtrapolator(iss), iss,
+                observerFrame, 0., midPass);
+
+        assertNotNull(window);
+        assertEquals(0., window.getRiseDate().durationFrom(expected.get(1).getRiseDate()), 1e-3);
+        assertEquals(0., window.getSetDate().durationFrom(expected.get(1).getSetDate()), 1e-3);
+    }
+
+    @DisplayName("No pass for a satellite never above the horizon")
+    @Test
+    void noPass() {
+        GeodeticPoint pole = new GeodeticPoint(FastMath.toRadians(89.), 0., 0.);
+        TopocentricFrame poleFrame = new TopocentricFrame(EarthParams.EARTH, pole, "pole");
+
+        assertNull(PassFinder.findPassWindow(TLEPropagator.selectExtrapolator(iss), iss, poleFrame, 0., iss.getDate()));
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.ultimalabs.sattrackapi.predict.util;
+
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+import org.orekit.time.AbsoluteDate;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PassTimetableTest {
+
+    private static final AbsoluteDate START = AbsoluteDate.J2000_EPOCH;
+
+    private static final double SPAN = 86400.;
+
+    private static List<PassWindow> windows;
+
+    private static PassTimetable timetable;
+
+    @BeforeAll
+    static void setup() {
+        // Orekit setup: at least a single file, "tai-utc.dat"
+        // should be present in "src/test/resources" folder
+        File orekitData = new File(".");
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+
+        // ten-minute passes, every two hours, starting an hour after the span start
+        windows = new ArrayList<>();
+        for (double rise = 3600.; rise + 600. < SPAN; rise += 7200.) {
+            windows.add(new PassWindow("", START.shiftedBy(rise), START.shiftedBy(rise + 600.), null, null, null));
+        }
+
+        timetable = new PassTimetable(null, START, SPAN, windows);
+    }
+
+    @DisplayName("Next pass")
+    @Test
+    void nextPass() {
+        assertSame(windows.get(0), timetable.getNextPass(START));
+        assertSame(windows.get(0), timetable.getNextPass(START.shiftedBy(3600.)));
+        assertSame(windows.get(1), timetable.getNextPass(START.shiftedBy(3601.)));
+        assertSame(windows.get(11), timetable.getNextPass(START.shiftedBy(80000.)));
+
+        // none left within the span, or outside the span
+        assertNull(timetable.getNextPass(START.shiftedBy(83000.)));
+        assertNull(timetable.getNextPass(START.shiftedBy(-1.)));
+        assertNull(timetable.getNextPass(START.shiftedBy(SPAN + 1.)));
+    }
+
+    @DisplayName("Number of passes")
+    @Test
+    void passes() {
+        assertEquals(Arrays.asList(windows.get(1), windows.get(2), windows.get(3)),
+                timetable.getPasses(START.shiftedBy(10000.), 3));
+        assertEquals(windows, timetable.getPasses(START, 12));
+
+        // not enough passes within the span
+        assertNull(timetable.getPasses(START, 13));
+    }
+
+    @DisplayName("Passes within a time window")
+    @Test
+    void passesWithin() {
+        assertEquals(Arrays.asList(windows.get(0), windows.get(1)), timetable.getPassesWithin(START, 3. * 3600. + 600.));
+
+        // pass in progress at the window end is omitted
+        assertEquals(Arrays.asList(windows.get(0), windows.get(1)), timetable.getPassesWithin(START, 5. * 3600. + 300.));
+
+        // window reaches beyond the span
+        assertNull(timetable.getPassesWithin(START.shiftedBy(SPAN / 2.), SPAN));
+
+        assertEquals(SPAN / 2., timetable.getRemainingSpan(START.shiftedBy(SPAN / 2.)));
+    }
+
+}
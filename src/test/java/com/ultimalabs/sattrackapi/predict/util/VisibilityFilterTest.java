@@ -0,0 +1,145 @@
+package com.ultimalabs.sattrackapi.predict.util;
+
+import com.ultimalabs.sattrackapi.common.model.EarthParams;
+import com.ultimalabs.sattrackapi.predict.model.PassWindow;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.hipparchus.util.FastMath;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+import org.orekit.frames.TopocentricFrame;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VisibilityFilterTest {
+
+    /**
+     * Elevation sampling step for the reference passes, in seconds
+     */
+    private static final double GRAZING_SAMPLE_STEP = 2.;
+
+    private static TLEPlus iss;
+
+    private static TLEPlus geo;
+
+    @BeforeAll
+    static void setup() {
+        // Orekit setup: at least a single file, "tai-utc.dat"
+        // should be present in "src/test/resources" folder
+        File orekitData = new File(".");
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+
+        iss = new TLEPlus("ISS (ZARYA)",
+                "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405"
+        );
+
+        geo = new TLEPlus("GEO TEST",
+                "1 28884U 05041A   19072.50000000 -.00000100  00000-0  00000+0 0  9995",
+                "2 28884   0.0100  90.0000 0001000 100.0000 200.0000  1.00270000 50001"
+        );
+    }
+
+    private static GeodeticPoint location(double latitude) {
+        return new GeodeticPoint(FastMath.toRadians(latitude), FastMath.toRadians(15.), 0.);
+    }
+
+    @DisplayName("ISS is visible from mid latitudes")
+    @Test
+    void issVisibleFromMidLatitudes() {
+        assertTrue(VisibilityFilter.isPossiblyVisible(iss, location(46.16), 0.));
+        assertTrue(VisibilityFilter.isPossiblyVisible(iss, location(-46.16), 30.));
+    }
+
+    @DisplayName("ISS is not visible from polar regions")
+    @Test
+    void issNotVisibleFromPolarRegions() {
+        assertFalse(VisibilityFilter.isPossiblyVisible(iss, location(80.), 0.));
+        assertFalse(VisibilityFilter.isPossiblyVisible(iss, location(-75.), 30.));
+    }
+
+    @DisplayName("Higher minimum elevation narrows visibility")
+    @Test
+    void minElevationNarrowsVisibility() {
+        assertTrue(VisibilityFilter.isPossiblyVisible(iss, location(65.), 0.));
+        assertFalse(VisibilityFilter.isPossiblyVisible(iss, location(65.), 45.));
+    }
+
+    @DisplayName("GEO satellite is not visible beyond its horizon")
+    @Test
+    void geoVisibility() {
+        assertTrue(VisibilityFilter.isPossiblyVisible(geo, location(70.), 0.));
+        assertFalse(VisibilityFilter.isPossiblyVisible(geo, location(85.), 0.));
+    }
+
+    @DisplayName("LEO max check never exceeds the default")
+    @Test
+    void leoMaxCheck() {
+        assertEquals(PassFinder.MAX_CHECK, VisibilityFilter.maxCheckInterval(iss, 0.));
+        assertTrue(VisibilityFilter.maxCheckInterval(iss, 85.) < PassFinder.MAX_CHECK);
+    }
+
+    @DisplayName("Short grazing passes are found")
+    @Test
+    void shortGrazingPasses() {
+
+        // near the edge of the ISS visibility, all the passes are low and short
+        TopocentricFrame observerFrame = new TopocentricFrame(EarthParams.EARTH, location(70.), "observer");
+        double duration = 5. * 86400.;
+
+        List<PassWindow> windows = PassFinder.findPassWindows(TLEPropagator.selectExtrapolator(iss), iss,
+                observerFrame, 0., iss.getDate(), duration, Integer.MAX_VALUE);
+
+        // reference passes, from the elevation sampled every couple of seconds
+        TLEPropagator propagator = TLEPropagator.selectExtrapolator(iss);
+        List<double[]> reference = new ArrayList<>();
+        double rise = Double.NaN;
+        for (double t = 0.; t <= duration; t += GRAZING_SAMPLE_STEP) {
+            AbsoluteDate date = iss.getDate().shiftedBy(t);
+            boolean visible = observerFrame.getElevation(propagator.getPVCoordinates(date, observerFrame).getPosition(),
+                    observerFrame, date) > 0.;
+            if (visible && Double.isNaN(rise)) {
+                rise = t;
+            } else if (!visible && !Double.isNaN(rise)) {
+                reference.add(new double[]{rise, t});
+                rise = Double.NaN;
+            }
+        }
+
+        int shortPasses = 0;
+        for (double[] pass : reference) {
+            double passDuration = pass[1] - pass[0];
+
+            // passes in progress at the search start are omitted, and only
+            // the passes longer than the max check are guaranteed to be found
+            if (pass[0] == 0. || passDuration < PassFinder.MAX_CHECK + 2. * GRAZING_SAMPLE_STEP) {
+                continue;
+            }
+            if (passDuration < 240.) {
+                shortPasses++;
+            }
+            assertTrue(windows.stream().anyMatch(w ->
+                            FastMath.abs(w.getRiseDate().durationFrom(iss.getDate()) - pass[0]) <= 2. * GRAZING_SAMPLE_STEP),
+                    "pass at " + pass[0] + " s, " + passDuration + " s long, not found");
+        }
+
+        assertTrue(shortPasses > 0, "no short grazing passes to check");
+    }
+
+    @DisplayName("GEO max check is capped")
+    @Test
+    void geoMaxCheck() {
+        assertEquals(3600., VisibilityFilter.maxCheckInterval(geo, 0.));
+    }
+
+}
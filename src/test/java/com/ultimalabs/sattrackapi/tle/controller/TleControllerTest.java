@@ -6,11 +6,15 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -77,4 +81,101 @@ class TleControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
-}
\ No newline at end of file
+    @DisplayName("Search by name prefix - OK")
+    @Test
+    public void searchByName() throws Exception {
+        this.mockMvc.perform(get("/api/v1/tles/search?q=iss")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page").value(0))
+                .andExpect(jsonPath("$.results[0].name").exists());
+    }
+
+    @DisplayName("Search by International Designator - OK")
+    @Test
+    public void searchByDesignator() throws Exception {
+        this.mockMvc.perform(get("/api/v1/tles/search?q=1998-067&type=designator")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].designator").value("98067A"));
+    }
+
+    @DisplayName("Search - 400 Bad Request, unknown search type")
+    @Test
+    public void searchUnknownType() throws Exception {
+        this.mockMvc.perform(get("/api/v1/tles/search?q=iss&type=regex")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Search - 400 Bad Request, page size too large")
+    @Test
+    public void searchLargePage() throws Exception {
+        this.mockMvc.perform(get("/api/v1/tles/search?q=iss&size=1000")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Filter by orbital elements - OK")
+    @Test
+    public void filterByElements() throws Exception {
+        this.mockMvc.perform(get("/api/v1/tles/filter?minInclination=51&maxInclination=52&maxPeriod=128")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").isNumber());
+    }
+
+    @DisplayName("Filter - 400 Bad Request, invalid bound")
+    @Test
+    public void filterInvalidBound() throws Exception {
+        this.mockMvc.perform(get("/api/v1/tles/filter?maxPeriod=abc")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Export TLEs as JSON - OK")
+    @Test
+    public void exportJson() throws Exception {
+        this.mockMvc.perform(get("/api/v1/tles/export?format=json&group=amateur"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$[0].NORAD_CAT_ID").isNumber());
+    }
+
+    @DisplayName("Export TLEs - 304 Not Modified with a matching ETag")
+    @Test
+    public void exportNotModified() throws Exception {
+        MvcResult result = this.mockMvc.perform(get("/api/v1/tles/export"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+
+        this.mockMvc.perform(get("/api/v1/tles/export")
+                .header(HttpHeaders.IF_NONE_MATCH, result.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    @DisplayName("Export TLEs - gzip compressed")
+    @Test
+    public void exportGzip() throws Exception {
+        this.mockMvc.perform(get("/api/v1/tles/export?format=bin")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @DisplayName("Export TLEs - 400 Bad Request, unknown format")
+    @Test
+    public void exportUnknownFormat() throws Exception {
+        this.mockMvc.perform(get("/api/v1/tles/export?format=xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Export TLEs - 404 Not Found, unknown group")
+    @Test
+    public void exportUnknownGroup() throws Exception {
+        this.mockMvc.perform(get("/api/v1/tles/export?group=nonexistent"))
+                .andExpect(status().isNotFound());
+    }
+
+}
@@ -148,4 +148,16 @@ class TLEPlusTest {
         assertEquals(expected, issWithName.getTle());
     }
 
-}
\ No newline at end of file
+    @DisplayName("Test derived orbit geometry")
+    @Test
+    void derivedOrbitGeometry() {
+
+        assertEquals(5564., issWithName.getPeriod(), 1.);
+        assertEquals(6787e3, issWithName.getSemiMajorAxis(), 5e3);
+
+        assertTrue(issWithName.getPerigeeAltitude() > 400e3);
+        assertTrue(issWithName.getApogeeAltitude() < 420e3);
+        assertTrue(issWithName.getPerigeeAltitude() < issWithName.getApogeeAltitude());
+    }
+
+}
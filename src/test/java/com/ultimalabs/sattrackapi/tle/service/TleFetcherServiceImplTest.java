@@ -0,0 +1,241 @@
+package com.ultimalabs.sattrackapi.tle.service;
+
+import com.sun.net.httpserver.HttpServer;
+import com.ultimalabs.sattrackapi.common.config.SatTrackConfig;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.model.TleDataStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TleFetcherServiceImplTest {
+
+    /**
+     * ISS and NOAA 18
+     */
+    private static final String CATALOG_A = "ISS (ZARYA)             \n" +
+            "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996\n" +
+            "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405\n" +
+            "NOAA 18 [B]             \n" +
+            "1 28654U 05018A   19072.51504762  .00000017  00000-0  34275-4 0  9991\n" +
+            "2 28654  99.1102 117.9653 0015254  91.8549 268.4370 14.12409019711802\n";
+
+    /**
+     * ISS, a day later, and NOAA 19
+     */
+    private static final String CATALOG_B = "ISS (ZARYA)             \n" +
+            "1 25544U 98067A   19073.58486381 -.00000050  00000-0  67055-5 0  9997\n" +
+            "2 25544  51.6411 111.5260 0004049 100.8410  14.7809 15.52801380160400\n" +
+            "NOAA 19 [+]             \n" +
+            "1 33591U 09005A   19072.55318419  .00000028  00000-0  40405-4 0  9997\n" +
+            "2 33591  99.1742  61.2940 0013053 292.9494  67.0299 14.12338669520180\n";
+
+    private static final int READERS = 4;
+
+    private static final int REFRESHES = 200;
+
+    private HttpServer server;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final AtomicBoolean broken = new AtomicBoolean();
+
+    private ExecutorService fetchExecutor;
+
+    private ExecutorService parseExecutor;
+
+    private ExecutorService refreshExecutor;
+
+    private TleFetcherServiceImpl service;
+
+    @BeforeAll
+    static void setupOrekit() {
+        // Orekit setup: at least a single file, "tai-utc.dat"
+        // should be present in "src/test/resources" folder
+        File orekitData = new File(".");
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+    }
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+
+        // alternates between the two catalogs, without the cache validators
+        server.createContext("/tle/amateur.txt", exchange -> {
+            if (broken.get()) {
+                exchange.sendResponseHeaders(500, -1);
+            } else {
+                String catalog = requests.getAndIncrement() % 2 == 0 ? CATALOG_A : CATALOG_B;
+                byte[] body = catalog.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+
+        SatTrackConfig config = new SatTrackConfig();
+        config.setTleUrls(Collections.singletonList("http://127.0.0.1:" + server.getAddress().getPort() + "/tle/amateur.txt"));
+        config.setTleParseParallelism(2);
+
+        fetchExecutor = Executors.newFixedThreadPool(1);
+        parseExecutor = Executors.newFixedThreadPool(2);
+        refreshExecutor = Executors.newSingleThreadExecutor();
+        service = new TleFetcherServiceImpl(config, event -> {
+        }, fetchExecutor, parseExecutor, refreshExecutor, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void teardown() {
+        server.stop(0);
+        fetchExecutor.shutdownNow();
+        parseExecutor.shutdownNow();
+        refreshExecutor.shutdownNow();
+    }
+
+    @DisplayName("Each refresh publishes a new store version")
+    @Test
+    void versions() {
+        assertNull(service.getTleDataStore());
+
+        refresh();
+        TleDataStore first = service.getTleDataStore();
+        assertEquals(1, first.getVersion());
+
+        refresh();
+        assertEquals(2, service.getTleDataStore().getVersion());
+
+        // ISS TLE has changed, NOAA 18 is gone
+        assertEquals(2, service.getTleDataStore().getTleMapBySatelliteId().size());
+        assertNull(service.getTleBySatelliteId(28654));
+        assertNotNull(service.getTleBySatelliteId(33591));
+
+        // old snapshot is left as it was
+        assertNotNull(first.getTleMapBySatelliteId().get(28654));
+    }
+
+    @DisplayName("Failed refresh keeps the current store")
+    @Test
+    void failedRefresh() {
+        refresh();
+        TleDataStore store = service.getTleDataStore();
+
+        broken.set(true);
+        refresh();
+
+        assertSame(store, service.getTleDataStore());
+        assertNotNull(service.getTle("25544"));
+    }
+
+    @DisplayName("Readers see consistent snapshots while the store is refreshed")
+    @Test
+    void concurrentReadsDuringRefresh() throws InterruptedException {
+
+        refresh();
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger reads = new AtomicInteger();
+        List<Thread> readers = new ArrayList<>();
+
+        for (int i = 0; i < READERS; i++) {
+            Thread reader = new Thread(() -> {
+                long lastVersion = 0;
+                try {
+                    while (!done.get()) {
+                        TleDataStore store = service.getTleDataStore();
+                        assertTrue(store.getVersion() >= lastVersion, "store version went backwards");
+                        lastVersion = store.getVersion();
+                        assertConsistent(store);
+
+                        // the ISS is in both catalogs, so it's never missing
+                        assertNotNull(service.getTle("25544"));
+                        assertNotNull(service.getTle("1998-067A"));
+                        assertEquals(2, service.getAllTles().size());
+                        assertEquals(2, service.getTlesByGroup("amateur").size());
+
+                        reads.incrementAndGet();
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "tle-reader-" + i);
+            readers.add(reader);
+            reader.start();
+        }
+
+        for (int i = 0; i < REFRESHES && failure.get() == null; i++) {
+            refresh();
+        }
+
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        if (failure.get() != null) {
+            throw new AssertionError("Reader failed after " + reads.get() + " reads", failure.get());
+        }
+        assertEquals(REFRESHES + 1, service.getTleDataStore().getVersion());
+        assertTrue(reads.get() > 0);
+    }
+
+    /**
+     * Checks that the maps of a store belong to the same catalog
+     *
+     * @param store TLE data store
+     */
+    private static void assertConsistent(TleDataStore store) {
+        Map<Integer, TLEPlus> byId = store.getTleMapBySatelliteId();
+        Map<String, TLEPlus> byDesignator = store.getTleMapByInternationalDesignator();
+
+        assertEquals(byId.size(), byDesignator.size());
+        for (TLEPlus tle : byId.values()) {
+            assertSame(tle, byDesignator.get(tle.getInternationalDesignator()));
+        }
+        for (Integer satelliteId : store.getSatelliteIdsByGroup().get("amateur")) {
+            assertNotNull(byId.get(satelliteId));
+        }
+
+        // catalog A has NOAA 18 with the older ISS TLE, catalog B NOAA 19 with the newer one
+        boolean catalogA = byId.containsKey(28654);
+        assertEquals(!catalogA, byId.containsKey(33591));
+        assertEquals(catalogA ? "19072" : "19073", byId.get(25544).getLine1().substring(18, 23));
+    }
+
+    private void refresh() {
+        ReflectionTestUtils.invokeMethod(service, "refreshTleData");
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogIndexTest {
+
+    private static TLEPlus iss;
+    private static TLEPlus noaa18;
+    private static TLEPlus noaa19;
+
+    private static Map<Integer, TLEPlus> bySatelliteId;
+    private static Map<String, TLEPlus> byDesignator;
+    private static CatalogIndex index;
+
+    @BeforeAll
+    static void setup() {
+        // Orekit setup: at least a single file, "tai-utc.dat"
+        // should be present in "src/test/resources" folder
+        File orekitData = new File(".");
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+
+        iss = new TLEPlus("ISS (ZARYA)",
+                "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405");
+        noaa18 = new TLEPlus("NOAA 18 [B]",
+                "1 28654U 05018A   19072.51504762  .00000017  00000-0  34275-4 0  9991",
+                "2 28654  99.1102 117.9653 0015254  91.8549 268.4370 14.12409019711802");
+        noaa19 = new TLEPlus("NOAA 19 [+]",
+                "1 33591U 09005A   19072.55318419  .00000028  00000-0  40405-4 0  9997",
+                "2 33591  99.1742  61.2940 0013053 292.9494  67.0299 14.12338669520180");
+
+        bySatelliteId = new HashMap<>();
+        byDesignator = new HashMap<>();
+        for (TLEPlus tle : Arrays.asList(noaa19, iss, noaa18)) {
+            bySatelliteId.put(tle.getSatelliteNumber(), tle);
+            byDesignator.put(tle.getInternationalDesignator(), tle);
+        }
+        byDesignator.put("98067ABC", iss);
+        byDesignator.put("unpackable", noaa18);
+
+        index = CatalogIndex.of(bySatelliteId, byDesignator);
+    }
+
+    @DisplayName("Lookup by Satellite Catalog Number")
+    @Test
+    void bySatelliteId() {
+        assertSame(iss, index.getBySatelliteId(25544));
+        assertSame(noaa18, index.getBySatelliteId(28654));
+        assertSame(noaa19, index.getBySatelliteId(33591));
+        assertNull(index.getBySatelliteId(25545));
+        assertNull(index.getBySatelliteId(0));
+        assertEquals(3, index.size());
+    }
+
+    @DisplayName("Lookup by International Designator")
+    @Test
+    void byDesignator() {
+        assertSame(iss, index.getByInternationalDesignator("98067A"));
+        assertSame(iss, index.getByInternationalDesignator("98067ABC"));
+        assertSame(noaa19, index.getByInternationalDesignator("09005A"));
+        assertSame(noaa18, index.getByInternationalDesignator("unpackable"));
+        assertNull(index.getByInternationalDesignator("98067B"));
+        assertNull(index.getByInternationalDesignator("98067a"));
+        assertNull(index.getByInternationalDesignator(null));
+    }
+
+    @DisplayName("TLEs are ordered by Satellite Catalog Number")
+    @Test
+    void tles() {
+        assertEquals(Arrays.asList(iss, noaa18, noaa19), index.getTles());
+    }
+
+    @DisplayName("Map views are equal to the source maps and read-only")
+    @Test
+    void mapViews() {
+        assertEquals(bySatelliteId, index.asSatelliteIdMap());
+        assertEquals(byDesignator, index.asInternationalDesignatorMap());
+        assertEquals(byDesignator.keySet(), index.asInternationalDesignatorMap().keySet());
+        assertTrue(index.asSatelliteIdMap().containsKey(25544));
+        assertFalse(index.asSatelliteIdMap().containsKey("25544"));
+
+        assertThrows(UnsupportedOperationException.class, () -> index.asSatelliteIdMap().put(1, iss));
+        assertThrows(UnsupportedOperationException.class, () -> index.asInternationalDesignatorMap().remove("98067A"));
+        assertThrows(UnsupportedOperationException.class, () -> index.getTles().set(0, noaa18));
+    }
+
+    @DisplayName("Designator packing is reversible and keeps the order")
+    @Test
+    void designatorPacking() {
+        for (String designator : Arrays.asList("98067A", "98067Z", "98067AA", "98067ZZZ", "00001A", "99999B")) {
+            assertEquals(designator, CatalogIndex.unpackDesignator(CatalogIndex.packDesignator(designator)));
+        }
+
+        assertTrue(CatalogIndex.packDesignator("98067A") < CatalogIndex.packDesignator("98067B"));
+        assertTrue(CatalogIndex.packDesignator("98067ZZ") < CatalogIndex.packDesignator("98068A"));
+        assertEquals(-1, CatalogIndex.packDesignator("98067"));
+        assertEquals(-1, CatalogIndex.packDesignator("98067ABCD"));
+        assertEquals(-1, CatalogIndex.packDesignator("98O67A"));
+        assertEquals(-1, CatalogIndex.packDesignator("98067 A"));
+    }
+
+    @DisplayName("Empty index")
+    @Test
+    void emptyIndex() {
+        CatalogIndex empty = CatalogIndex.of(new HashMap<>(), new HashMap<>());
+        assertNull(empty.getBySatelliteId(25544));
+        assertNull(empty.getByInternationalDesignator("98067A"));
+        assertTrue(empty.asSatelliteIdMap().isEmpty());
+    }
+
+}
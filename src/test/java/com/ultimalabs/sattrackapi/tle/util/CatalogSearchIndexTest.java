@@ -0,0 +1,109 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.ultimalabs.sattrackapi.tle.model.SatelliteSummary;
+import com.ultimalabs.sattrackapi.tle.model.SearchResults;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSearchIndexTest {
+
+    private static CatalogSearchIndex index;
+
+    @BeforeAll
+    static void setup() {
+        // Orekit setup: at least a single file, "tai-utc.dat"
+        // should be present in "src/test/resources" folder
+        File orekitData = new File(".");
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+
+        // in the Satellite Catalog Number order, as returned by the catalog index
+        index = CatalogSearchIndex.of(Arrays.asList(
+                new TLEPlus("ISS (ZARYA)",
+                        "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                        "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405"),
+                new TLEPlus("NOAA 18 [B]",
+                        "1 28654U 05018A   19072.51504762  .00000017  00000-0  34275-4 0  9991",
+                        "2 28654  99.1102 117.9653 0015254  91.8549 268.4370 14.12409019711802"),
+                new TLEPlus("NOAA 19 [+]",
+                        "1 33591U 09005A   19072.55318419  .00000028  00000-0  40405-4 0  9997",
+                        "2 33591  99.1742  61.2940 0013053 292.9494  67.0299 14.12338669520180"),
+                new TLEPlus("",
+                        "1 40000U 14033AB  19072.55318419  .00000028  00000-0  40405-4 0  9997",
+                        "2 40000  99.1742  61.2940 0013053 292.9494  67.0299 14.12338669520183")));
+    }
+
+    @DisplayName("Search by name prefix, ignoring case")
+    @Test
+    void namePrefix() {
+        assertEquals(Arrays.asList(28654, 33591), ids(index.findByNamePrefix("noaa", 0, 10)));
+        assertEquals(Collections.singletonList(33591), ids(index.findByNamePrefix("NOAA 19", 0, 10)));
+        assertEquals(Collections.singletonList(25544), ids(index.findByNamePrefix("Iss (z", 0, 10)));
+        assertEquals(Collections.emptyList(), ids(index.findByNamePrefix("ZARYA", 0, 10)));
+    }
+
+    @DisplayName("Search by name substring, ignoring case")
+    @Test
+    void nameSubstring() {
+        assertEquals(Collections.singletonList(25544), ids(index.findByNameSubstring("zarya", 0, 10)));
+        assertEquals(Arrays.asList(28654, 33591), ids(index.findByNameSubstring("oaa 1", 0, 10)));
+        assertEquals(Collections.singletonList(33591), ids(index.findByNameSubstring("[+]", 0, 10)));
+        assertEquals(Collections.emptyList(), ids(index.findByNameSubstring("noaa 20", 0, 10)));
+
+        // shorter than a trigram
+        assertEquals(Arrays.asList(25544, 28654, 33591), ids(index.findByNameSubstring("a", 0, 10)));
+        assertEquals(Collections.singletonList(28654), ids(index.findByNameSubstring("8", 0, 10)));
+    }
+
+    @DisplayName("Search by International Designator prefix")
+    @Test
+    void designatorPrefix() {
+        assertEquals(Collections.singletonList(25544), ids(index.findByDesignatorPrefix("98067", 0, 10)));
+        assertEquals(Collections.singletonList(25544), ids(index.findByDesignatorPrefix("1998-067A", 0, 10)));
+        assertEquals(Arrays.asList(28654, 33591), ids(index.findByDesignatorPrefix("0", 0, 10)));
+        assertEquals(Collections.singletonList(40000), ids(index.findByDesignatorPrefix("14033a", 0, 10)));
+        assertEquals(Collections.emptyList(), ids(index.findByDesignatorPrefix("14033B", 0, 10)));
+        assertEquals(Collections.emptyList(), ids(index.findByDesignatorPrefix("98A", 0, 10)));
+
+        // all, in the designator order
+        assertEquals(Arrays.asList(28654, 33591, 40000, 25544), ids(index.findByDesignatorPrefix("", 0, 10)));
+    }
+
+    @DisplayName("Results are paged")
+    @Test
+    void paging() {
+        SearchResults first = index.findByDesignatorPrefix("", 0, 3);
+        assertEquals(4, first.getTotal());
+        assertEquals(Arrays.asList(28654, 33591, 40000), ids(first));
+
+        SearchResults second = index.findByDesignatorPrefix("", 1, 3);
+        assertEquals(4, second.getTotal());
+        assertEquals(Collections.singletonList(25544), ids(second));
+
+        SearchResults beyond = index.findByDesignatorPrefix("", Integer.MAX_VALUE, 100);
+        assertEquals(4, beyond.getTotal());
+        assertTrue(beyond.getResults().isEmpty());
+    }
+
+    private static List<Integer> ids(SearchResults results) {
+        List<Integer> ids = new ArrayList<>();
+        for (SatelliteSummary summary : results.getResults()) {
+            ids.add(summary.getId());
+        }
+        return ids;
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.ultimalabs.sattrackapi.tle.model.ElementFilter;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ElementIndexTest {
+
+    private static ElementIndex index;
+
+    @BeforeAll
+    static void setup() {
+        // Orekit setup: at least a single file, "tai-utc.dat"
+        // should be present in "src/test/resources" folder
+        File orekitData = new File(".");
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+
+        index = ElementIndex.of(Arrays.asList(
+                new TLEPlus("ISS (ZARYA)",
+                        "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                        "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405"),
+                new TLEPlus("NOAA 18 [B]",
+                        "1 28654U 05018A   19072.51504762  .00000017  00000-0  34275-4 0  9991",
+                        "2 28654  99.1102 117.9653 0015254  91.8549 268.4370 14.12409019711802"),
+                new TLEPlus("NOAA 19 [+]",
+                        "1 33591U 09005A   19072.55318419  .00000028  00000-0  40405-4 0  9997",
+                        "2 33591  99.1742  61.2940 0013053 292.9494  67.0299 14.12338669520180"),
+                new TLEPlus("ASTRA 1KR",
+                        "1 29055U 06012A   19072.21734471  .00000104  00000-0  00000-0 0  9993",
+                        "2 29055   0.0657 297.8164 0002826 191.3003 138.8831  1.00273017 47108")));
+    }
+
+    @DisplayName("Unbounded filter matches all the satellites")
+    @Test
+    void unbounded() {
+        assertEquals(Arrays.asList(25544, 28654, 33591, 29055), ids(index.filter(new ElementFilter())));
+        assertEquals(4, index.size());
+    }
+
+    @DisplayName("Sun-synchronous LEO satellites")
+    @Test
+    void inclinationAndPeriod() {
+        ElementFilter filter = new ElementFilter();
+        filter.setMinInclination(97);
+        filter.setMaxInclination(99.15);
+        filter.setMaxPeriod(128);
+        assertEquals(Collections.singletonList(28654), ids(index.filter(filter)));
+
+        filter.setMaxInclination(99.2);
+        assertEquals(Arrays.asList(28654, 33591), ids(index.filter(filter)));
+    }
+
+    @DisplayName("Apogee, perigee, eccentricity and mean motion")
+    @Test
+    void derivedElements() {
+        ElementFilter leo = new ElementFilter();
+        leo.setMaxApogee(500);
+        assertEquals(Collections.singletonList(25544), ids(index.filter(leo)));
+
+        ElementFilter highPerigee = new ElementFilter();
+        highPerigee.setMinPerigee(35000);
+        highPerigee.setMaxEccentricity(0.001);
+        assertEquals(Collections.singletonList(29055), ids(index.filter(highPerigee)));
+
+        ElementFilter fast = new ElementFilter();
+        fast.setMinMeanMotion(15);
+        assertEquals(Collections.singletonList(25544), ids(index.filter(fast)));
+    }
+
+    @DisplayName("Geosynchronous satellites in a longitude slot")
+    @Test
+    void longitudeSlot() {
+        // Astra 1KR is at 19.2 E
+        ElementFilter slot = new ElementFilter();
+        slot.setMaxMeanMotion(1.1);
+        slot.setMinLongitude(18);
+        slot.setMaxLongitude(20.5);
+        assertEquals(Collections.singletonList(29055), ids(index.filter(slot)));
+
+        slot.setMinLongitude(25);
+        slot.setMaxLongitude(30);
+        assertEquals(Collections.emptyList(), ids(index.filter(slot)));
+
+        // wraps around the antimeridian
+        slot.setMinLongitude(170);
+        slot.setMaxLongitude(20.5);
+        assertEquals(Collections.singletonList(29055), ids(index.filter(slot)));
+    }
+
+    @DisplayName("TLE age")
+    @Test
+    void epochAge() {
+        ElementFilter filter = new ElementFilter();
+        filter.setMaxEpochAge(30);
+        assertEquals(Collections.emptyList(), ids(index.filter(filter)));
+
+        filter.setMaxEpochAge(Double.MAX_VALUE);
+        assertEquals(4, index.filter(filter).size());
+    }
+
+    private static List<Integer> ids(List<TLEPlus> tles) {
+        List<Integer> ids = new ArrayList<>();
+        for (TLEPlus tle : tles) {
+            ids.add(tle.getSatelliteNumber());
+        }
+        return ids;
+    }
+
+}
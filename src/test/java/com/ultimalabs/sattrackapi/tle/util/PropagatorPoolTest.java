@@ -0,0 +1,69 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropagatorPoolTest {
+
+    private static TLEPlus iss;
+
+    @BeforeAll
+    static void setup() {
+        // Orekit setup: at least a single file, "tai-utc.dat"
+        // should be present in "src/test/resources" folder
+        File orekitData = new File(".");
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+
+        iss = new TLEPlus("ISS (ZARYA)",
+                "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405"
+        );
+    }
+
+    @DisplayName("Empty pool returns null")
+    @Test
+    void emptyPool() {
+        PropagatorPool pool = new PropagatorPool(iss, 2);
+        assertNull(pool.poll());
+    }
+
+    @DisplayName("Returned propagator is reused")
+    @Test
+    void propagatorReused() {
+        PropagatorPool pool = new PropagatorPool(iss, 2);
+        TLEPropagator propagator = pool.create();
+
+        assertTrue(pool.offer(propagator));
+        assertEquals(1, pool.getIdleCount());
+        assertSame(propagator, pool.poll());
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @DisplayName("Pool doesn't grow above the maximum size")
+    @Test
+    void poolIsBounded() {
+        PropagatorPool pool = new PropagatorPool(iss, 1);
+
+        assertTrue(pool.offer(pool.create()));
+        assertFalse(pool.offer(pool.create()));
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @DisplayName("Created propagator uses the pool TLE")
+    @Test
+    void propagatorUsesPoolTle() {
+        PropagatorPool pool = new PropagatorPool(iss, 1);
+        assertEquals(iss, pool.create().getTLE());
+    }
+
+}
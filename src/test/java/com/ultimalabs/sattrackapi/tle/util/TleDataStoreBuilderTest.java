@@ -1,6 +1,7 @@
 package com.ultimalabs.sattrackapi.tle.util;
 
 import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import com.ultimalabs.sattrackapi.tle.model.TleChangeset;
 import com.ultimalabs.sattrackapi.tle.model.TleDataStore;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
@@ -9,12 +10,19 @@ import org.orekit.data.DataProvidersManager;
 import org.orekit.data.DirectoryCrawler;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TleDataStoreBuilderTest {
 
@@ -131,4 +139,131 @@ class TleDataStoreBuilderTest {
 
     }
 
-}
\ No newline at end of file
+    @DisplayName("Grouped TLEs, group index")
+    @Test
+    void groupedTles() {
+
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        groups.put("stations", Arrays.asList(
+                "ISS (ZARYA)             ",
+                "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405"
+        ));
+        groups.put("weather", Arrays.asList(
+                "NOAA 18 [B]             ",
+                "1 28654U 05018A   19072.51504762  .00000017  00000-0  34275-4 0  9991",
+                "2 28654  99.1102 117.9653 0015254  91.8549 268.4370 14.12409019711802"
+        ));
+
+        TleDataStore store = TleDataStoreBuilder.buildGroupedTleMaps(groups);
+
+        assertEquals(2, store.getTleMapBySatelliteId().size());
+        assertEquals(Collections.singletonList(25544), store.getSatelliteIdsByGroup().get("stations"));
+        assertEquals(Collections.singletonList(28654), store.getSatelliteIdsByGroup().get("weather"));
+    }
+
+    @DisplayName("Ungrouped TLEs have no groups")
+    @Test
+    void ungroupedTles() {
+        assertTrue(issWithName.getSatelliteIdsByGroup().isEmpty());
+    }
+
+    @DisplayName("Parsing in chunks gives the same TLEs, at any chunk boundary")
+    @Test
+    void chunkedParsing() {
+
+        List<String> lines = Arrays.asList(
+                "ISS (ZARYA)             ",
+                "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405",
+                "NOAA 18 [B]             ",
+                "1 28654U 05018A   19072.51504762  .00000017  00000-0  34275-4 0  9991",
+                "2 28654  99.1102 117.9653 0015254  91.8549 268.4370 14.12409019711802",
+                "1 33591U 09005A   19072.55318419  .00000028  00000-0  40405-4 0  9997",
+                "2 33591  99.1742  61.2940 0013053 292.9494  67.0299 14.12338669520180"
+        );
+
+        List<TLEPlus> whole = TleDataStoreBuilder.parseTles(lines, 0, lines.size());
+        assertEquals(3, whole.size());
+
+        for (int split = 0; split <= lines.size(); split++) {
+            List<TLEPlus> chunked = new ArrayList<>(TleDataStoreBuilder.parseTles(lines, 0, split));
+            chunked.addAll(TleDataStoreBuilder.parseTles(lines, split, lines.size()));
+            assertEquals(whole, chunked);
+        }
+    }
+
+    @DisplayName("Unchanged TLEs are reused, changed ones are rebuilt")
+    @Test
+    void reuseUnchangedTles() {
+
+        Map<Integer, TLEPlus> previousTles = onlyNoaa18Valid.getTleMapBySatelliteId();
+        TLEPlus noaa18 = previousTles.get(28654);
+
+        List<TLEPlus> tles = TleDataStoreBuilder.parseTles(Arrays.asList(
+                "NOAA 18 [B]             ",
+                "1 28654U 05018A   19072.51504762  .00000017  00000-0  34275-4 0  9991",
+                "2 28654  99.1102 117.9653 0015254  91.8549 268.4370 14.12409019711802",
+                "NOAA 18                 ",
+                "1 28654U 05018A   19072.51504762  .00000017  00000-0  34275-4 0  9991",
+                "2 28654  99.1102 117.9653 0015254  91.8549 268.4370 14.12409019711802",
+                "ISS (ZARYA)             ",
+                "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405"
+        ), 0, 9, previousTles);
+
+        assertEquals(3, tles.size());
+        assertSame(noaa18, tles.get(0));
+        assertNotSame(noaa18, tles.get(1));
+        assertEquals("NOAA 18", tles.get(1).getName());
+        assertEquals(25544, tles.get(2).getSatelliteNumber());
+    }
+
+    @DisplayName("Changeset lists added, updated and removed satellites")
+    @Test
+    void changeset() {
+
+        List<String> noaa18 = Arrays.asList(
+                "NOAA 18 [B]             ",
+                "1 28654U 05018A   19072.51504762  .00000017  00000-0  34275-4 0  9991",
+                "2 28654  99.1102 117.9653 0015254  91.8549 268.4370 14.12409019711802"
+        );
+        List<String> noaa19 = Arrays.asList(
+                "NOAA 19 [+]             ",
+                "1 33591U 09005A   19072.55318419  .00000028  00000-0  40405-4 0  9997",
+                "2 33591  99.1742  61.2940 0013053 292.9494  67.0299 14.12338669520180"
+        );
+        List<String> issNextDay = Arrays.asList(
+                "ISS (ZARYA)             ",
+                "1 25544U 98067A   19073.58486381 -.00000050  00000-0  67055-5 0  9997",
+                "2 25544  51.6411 111.5260 0004049 100.8410  14.7809 15.52801380160400"
+        );
+
+        List<String> previousLines = new ArrayList<>(Arrays.asList(
+                "ISS (ZARYA)             ",
+                "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405"
+        ));
+        previousLines.addAll(noaa18);
+        TleDataStore previous = TleDataStoreBuilder.buildTleMaps(previousLines);
+
+        List<String> currentLines = new ArrayList<>(issNextDay);
+        currentLines.addAll(noaa19);
+        Map<String, List<TLEPlus>> current = new LinkedHashMap<>();
+        current.put("all", TleDataStoreBuilder.parseTles(currentLines, 0, currentLines.size(), previous.getTleMapBySatelliteId()));
+
+        TleChangeset changeset = TleDataStoreBuilder.diff(previous, TleDataStoreBuilder.buildFromParsedTles(current));
+
+        assertEquals(Collections.singleton(33591), changeset.getAdded());
+        assertEquals(Collections.singleton(25544), changeset.getUpdated());
+        assertEquals(Collections.singleton(28654), changeset.getRemoved());
+    }
+
+    @DisplayName("Changeset of the same store is empty, of the first store has all satellites added")
+    @Test
+    void emptyChangeset() {
+        assertTrue(TleDataStoreBuilder.diff(issWithName, issWithName).isEmpty());
+        assertEquals(Collections.singleton(25544), TleDataStoreBuilder.diff(null, issWithName).getAdded());
+    }
+
+}
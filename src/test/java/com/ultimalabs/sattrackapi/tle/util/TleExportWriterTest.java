@@ -0,0 +1,152 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ultimalabs.sattrackapi.tle.model.TLEPlus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TleExportWriterTest {
+
+    private static List<TLEPlus> tles;
+
+    @BeforeAll
+    static void setup() {
+        // Orekit setup: at least a single file, "tai-utc.dat"
+        // should be present in "src/test/resources" folder
+        File orekitData = new File(".");
+        DataProvidersManager manager = DataProvidersManager.getInstance();
+        manager.addProvider(new DirectoryCrawler(orekitData));
+
+        tles = Arrays.asList(
+                new TLEPlus("ISS (ZARYA)",
+                        "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+                        "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405"),
+                new TLEPlus("",
+                        "1 28654U 05018A   19072.51504762  .00000017  00000-0  34275-4 0  9991",
+                        "2 28654  99.1102 117.9653 0015254  91.8549 268.4370 14.12409019711802"));
+    }
+
+    @DisplayName("3LE text")
+    @Test
+    void threeLineElements() {
+        String text = new String(TleExportWriter.write3le(tles), StandardCharsets.UTF_8);
+        assertEquals("ISS (ZARYA)             \n" +
+                "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996\n" +
+                "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405\n" +
+                "1 28654U 05018A   19072.51504762  .00000017  00000-0  34275-4 0  9991\n" +
+                "2 28654  99.1102 117.9653 0015254  91.8549 268.4370 14.12409019711802\n", text);
+    }
+
+    @DisplayName("JSON with the OMM keywords")
+    @Test
+    void json() throws IOException {
+        JsonNode array = new ObjectMapper().readTree(TleExportWriter.writeJson(tles));
+        assertEquals(2, array.size());
+
+        JsonNode iss = array.get(0);
+        assertEquals("ISS (ZARYA)", iss.get("OBJECT_NAME").asText());
+        assertEquals("1998-067A", iss.get("OBJECT_ID").asText());
+        assertEquals(25544, iss.get("NORAD_CAT_ID").asInt());
+        assertTrue(iss.get("EPOCH").asText().startsWith("2019-03-13T14:02:12.23"));
+        assertEquals(15.52801380, iss.get("MEAN_MOTION").asDouble());
+        assertEquals(0.0004049, iss.get("ECCENTRICITY").asDouble());
+        assertEquals(51.6411, iss.get("INCLINATION").asDouble());
+        assertEquals(116.5260, iss.get("RA_OF_ASC_NODE").asDouble());
+        assertEquals(100.8410, iss.get("ARG_OF_PERICENTER").asDouble());
+        assertEquals(14.7809, iss.get("MEAN_ANOMALY").asDouble());
+        assertEquals(0.67055e-5, iss.get("BSTAR").asDouble());
+        assertEquals(-0.00000050, iss.get("MEAN_MOTION_DOT").asDouble());
+        assertEquals(0., iss.get("MEAN_MOTION_DDOT").asDouble());
+        assertEquals(999, iss.get("ELEMENT_SET_NO").asInt());
+        assertEquals(16040, iss.get("REV_AT_EPOCH").asInt());
+        assertEquals("U", iss.get("CLASSIFICATION_TYPE").asText());
+
+        assertEquals("", array.get(1).get("OBJECT_NAME").asText());
+        assertEquals("2005-018A", array.get(1).get("OBJECT_ID").asText());
+    }
+
+    @DisplayName("Binary records")
+    @Test
+    void binary() {
+        ByteBuffer buffer = ByteBuffer.wrap(TleExportWriter.writeBinary(tles));
+        assertEquals(TleExportWriter.BINARY_HEADER_SIZE + 2 * TleExportWriter.BINARY_RECORD_SIZE, buffer.remaining());
+
+        assertEquals(TleExportWriter.BINARY_MAGIC, buffer.getInt());
+        assertEquals(TleExportWriter.BINARY_VERSION, buffer.getShort());
+        assertEquals(TleExportWriter.BINARY_RECORD_SIZE, buffer.getShort());
+        assertEquals(2, buffer.getInt());
+
+        assertEquals(25544, buffer.getInt());
+        assertEquals(1552485732233L, buffer.getLong());
+        assertEquals(15.52801380, buffer.getDouble());
+        assertEquals(0.0004049, buffer.getDouble());
+        assertEquals(51.6411, buffer.getDouble());
+        assertEquals(116.5260, buffer.getDouble());
+        assertEquals(100.8410, buffer.getDouble());
+        assertEquals(14.7809, buffer.getDouble());
+        assertEquals(0.67055e-5, buffer.getDouble());
+        assertEquals(-0.00000050, buffer.getDouble());
+        assertEquals(0., buffer.getDouble());
+        assertEquals(16040, buffer.getInt());
+        assertEquals(999, buffer.getShort());
+        assertEquals(0, buffer.get());
+        assertEquals('U', buffer.get());
+
+        byte[] designator = new byte[8];
+        buffer.get(designator);
+        assertEquals("98067A  ", new String(designator, StandardCharsets.US_ASCII));
+
+        byte[] name = new byte[24];
+        buffer.get(name);
+        assertEquals("ISS (ZARYA)             ", new String(name, StandardCharsets.US_ASCII));
+
+        assertEquals(TleExportWriter.BINARY_RECORD_SIZE, buffer.remaining());
+        assertEquals(28654, buffer.getInt());
+    }
+
+    @DisplayName("TLE number fields")
+    @Test
+    void numberFields() {
+        String line1 = "1 25544U 98067A   19072.58486381 -.00000050 -12345-3 +67055-5 0  9996";
+        assertEquals("-0.00000050", TleExportWriter.decimal(line1, 33, 43));
+        assertEquals("-0.12345E-3", TleExportWriter.exponential(line1, 44, 52));
+        assertEquals("0.67055E-5", TleExportWriter.exponential(line1, 53, 61));
+    }
+
+    @DisplayName("Gzip round trip")
+    @Test
+    void gzip() throws IOException {
+        byte[] data = TleExportWriter.write3le(tles);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(TleExportWriter.gzip(data)))) {
+            byte[] chunk = new byte[1024];
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                out.write(chunk, 0, read);
+            }
+        }
+
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.ultimalabs.sattrackapi.tle.util;
+
+import com.ultimalabs.sattrackapi.common.model.UrlData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TleSourceCacheTest {
+
+    private static final String AMATEUR = "https://download.ultimalabs.com/files/tle/amateur.txt";
+    private static final String WEATHER = "https://download.ultimalabs.com/files/tle/weather.txt";
+
+    private final List<String> issLines = Arrays.asList(
+            "ISS (ZARYA)             ",
+            "1 25544U 98067A   19072.58486381 -.00000050  00000-0  67055-5 0  9996",
+            "2 25544  51.6411 116.5260 0004049 100.8410  14.7809 15.52801380160405"
+    );
+
+    @DisplayName("Stored source is loaded with its validators")
+    @Test
+    void storeAndLoad(@TempDir Path folder) {
+        TleSourceCache cache = new TleSourceCache(folder.resolve("tle-cache").toString());
+        cache.store(AMATEUR, new UrlData(issLines, "\"5f2b-1a\"", "Sat, 17 Oct 2026 09:36:00 GMT"));
+
+        UrlData loaded = new TleSourceCache(folder.resolve("tle-cache").toString()).load(AMATEUR);
+
+        assertEquals(issLines, loaded.getLines());
+        assertEquals("\"5f2b-1a\"", loaded.getEtag());
+        assertEquals("Sat, 17 Oct 2026 09:36:00 GMT", loaded.getLastModified());
+        assertNull(cache.load(WEATHER));
+    }
+
+    @DisplayName("Missing validators are loaded as null")
+    @Test
+    void storeWithoutValidators(@TempDir Path folder) {
+        TleSourceCache cache = new TleSourceCache(folder.toString());
+        cache.store(AMATEUR, new UrlData(issLines, null, null));
+
+        UrlData loaded = cache.load(AMATEUR);
+
+        assertEquals(issLines, loaded.getLines());
+        assertNull(loaded.getEtag());
+        assertNull(loaded.getLastModified());
+    }
+
+    @DisplayName("Stored source replaces the previous one")
+    @Test
+    void replace(@TempDir Path folder) {
+        TleSourceCache cache = new TleSourceCache(folder.toString());
+        cache.store(AMATEUR, new UrlData(issLines, "\"1\"", null));
+        cache.store(AMATEUR, new UrlData(Collections.singletonList("replaced"), "\"2\"", null));
+
+        UrlData loaded = cache.load(AMATEUR);
+
+        assertEquals(Collections.singletonList("replaced"), loaded.getLines());
+        assertEquals("\"2\"", loaded.getEtag());
+    }
+
+    @DisplayName("Source without the properties file isn't loaded")
+    @Test
+    void incompleteEntry(@TempDir Path folder) throws Exception {
+        TleSourceCache cache = new TleSourceCache(folder.toString());
+        cache.store(AMATEUR, new UrlData(issLines, "\"1\"", null));
+
+        Files.delete(folder.resolve(TleSourceCache.getFileName(AMATEUR) + ".properties"));
+
+        assertNull(cache.load(AMATEUR));
+    }
+
+    @DisplayName("Cache without a folder is disabled")
+    @Test
+    void disabled() {
+        TleSourceCache cache = new TleSourceCache("");
+        cache.store(AMATEUR, new UrlData(issLines, "\"1\"", null));
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.load(AMATEUR));
+        assertTrue(new TleSourceCache("tle-cache").isEnabled());
+    }
+
+    @DisplayName("File name is derived from the URL")
+    @Test
+    void fileName() {
+        assertEquals("download.ultimalabs.com_files_tle_amateur.txt", TleSourceCache.getFileName(AMATEUR));
+        assertEquals("127.0.0.1_8080_tle_gp.php_GROUP_weather_FORMAT_tle",
+                TleSourceCache.getFileName("http://127.0.0.1:8080/tle/gp.php?GROUP=weather&FORMAT=tle"));
+    }
+
+}